@@ -0,0 +1,67 @@
+package com.taffy.streamlink.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a full 100-stream Helix {@code /streams} page (one batched live check):
+ * the streaming {@link StreamInfo} reader against the parse-to-tree approach it replaced.
+ *
+ * Run with {@code -prof gc}; {@code gc.alloc.rate.norm} is the allocation per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonDecodingBenchmark {
+
+    private byte[] page;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("{\"data\":[");
+        for (int i = 0; i < 100; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":\"4198").append(i).append("\",\"user_id\":\"").append(100_000 + i)
+                    .append("\",\"user_login\":\"viewer_").append(i).append("\",\"user_name\":\"Viewer_").append(i)
+                    .append("\",\"game_id\":\"27471\",\"game_name\":\"Minecraft\",\"type\":\"live\",")
+                    .append("\"title\":\"Building a castle with chat, day ").append(i).append("\",")
+                    .append("\"tags\":[\"English\",\"Survival\",\"Chill\"],\"viewer_count\":").append(i * 37)
+                    .append(",\"started_at\":\"2026-10-17T08:00:00Z\",\"language\":\"en\",")
+                    .append("\"thumbnail_url\":\"https://static-cdn.jtvnw.net/previews-ttv/live_user_viewer_")
+                    .append(i).append("-{width}x{height}.jpg\",\"tag_ids\":[],\"is_mature\":false}");
+        }
+        page = sb.append("],\"pagination\":{\"cursor\":\"eyJiIjp7IkN1cnNvciI6ImV5SnpJam94TkRBeExqRTBOelV4TVRRd09Ea3dNalEzTENKa0lqcG1ZV3h6WlN3aWRDSTZkSEoxWlgwPSJ9fQ\"}}")
+                .toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<StreamInfo> streaming() throws IOException {
+        return JsonDecoding.decode(new ByteArrayInputStream(page), in -> JsonDecoding.allOfData(in, StreamInfo::read));
+    }
+
+    @Benchmark
+    public List<StreamInfo> tree() {
+        JsonObject root = JsonParser.parseString(new String(page, StandardCharsets.UTF_8)).getAsJsonObject();
+        JsonArray data = root.getAsJsonArray("data");
+        List<StreamInfo> out = new ArrayList<>(data.size());
+        for (JsonElement e : data) {
+            JsonObject o = e.getAsJsonObject();
+            out.add(new StreamInfo(o.get("user_id").getAsString(), o.get("type").getAsString(),
+                    o.get("title").getAsString(), o.get("game_name").getAsString(), o.get("viewer_count").getAsInt()));
+        }
+        return out;
+    }
+}
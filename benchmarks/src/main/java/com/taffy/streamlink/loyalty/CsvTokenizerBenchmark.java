@@ -0,0 +1,116 @@
+package com.taffy.streamlink.loyalty;
+
+import com.taffy.streamlink.storage.IndexEntry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing one block of a loyalty export: the tokenizer plus {@link LoginTable} lookup
+ * used by the importer, against the line-by-line {@code splitCsv} it replaced.
+ *
+ * Run with {@code -prof gc} to compare allocation per row as well as throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvTokenizerBenchmark {
+
+    @Param({"10000"})
+    int rows;
+
+    /** Share of rows whose viewer has linked; the rest are the common "not linked" case. */
+    @Param({"0.1"})
+    double linkedShare;
+
+    private char[] block;
+    private LoginTable table;
+    private Map<String, UUID> byLogin;
+
+    @Setup
+    public void setup() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        StringBuilder csv = new StringBuilder(rows * 32);
+        List<IndexEntry> entries = new ArrayList<>();
+        byLogin = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            String login = "Viewer_" + i;
+            if (i % 50 == 0) csv.append('"').append(login).append("\",");
+            else csv.append(login).append(',');
+            csv.append(rnd.nextInt(1_000_000)).append(',').append(rnd.nextInt(100_000)).append('\n');
+            if (rnd.nextDouble() < linkedShare) {
+                UUID id = UUID.randomUUID();
+                entries.add(new IndexEntry(id, String.valueOf(i), login.toLowerCase()));
+                byLogin.put(login.toLowerCase(), id);
+            }
+        }
+        block = csv.toString().toCharArray();
+        table = LoginTable.of(entries);
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole bh) {
+        CsvTokenizer tok = new CsvTokenizer().reset(block, 0, block.length);
+        while (tok.nextRecord()) {
+            long points = tok.parseLong(1);
+            long minutes = tok.parseLong(2);
+            UUID player = table.find(tok.buffer(), tok.trimmedStart(0), tok.trimmedEnd(0));
+            bh.consume(points + minutes);
+            bh.consume(player);
+        }
+    }
+
+    @Benchmark
+    public void splitCsv(Blackhole bh) throws IOException {
+        BufferedReader in = new BufferedReader(new CharArrayReader(block));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] cols = splitCsv(line);
+            int points = Integer.parseInt(cols[1].trim());
+            long minutes = Long.parseLong(cols[2].trim());
+            UUID player = byLogin.get(cols[0].trim().toLowerCase());
+            bh.consume(points + minutes);
+            bh.consume(player);
+        }
+    }
+
+    /** The importer's splitter before {@link CsvTokenizer}, kept verbatim as the baseline. */
+    static String[] splitCsv(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean inQuotes = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    // escaped quote ""
+                    cur.append('"');
+                    i++; // skip next quote
+                } else {
+                    inQuotes = !inQuotes; // toggle quote mode
+                }
+            } else if (c == ',' && !inQuotes) {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        out.add(cur.toString());
+        return out.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,101 @@
+package com.taffy.streamlink.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Twitch app access token (client credentials grant) for public Helix reads, so live
+ * checks and user lookups don't depend on any player's own token.
+ *
+ * The token is cached until {@code skewMs} before it expires. Callers that need a new
+ * one at the same time share a single token request; a background timer calling
+ * {@link #get} renews it before any reader has to wait.
+ */
+public class AppAccessToken {
+
+    /** A token and the epoch millis it expires at. */
+    public record Grant(String token, long expiresAtMs) {
+    }
+
+    // a failed token request is not repeated sooner than this; callers get its error meanwhile
+    private static final long MIN_RETRY_MS = 5_000L;
+
+    private final Supplier<CompletableFuture<Grant>> request;
+    private final long skewMs;
+    private final AtomicReference<Grant> current = new AtomicReference<>();
+    // the token request in progress, if any; everyone who needs one shares it
+    private final AtomicReference<CompletableFuture<String>> inFlight = new AtomicReference<>();
+    private volatile Throwable lastFailure;
+    private volatile long lastFailureMs;
+
+    /**
+     * @param request asks Twitch for a new token
+     * @param skewMs  renew this long before the token expires
+     */
+    public AppAccessToken(Supplier<CompletableFuture<Grant>> request, long skewMs) {
+        this.request = request;
+        this.skewMs = Math.max(0L, skewMs);
+    }
+
+    /**
+     * The cached token. Within the skew of expiring it is still returned while a new one is
+     * requested in the background; once expired (or before the first) callers wait for one.
+     */
+    public CompletableFuture<String> get() {
+        Grant grant = current.get();
+        long now = System.currentTimeMillis();
+        if (grant != null && now < grant.expiresAtMs() - skewMs) {
+            return CompletableFuture.completedFuture(grant.token());
+        }
+        if (grant != null && now < grant.expiresAtMs()) {
+            fetch();
+            return CompletableFuture.completedFuture(grant.token());
+        }
+        return fetch();
+    }
+
+    /** Forgets {@code token} after Twitch rejected it, unless it has been replaced already. */
+    public void invalidate(String token) {
+        Grant grant = current.get();
+        if (grant != null && grant.token().equals(token)) {
+            current.compareAndSet(grant, null);
+        }
+    }
+
+    /** Epoch millis the cached token expires at, or 0 if there is none. */
+    public long getExpiresAt() {
+        Grant grant = current.get();
+        return grant == null ? 0L : grant.expiresAtMs();
+    }
+
+    private CompletableFuture<String> fetch() {
+        Throwable failed = lastFailure;
+        if (failed != null && System.currentTimeMillis() - lastFailureMs < MIN_RETRY_MS) {
+            return CompletableFuture.failedFuture(failed);
+        }
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.compareAndExchange(null, mine);
+        if (running != null) return running;
+
+        CompletableFuture<Grant> grant;
+        try {
+            grant = request.get();
+        } catch (RuntimeException e) {
+            grant = CompletableFuture.failedFuture(e);
+        }
+        grant.whenComplete((value, error) -> {
+            if (error == null) {
+                current.set(value);
+                lastFailure = null;
+            } else {
+                lastFailure = (error.getCause() != null) ? error.getCause() : error;
+                lastFailureMs = System.currentTimeMillis();
+            }
+            inFlight.set(null);
+            if (error != null) mine.completeExceptionally(error);
+            else mine.complete(value.token());
+        });
+        return mine;
+    }
+}
@@ -0,0 +1,164 @@
+package com.taffy.streamlink.api;
+
+import com.taffy.streamlink.exceptions.CircuitOpenException;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-endpoint circuit breakers shared by every HTTP client in the plugin.
+ *
+ * An endpoint is a host plus path, e.g. {@code api.twitch.tv/helix/streams}. After
+ * {@code failureThreshold} upstream failures in a row (no response or a 5xx) its circuit
+ * opens and requests fail at once with {@link CircuitOpenException} for {@code openMs},
+ * or longer if the server sent Retry-After. Then it is half-open: one probe request per
+ * {@code openMs} is let through, and the first success closes the circuit again while a
+ * failure reopens it. Responses such as 401 or 404 show the endpoint is up and count as
+ * successes here.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMs;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public CircuitBreaker(int failureThreshold, long openMs) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = Math.max(1000L, openMs);
+    }
+
+    /** Host and path of a request, without the query string. */
+    public static String endpoint(URI uri) {
+        String path = uri.getPath();
+        return uri.getHost() + ((path == null || path.isEmpty()) ? "/" : path);
+    }
+
+    /**
+     * Claims permission to send. In the half-open state only the probe gets it.
+     * @throws CircuitOpenException if the circuit is open
+     */
+    public void acquire(String endpoint) throws CircuitOpenException {
+        long retryIn = circuit(endpoint).tryAcquire(System.currentTimeMillis());
+        if (retryIn > 0) {
+            rejected.incrementAndGet();
+            throw new CircuitOpenException(endpoint, retryIn);
+        }
+    }
+
+    /** Cheap check for pollers: would a request be let through right now? Claims nothing. */
+    public boolean isAvailable(String endpoint) {
+        Circuit circuit = circuits.get(endpoint);
+        return circuit == null || circuit.available(System.currentTimeMillis());
+    }
+
+    /** The endpoint answered (any status below 500). */
+    public void onSuccess(String endpoint) {
+        circuit(endpoint).success();
+    }
+
+    /**
+     * No response or a 5xx.
+     * @param retryAfterMs how long the server asked us to wait, or -1
+     */
+    public void onFailure(String endpoint, long retryAfterMs) {
+        circuit(endpoint).failure(System.currentTimeMillis(), retryAfterMs);
+    }
+
+    public State getState(String endpoint) {
+        Circuit circuit = circuits.get(endpoint);
+        return circuit == null ? State.CLOSED : circuit.state();
+    }
+
+    /** Requests refused while a circuit was open. */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /** Endpoints that are not closed, for the metrics report, e.g. {@code api.twitch.tv/helix/streams open (25s)}. */
+    public String describe() {
+        Map<String, Circuit> sorted = new TreeMap<>(circuits);
+        StringBuilder sb = new StringBuilder();
+        int closed = 0;
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Circuit> e : sorted.entrySet()) {
+            String state = e.getValue().describe(now);
+            if (state == null) {
+                closed++;
+                continue;
+            }
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(e.getKey()).append(' ').append(state);
+        }
+        if (sb.length() > 0) sb.append(", ");
+        return sb.append(closed).append(" closed, ").append(rejected.get()).append(" rejected").toString();
+    }
+
+    private Circuit circuit(String endpoint) {
+        return circuits.computeIfAbsent(endpoint, e -> new Circuit());
+    }
+
+    private final class Circuit {
+        private State state = State.CLOSED;
+        private int failures;
+        private long openUntil;   // OPEN: when the first probe may go
+        private long nextProbeAt; // HALF_OPEN: when another probe may go if the last never reported
+
+        // @return 0 if allowed, else millis until the next attempt may be made
+        synchronized long tryAcquire(long now) {
+            return switch (state) {
+                case CLOSED -> 0;
+                case OPEN -> {
+                    if (now < openUntil) yield openUntil - now;
+                    state = State.HALF_OPEN;
+                    nextProbeAt = now + openMs;
+                    yield 0;
+                }
+                case HALF_OPEN -> {
+                    if (now < nextProbeAt) yield nextProbeAt - now;
+                    nextProbeAt = now + openMs;
+                    yield 0;
+                }
+            };
+        }
+
+        synchronized boolean available(long now) {
+            return switch (state) {
+                case CLOSED -> true;
+                case OPEN -> now >= openUntil;
+                case HALF_OPEN -> now >= nextProbeAt;
+            };
+        }
+
+        synchronized void success() {
+            state = State.CLOSED;
+            failures = 0;
+        }
+
+        synchronized void failure(long now, long retryAfterMs) {
+            failures++;
+            if (state == State.HALF_OPEN || failures >= failureThreshold) {
+                state = State.OPEN;
+                openUntil = now + Math.max(openMs, retryAfterMs);
+            }
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        // null while closed
+        synchronized String describe(long now) {
+            return switch (state) {
+                case CLOSED -> null;
+                case OPEN -> "open (" + Math.max(0, (openUntil - now + 999) / 1000) + "s)";
+                case HALF_OPEN -> "half-open";
+            };
+        }
+    }
+}
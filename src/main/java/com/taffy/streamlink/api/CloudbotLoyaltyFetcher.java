@@ -0,0 +1,246 @@
+package com.taffy.streamlink.api;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.taffy.streamlink.exceptions.CircuitOpenException;
+import com.taffy.streamlink.exceptions.TwitchAPIException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pulls the paginated Cloudbot loyalty list (the same data the README bookmarklet
+ * scrapes) with a bounded number of page requests in flight.
+ *
+ * Each of {@code maxConcurrent} lanes claims the next page number, fetches it and
+ * hands the rows to the sink before claiming another. Lanes stop at the
+ * {@code last_page} reported by the API, or at the first empty page if it is
+ * not reported. The first failed page stops the whole job: other lanes claim no
+ * more pages, requests still in flight are cancelled and their rows are dropped.
+ * The base URL is configurable so the fetcher can be pointed at
+ * a local stub server.
+ */
+public class CloudbotLoyaltyFetcher {
+
+    /** Receives each page as it arrives; may be called from several threads at once. */
+    public interface PageSink {
+        void accept(int page, List<LoyaltyRow> rows);
+    }
+
+    private final HttpTransport http;
+    private final RateGovernor governor;
+    private final CircuitBreaker breaker;
+    private final String baseUrl;
+    private final Supplier<String> accessToken;
+    private final Supplier<CompletableFuture<Boolean>> refreshToken;
+    private final int maxConcurrent;
+    private final Duration timeout;
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    /**
+     * @param accessToken  current bearer token, re-read before every request
+     * @param refreshToken refreshes the token after a 401 (or joins a refresh in progress);
+     *                     completes with true if a new token is available
+     */
+    public CloudbotLoyaltyFetcher(HttpTransport http, RateGovernor governor, CircuitBreaker breaker, String baseUrl, Supplier<String> accessToken,
+                                  Supplier<CompletableFuture<Boolean>> refreshToken, int maxConcurrent, Duration timeout) {
+        this.http = http;
+        this.governor = governor;
+        this.breaker = breaker;
+        this.baseUrl = baseUrl;
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return completes once every lane has stopped: with the number of non-empty pages
+     *         fetched, or exceptionally with the first failed page's error
+     */
+    public CompletableFuture<Integer> fetchAll(PageSink sink) {
+        Job job = new Job(sink);
+        List<CompletableFuture<Void>> lanes = new ArrayList<>(maxConcurrent);
+        for (int i = 0; i < maxConcurrent; i++) {
+            lanes.add(job.lane().whenComplete((v, error) -> {
+                if (error != null) job.fail(error);
+            }));
+        }
+        return CompletableFuture.allOf(lanes.toArray(new CompletableFuture[0]))
+                .handle((v, error) -> {
+                    Throwable failure = job.failure.get();
+                    if (failure != null) throw new CompletionException(failure);
+                    return job.pages.get();
+                });
+    }
+
+    /** False while the loyalty endpoint's circuit is open. */
+    public boolean isAvailable() {
+        return breaker.isAvailable(CircuitBreaker.endpoint(URI.create(baseUrl)));
+    }
+
+    /** HTTP requests sent by this fetcher so far, including 401 retries. */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    private final class Job {
+        final PageSink sink;
+        final AtomicInteger nextPage = new AtomicInteger(1);
+        final AtomicInteger lastPage = new AtomicInteger(Integer.MAX_VALUE);
+        final AtomicInteger pages = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+
+        Job(PageSink sink) {
+            this.sink = sink;
+        }
+
+        // the first failure wins; everything still running is abandoned
+        void fail(Throwable error) {
+            Throwable cause = (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+            if (!failure.compareAndSet(null, cause)) return;
+            lastPage.set(0);
+            for (CompletableFuture<?> call : inFlight) call.cancel(true);
+        }
+
+        boolean stopped() {
+            return failure.get() != null;
+        }
+
+        CompletableFuture<Void> lane() {
+            int page = nextPage.getAndIncrement();
+            if (page > lastPage.get() || stopped()) return CompletableFuture.completedFuture(null);
+
+            return fetch(page, false).thenCompose(parsed -> {
+                if (stopped()) return CompletableFuture.completedFuture(null);
+                if (parsed.lastPage > 0) lastPage.accumulateAndGet(parsed.lastPage, Math::min);
+                if (parsed.rows.isEmpty()) {
+                    // past the end: stop every lane from claiming further pages
+                    lastPage.accumulateAndGet(page - 1, Math::min);
+                    return CompletableFuture.completedFuture(null);
+                }
+                pages.incrementAndGet();
+                sink.accept(page, parsed.rows);
+                return lane();
+            });
+        }
+
+        CompletableFuture<Page> fetch(int page, boolean retried) {
+            URI uri = URI.create(baseUrl + (baseUrl.contains("?") ? "&" : "?") + "page=" + page);
+            try {
+                breaker.acquire(CircuitBreaker.endpoint(uri));
+            } catch (CircuitOpenException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            return governor.acquire(uri.getHost(), RateGovernor.Priority.BACKGROUND)
+                    .thenCompose(v -> stopped()
+                            ? CompletableFuture.failedFuture(new CancellationException("Cloudbot sync stopped"))
+                            : send(uri, page, retried));
+        }
+
+        CompletableFuture<Page> send(URI uri, int page, boolean retried) {
+            HttpRequest request = http.request(uri, timeout)
+                    .header("Authorization", "Bearer " + accessToken.get())
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+
+            final String endpoint = CircuitBreaker.endpoint(uri);
+            requestCount.incrementAndGet();
+            CompletableFuture<HttpResponse<InputStream>> call = http.send(request);
+            inFlight.add(call);
+            if (stopped()) call.cancel(true);
+            return call.handle((resp, error) -> {
+                inFlight.remove(call);
+                if (error == null && stopped()) HttpTransport.discard(resp);
+                if (error == null && !stopped()) return onResponse(resp, uri, endpoint, page, retried);
+                if (stopped()) return CompletableFuture.<Page>failedFuture(new CancellationException("Cloudbot sync stopped"));
+                Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                breaker.onFailure(endpoint, -1);
+                return CompletableFuture.<Page>failedFuture(TwitchAPIException.noResponse(
+                        "Cloudbot loyalty page " + page + " got no response: " + cause.getMessage(), cause));
+            }).thenCompose(f -> f);
+        }
+
+        CompletableFuture<Page> onResponse(HttpResponse<InputStream> resp, URI uri, String endpoint, int page, boolean retried) {
+            Function<String, String> header = name -> resp.headers().firstValue(name).orElse(null);
+            governor.observe(uri.getHost(), resp.statusCode(), header);
+            long retryAfterMs = RateGovernor.retryAfterMs(header);
+            if (resp.statusCode() >= 500) breaker.onFailure(endpoint, retryAfterMs);
+            else breaker.onSuccess(endpoint);
+            if (resp.statusCode() != 200) HttpTransport.discard(resp);
+            if (resp.statusCode() == 429 && !retried) {
+                // held by the governor until the limit resets
+                return fetch(page, true);
+            }
+            if (resp.statusCode() == 401 && !retried) {
+                // lanes rejected together all wait on the same refresh
+                return refreshToken.get().thenCompose(refreshed -> refreshed
+                        ? fetch(page, true)
+                        : CompletableFuture.failedFuture(new TwitchAPIException(401,
+                                "Cloudbot loyalty page " + page + " rejected the token and refresh failed")));
+            }
+            if (resp.statusCode() != 200) {
+                return CompletableFuture.failedFuture(new TwitchAPIException(resp.statusCode(),
+                        "Cloudbot loyalty page " + page + " returned HTTP " + resp.statusCode(), retryAfterMs));
+            }
+            try {
+                return CompletableFuture.completedFuture(JsonDecoding.decode(HttpTransport.body(resp), CloudbotLoyaltyFetcher::readPage));
+            } catch (IOException | RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+
+    private record Page(List<LoyaltyRow> rows, int lastPage) {
+    }
+
+    // {"data":{"current_page":1,"last_page":N,"data":[{"viewer":{"name":..},"points":..,"time":..}]}}
+    // or the inner object on its own
+    private static Page readPage(JsonReader in) throws IOException {
+        List<LoyaltyRow> rows = new ArrayList<>();
+        int lastPage = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if ("data".equals(name) && in.peek() == JsonToken.BEGIN_OBJECT) {
+                Page inner = readPage(in);
+                rows.addAll(inner.rows);
+                if (inner.lastPage > 0) lastPage = inner.lastPage;
+            } else if ("data".equals(name) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                in.beginArray();
+                while (in.hasNext()) {
+                    if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                        in.skipValue();
+                        continue;
+                    }
+                    LoyaltyRow row = LoyaltyRow.readCloudbotEntry(in);
+                    if (row != null) rows.add(row);
+                }
+                in.endArray();
+            } else if ("last_page".equals(name)) {
+                lastPage = (int) JsonDecoding.nextLong(in, 0L);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Page(rows, lastPage);
+    }
+}
@@ -0,0 +1,130 @@
+package com.taffy.streamlink.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The plugin's single HTTP client, shared by the Twitch, Streamlabs and token clients so
+ * there is one connection pool per server.
+ *
+ * Requests prefer HTTP/2 (falling back to HTTP/1.1 where the server does not offer it)
+ * and connections are kept alive between requests. Every request built here asks for a
+ * gzip body and has a deadline for the response headers to arrive; that deadline does not
+ * cover reading the body, so callers bound the whole call themselves. Bodies are read
+ * through {@link #body} so compressed responses are inflated transparently.
+ */
+public class HttpTransport {
+    public static final String USER_AGENT = "StreamLink-Plugin/1.0";
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Duration requestTimeout;
+
+    /**
+     * @param connectTimeout limit for opening a connection
+     * @param requestTimeout default deadline for a response, see {@link #request(URI, Duration)}
+     */
+    public HttpTransport(Duration connectTimeout, Duration requestTimeout) {
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "StreamLink-HTTP-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(executor)
+                .build();
+        this.requestTimeout = requestTimeout;
+    }
+
+    public HttpRequest.Builder request(URI uri) {
+        return request(uri, requestTimeout);
+    }
+
+    /**
+     * A request builder with the common headers set.
+     * @param timeout how long to wait for the response headers once sent
+     */
+    public HttpRequest.Builder request(URI uri, Duration timeout) {
+        return HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(timeout)
+                .header("Accept-Encoding", "gzip")
+                .header("User-Agent", USER_AGENT);
+    }
+
+    /** Sends without blocking; the body is left unread for the caller to stream and close. */
+    public CompletableFuture<HttpResponse<InputStream>> send(HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Closes the client's pooled connections and its selector thread, then stops the
+     * executor. Without the first step each plugin reload would leave a client running.
+     */
+    public void shutdown() {
+        client.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /** The response body, inflated if the server compressed it. */
+    public static InputStream body(HttpResponse<InputStream> response) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .map(v -> v.trim().equalsIgnoreCase("gzip"))
+                .orElse(false);
+        if (!gzip) return response.body();
+        try {
+            return new GZIPInputStream(response.body());
+        } catch (IOException e) {
+            discard(response);
+            throw e;
+        }
+    }
+
+    /** The whole body as UTF-8 text. */
+    public static String readString(HttpResponse<InputStream> response) throws IOException {
+        try (InputStream in = body(response)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Up to {@code max} characters of the body on one line, for error messages; closes it. */
+    public static String snippet(HttpResponse<InputStream> response, int max) {
+        try (InputStream in = body(response)) {
+            byte[] head = in.readNBytes(max + 1);
+            String text = new String(head, 0, Math.min(head.length, max), StandardCharsets.UTF_8).replace('\n', ' ');
+            return head.length > max ? text + "..." : text;
+        } catch (IOException e) {
+            return "";
+        } finally {
+            discard(response);
+        }
+    }
+
+    /** Closes an unread body so the connection can go back to the pool. */
+    public static void discard(HttpResponse<InputStream> response) {
+        try {
+            response.body().close();
+        } catch (IOException ignored) {
+            // nothing left to read
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.taffy.streamlink.api;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for decoding API responses with Gson's streaming {@link JsonReader}: fields
+ * are read straight off the response stream into the typed records, and anything
+ * else is skipped without building a tree.
+ */
+public final class JsonDecoding {
+
+    /** Reads one value (usually the whole response) into a typed result. */
+    @FunctionalInterface
+    public interface Decoder<T> {
+        T decode(JsonReader in) throws IOException;
+    }
+
+    private JsonDecoding() {
+    }
+
+    public static <T> T decode(InputStream body, Decoder<T> decoder) throws IOException {
+        try (JsonReader in = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            return decoder.decode(in);
+        }
+    }
+
+    /**
+     * Helix envelope {@code {"data":[..], ..}}: decodes the first element of {@code data}
+     * and skips the rest. Returns null when the array is empty or missing.
+     */
+    public static <T> T firstOfData(JsonReader in, Decoder<T> element) throws IOException {
+        T first = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("data".equals(in.nextName()) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                in.beginArray();
+                while (in.hasNext()) {
+                    if (first == null && in.peek() == JsonToken.BEGIN_OBJECT) first = element.decode(in);
+                    else in.skipValue();
+                }
+                in.endArray();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return first;
+    }
+
+    /** Helix envelope {@code {"data":[..], ..}}: decodes every element of {@code data}. */
+    public static <T> List<T> allOfData(JsonReader in, Decoder<T> element) throws IOException {
+        List<T> all = new ArrayList<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("data".equals(in.nextName()) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                in.beginArray();
+                while (in.hasNext()) {
+                    if (in.peek() == JsonToken.BEGIN_OBJECT) all.add(element.decode(in));
+                    else in.skipValue();
+                }
+                in.endArray();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return all;
+    }
+
+    /** String value, or null for JSON null; numbers and booleans are returned as text. */
+    public static String nextString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) return String.valueOf(in.nextBoolean());
+        if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+            in.skipValue();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    /** Whole-number value (fractions truncated, numeric strings accepted), or {@code fallback} for null. */
+    public static long nextLong(JsonReader in, long fallback) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return fallback;
+        }
+        if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+            in.skipValue();
+            return fallback;
+        }
+        return (long) in.nextDouble();
+    }
+}
@@ -0,0 +1,103 @@
+package com.taffy.streamlink.api;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * One viewer's loyalty as Streamlabs reports it, from either {@code points/user_points}
+ * or a Cloudbot loyalty page. Minutes are 0 when user_points omits them and -1 when a
+ * Cloudbot row has none.
+ */
+public record LoyaltyRow(String login, int points, long minutes) {
+
+    /**
+     * Decodes a user_points response. Accepts both shapes Streamlabs has used,
+     * {@code {"points":{"data":[{..}]}}} (preferred when both appear) and a flat
+     * {@code {"data":{..}}}; everything else is skipped.
+     */
+    public static LoyaltyRow readUserPoints(String login, JsonReader in) throws IOException {
+        long[] wrapped = null;
+        long[] flat = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if ("points".equals(name) && in.peek() == JsonToken.BEGIN_OBJECT) {
+                in.beginObject();
+                while (in.hasNext()) {
+                    if ("data".equals(in.nextName()) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            if (wrapped == null && in.peek() == JsonToken.BEGIN_OBJECT) wrapped = readPointsFields(in);
+                            else in.skipValue();
+                        }
+                        in.endArray();
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+                if (wrapped == null) wrapped = new long[]{0, 0};
+            } else if ("data".equals(name) && in.peek() == JsonToken.BEGIN_OBJECT) {
+                flat = readPointsFields(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        long[] values = (wrapped != null) ? wrapped : (flat != null) ? flat : new long[]{0, 0};
+        return new LoyaltyRow(login, (int) values[0], values[1]);
+    }
+
+    /**
+     * Decodes one Cloudbot loyalty entry, {@code {"viewer":{"name":..},"points":..,"time":..}}.
+     * @return null if the entry has no viewer name
+     */
+    public static LoyaltyRow readCloudbotEntry(JsonReader in) throws IOException {
+        String login = null;
+        int points = 0;
+        long minutes = -1L;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "viewer" -> {
+                    if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                        in.skipValue();
+                        continue;
+                    }
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        if ("name".equals(in.nextName())) login = JsonDecoding.nextString(in);
+                        else in.skipValue();
+                    }
+                    in.endObject();
+                }
+                case "points" -> points = (int) JsonDecoding.nextLong(in, 0L);
+                case "time" -> minutes = JsonDecoding.nextLong(in, -1L);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return (login == null) ? null : new LoyaltyRow(login.toLowerCase(), points, minutes);
+    }
+
+    // {points, time_watched} of one row
+    private static long[] readPointsFields(JsonReader in) throws IOException {
+        long points = 0;
+        long minutes = 0L;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "points" -> points = JsonDecoding.nextLong(in, 0L);
+                case "time_watched" -> minutes = JsonDecoding.nextLong(in, 0L); // minutes
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new long[]{points, minutes};
+    }
+}
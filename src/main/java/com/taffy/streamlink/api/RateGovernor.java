@@ -0,0 +1,279 @@
+package com.taffy.streamlink.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Per-host request budget shared by every HTTP client in the plugin.
+ *
+ * Each upstream host gets a token bucket that refills continuously over a one-minute
+ * window. The size comes from config, and is replaced by what the host reports in
+ * {@code Ratelimit-Limit}/{@code Ratelimit-Remaining}/{@code Ratelimit-Reset} (or the
+ * {@code X-RateLimit-*} variants) as soon as a response carries them. A host with no
+ * configured limit is not throttled until it sends headers or a 429.
+ *
+ * When the bucket is empty callers wait rather than fail. Interactive requests are
+ * always served first, and background requests may not dip into the last
+ * {@code interactiveReserve} share of the budget.
+ */
+public class RateGovernor {
+
+    public enum Priority { INTERACTIVE, BACKGROUND }
+
+    private static final long WINDOW_MS = 60_000L;
+
+    private final Map<String, Integer> configuredLimits;
+    private final double interactiveReserve;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+
+    /**
+     * @param configuredLimits   requests per minute by host, used until the host reports its own
+     * @param interactiveReserve share of each budget (0..0.9) kept back from background requests
+     */
+    public RateGovernor(Map<String, Integer> configuredLimits, double interactiveReserve) {
+        this.configuredLimits = Map.copyOf(configuredLimits);
+        this.interactiveReserve = Math.min(0.9, Math.max(0.0, interactiveReserve));
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "StreamLink-RateGovernor");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Completes once a request to {@code host} may be sent; never completes exceptionally. */
+    public CompletableFuture<Void> acquire(String host, Priority priority) {
+        return bucket(host).acquire(priority);
+    }
+
+    /**
+     * Like {@link #acquire(String, Priority)}, but fails with a {@link TimeoutException} if no
+     * budget frees up within {@code maxWaitMs}. A permit that times out is never granted.
+     */
+    public CompletableFuture<Void> acquire(String host, Priority priority, long maxWaitMs) {
+        // orTimeout completes the queued permit itself, so drain() skips it
+        return acquire(host, priority).orTimeout(maxWaitMs, TimeUnit.MILLISECONDS).handle((v, e) -> e == null
+                ? CompletableFuture.<Void>completedFuture(null)
+                : CompletableFuture.<Void>failedFuture(new TimeoutException(
+                        "Rate limit budget for " + host + " exhausted; waited " + maxWaitMs + "ms")))
+                .thenCompose(f -> f);
+    }
+
+    /**
+     * Blocking variant for the synchronous clients.
+     * @throws TimeoutException if no budget frees up within {@code maxWaitMs}
+     */
+    public void acquireBlocking(String host, Priority priority, long maxWaitMs) throws TimeoutException, InterruptedException {
+        try {
+            acquire(host, priority, maxWaitMs).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException timeout) throw timeout;
+        }
+    }
+
+    /**
+     * Learn from a response. {@code header} looks a header up by name and returns null when absent.
+     */
+    public void observe(String host, int statusCode, Function<String, String> header) {
+        bucket(host).observe(statusCode, header);
+    }
+
+    /** Tokens left for a host, or -1 if it is not being throttled. */
+    public int getRemaining(String host) {
+        Bucket bucket = buckets.get(host);
+        return bucket == null ? -1 : bucket.remaining();
+    }
+
+    /** One line per host for the metrics report, e.g. {@code api.twitch.tv 742/800}. */
+    public String describe() {
+        if (buckets.isEmpty()) return "no requests yet";
+        Map<String, Bucket> sorted = new TreeMap<>(buckets);
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Bucket> e : sorted.entrySet()) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(e.getKey()).append(' ').append(e.getValue().describe());
+        }
+        return sb.toString();
+    }
+
+    /** The wait a response asked for, from Retry-After or the rate limit reset; -1 if it gave neither. */
+    public static long retryAfterMs(Function<String, String> header) {
+        long now = System.currentTimeMillis();
+        long retryAfter = parseLong(header, "Retry-After", "Ratelimit-Retry-After");
+        if (retryAfter >= 0) return retryAfter * 1000L;
+        long reset = parseResetMillis(header, now);
+        return (reset > now) ? reset - now : -1;
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private Bucket bucket(String host) {
+        return buckets.computeIfAbsent(host, h -> new Bucket(configuredLimits.getOrDefault(h, 0)));
+    }
+
+    private final class Bucket {
+        // 0 = unknown; no throttling until the host tells us or rejects a request
+        private int limit;
+        private double tokens;
+        private long lastRefill = System.currentTimeMillis();
+        private long blockedUntil;
+        private boolean drainScheduled;
+        private final Deque<CompletableFuture<Void>> interactive = new ArrayDeque<>();
+        private final Deque<CompletableFuture<Void>> background = new ArrayDeque<>();
+
+        Bucket(int limit) {
+            this.limit = Math.max(0, limit);
+            this.tokens = this.limit;
+        }
+
+        CompletableFuture<Void> acquire(Priority priority) {
+            CompletableFuture<Void> permit = new CompletableFuture<>();
+            synchronized (this) {
+                (priority == Priority.INTERACTIVE ? interactive : background).add(permit);
+            }
+            drain();
+            return permit;
+        }
+
+        void observe(int statusCode, Function<String, String> header) {
+            long now = System.currentTimeMillis();
+            int newLimit = (int) parseLong(header, "Ratelimit-Limit", "X-RateLimit-Limit");
+            long remaining = parseLong(header, "Ratelimit-Remaining", "X-RateLimit-Remaining");
+            long reset = parseResetMillis(header, now);
+
+            synchronized (this) {
+                refill(now);
+                if (newLimit > 0 && newLimit != limit) {
+                    limit = newLimit;
+                    tokens = Math.min(tokens, limit);
+                }
+                if (remaining >= 0 && limit > 0) {
+                    // the server's count wins when it is stricter than ours
+                    tokens = Math.min(tokens, remaining);
+                    if (remaining == 0 && reset > now) blockedUntil = Math.max(blockedUntil, reset);
+                }
+                if (statusCode == 429) {
+                    if (limit == 0) {
+                        // first sign of a limit: start from a conservative guess and let headers correct it
+                        limit = 60;
+                    }
+                    tokens = 0;
+                    long retryAfter = parseLong(header, "Retry-After", "Ratelimit-Retry-After");
+                    long until = (reset > now) ? reset : now + Math.max(1000L, retryAfter * 1000L);
+                    blockedUntil = Math.max(blockedUntil, until);
+                }
+            }
+            drain();
+        }
+
+        int remaining() {
+            synchronized (this) {
+                if (limit == 0) return -1;
+                refill(System.currentTimeMillis());
+                return (int) tokens;
+            }
+        }
+
+        String describe() {
+            synchronized (this) {
+                if (limit == 0) return "unthrottled";
+                refill(System.currentTimeMillis());
+                int queued = interactive.size() + background.size();
+                return (int) tokens + "/" + limit + (queued > 0 ? " (" + queued + " waiting)" : "");
+            }
+        }
+
+        private void drain() {
+            List<CompletableFuture<Void>> granted = new ArrayList<>();
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                refill(now);
+                long wait = 0;
+
+                while (!interactive.isEmpty() || !background.isEmpty()) {
+                    if (limit == 0) {
+                        granted.addAll(interactive);
+                        granted.addAll(background);
+                        interactive.clear();
+                        background.clear();
+                        break;
+                    }
+                    if (now < blockedUntil) {
+                        wait = blockedUntil - now;
+                        break;
+                    }
+                    Deque<CompletableFuture<Void>> queue;
+                    double floor;
+                    if (!interactive.isEmpty()) {
+                        queue = interactive;
+                        floor = 1;
+                    } else {
+                        queue = background;
+                        floor = 1 + limit * interactiveReserve;
+                    }
+                    if (tokens < floor) {
+                        wait = (long) Math.ceil((floor - tokens) * WINDOW_MS / limit);
+                        break;
+                    }
+                    CompletableFuture<Void> next = queue.poll();
+                    if (next.isDone()) continue; // timed out while queued
+                    tokens -= 1;
+                    granted.add(next);
+                }
+
+                if (wait > 0 && !drainScheduled && !timer.isShutdown()) {
+                    drainScheduled = true;
+                    timer.schedule(() -> {
+                        synchronized (this) {
+                            drainScheduled = false;
+                        }
+                        drain();
+                    }, Math.max(1L, wait), TimeUnit.MILLISECONDS);
+                }
+            }
+            for (CompletableFuture<Void> permit : granted) permit.complete(null);
+        }
+
+        // guarded by this
+        private void refill(long now) {
+            long elapsed = now - lastRefill;
+            lastRefill = now;
+            if (limit == 0 || elapsed <= 0) return;
+            tokens = Math.min(limit, tokens + (double) elapsed * limit / WINDOW_MS);
+        }
+    }
+
+    private static long parseLong(Function<String, String> header, String... names) {
+        for (String name : names) {
+            String value = header.apply(name);
+            if (value == null) continue;
+            try {
+                return (long) Double.parseDouble(value.trim());
+            } catch (NumberFormatException ignored) {
+                // try the next spelling
+            }
+        }
+        return -1;
+    }
+
+    // Twitch sends an epoch second; some APIs send seconds-until-reset instead
+    private static long parseResetMillis(Function<String, String> header, long now) {
+        long value = parseLong(header, "Ratelimit-Reset", "X-RateLimit-Reset");
+        if (value < 0) return -1;
+        return (value > 1_000_000_000L) ? value * 1000L : now + value * 1000L;
+    }
+}
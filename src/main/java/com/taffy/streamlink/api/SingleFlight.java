@@ -0,0 +1,93 @@
+package com.taffy.streamlink.api;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Collapses identical concurrent calls into one. The first caller for a key starts the
+ * call; anyone asking for the same key before it finishes gets the same result. Nothing
+ * is remembered afterwards; callers put results into their own caches.
+ *
+ * Keys should identify the request completely (endpoint, parameters and, for
+ * authenticated calls, {@link #fingerprint} of the token) so callers with different
+ * credentials never share an answer.
+ */
+public class SingleFlight<V> {
+    private final Map<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong shared = new AtomicLong();
+
+    /** Asynchronous form: {@code call} runs only if no call for {@code key} is in flight. */
+    public CompletableFuture<V> run(String key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            shared.incrementAndGet();
+            return existing;
+        }
+
+        CompletableFuture<V> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, error) -> {
+            inFlight.remove(key, mine);
+            if (error != null) mine.completeExceptionally(error);
+            else mine.complete(value);
+        });
+        return mine;
+    }
+
+    /** Blocking form for the synchronous clients; the first caller runs {@code call} on its own thread. */
+    public V runBlocking(String key, Callable<V> call) throws Exception {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            shared.incrementAndGet();
+            try {
+                return existing.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception ex) throw ex;
+                throw e;
+            }
+        }
+
+        try {
+            V value = call.call();
+            mine.complete(value);
+            return value;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Callers that got another caller's result instead of making their own request. */
+    public long getSharedCount() {
+        return shared.get();
+    }
+
+    /** Short, non-reversible stand-in for a token so it can be part of a key without being kept. */
+    public static String fingerprint(String token) {
+        if (token == null) return "-";
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.taffy.streamlink.api;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/** The fields of a Helix {@code /streams} entry the plugin uses. */
+public record StreamInfo(String userId, String type, String title, String gameName, int viewerCount) {
+
+    /** Helix only lists live streams, but {@code type} is empty for a stream that is going down. */
+    public boolean isLive() {
+        return type != null && !type.isEmpty();
+    }
+
+    public static StreamInfo read(JsonReader in) throws IOException {
+        String userId = null, type = null, title = "", gameName = "";
+        int viewerCount = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "user_id" -> userId = JsonDecoding.nextString(in);
+                case "type" -> type = JsonDecoding.nextString(in);
+                case "title" -> title = JsonDecoding.nextString(in);
+                case "game_name" -> gameName = JsonDecoding.nextString(in);
+                case "viewer_count" -> viewerCount = (int) JsonDecoding.nextLong(in, 0L);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new StreamInfo(userId, type, title == null ? "" : title, gameName == null ? "" : gameName, viewerCount);
+    }
+}
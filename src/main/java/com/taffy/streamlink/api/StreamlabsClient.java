@@ -0,0 +1,244 @@
+package com.taffy.streamlink.api;
+
+import com.google.gson.stream.JsonReader;
+import com.taffy.streamlink.exceptions.CircuitOpenException;
+import com.taffy.streamlink.exceptions.TwitchAPIException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking Streamlabs points client shared by the poller and the one-shot command.
+ *
+ * Requests are issued with {@code sendAsync}; at most {@code maxInFlight} are on the wire
+ * at once and the rest wait in a queue without holding a thread, interactive calls ahead
+ * of background ones. Each send also takes a slot from the shared {@link RateGovernor}.
+ * Every call has a deadline covering both waits, the request and one token-refresh retry.
+ * While the endpoint's {@link CircuitBreaker} is open calls fail at once with
+ * {@link CircuitOpenException}.
+ */
+public class StreamlabsClient {
+    public static final String DEFAULT_API_BASE = "https://streamlabs.com/api/v2.0";
+
+    private final HttpTransport http;
+    private final RateGovernor governor;
+    private final CircuitBreaker breaker;
+    private final String apiBase;
+    private final Supplier<String> accessToken;
+    private final Supplier<CompletableFuture<Boolean>> refreshToken;
+    private final int maxInFlight;
+    private final Duration deadline;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<Runnable> waitingInteractive = new ConcurrentLinkedQueue<>();
+    private final Queue<Runnable> waitingBackground = new ConcurrentLinkedQueue<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final SingleFlight<LoyaltyRow> flights = new SingleFlight<>();
+
+    /**
+     * @param refreshToken refreshes the token after a 401 (or joins a refresh in progress);
+     *                     completes with true if a new token is available
+     * @param deadline     upper bound for a whole call, including time spent queued
+     */
+    public StreamlabsClient(HttpTransport http, RateGovernor governor, CircuitBreaker breaker, String apiBase, Supplier<String> accessToken,
+                            Supplier<CompletableFuture<Boolean>> refreshToken,
+                            int maxInFlight, Duration deadline) {
+        this.http = http;
+        this.governor = governor;
+        this.breaker = breaker;
+        this.apiBase = apiBase.endsWith("/") ? apiBase.substring(0, apiBase.length() - 1) : apiBase;
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.deadline = deadline;
+    }
+
+    /**
+     * @return completes with the viewer's points, or exceptionally with a {@link TwitchAPIException}
+     *         for a non-200 response and a {@link java.util.concurrent.TimeoutException} past the deadline
+     */
+    public CompletableFuture<LoyaltyRow> fetchUserPoints(String channel, String viewerLoginLower,
+                                                         RateGovernor.Priority priority) {
+        final URI uri = URI.create(String.format(apiBase + "/points/user_points?username=%s&channel=%s&platform=twitch",
+                URLEncoder.encode(viewerLoginLower, StandardCharsets.UTF_8),
+                URLEncoder.encode(channel, StandardCharsets.UTF_8)));
+
+        // the poller, a join and /streamlink points asking for the same viewer share one request
+        String key = uri + "|" + SingleFlight.fingerprint(accessToken.get());
+        return flights.run(key, () -> call(uri, priority, in -> LoyaltyRow.readUserPoints(viewerLoginLower, in)));
+    }
+
+    /**
+     * Token for the Streamlabs socket API ({@code GET /socket/token}); needs the {@code socket.token} scope.
+     * @return completes with the token, or exceptionally like {@link #fetchUserPoints}
+     */
+    public CompletableFuture<String> fetchSocketToken() {
+        return call(URI.create(apiBase + "/socket/token"), RateGovernor.Priority.INTERACTIVE, StreamlabsClient::readSocketToken);
+    }
+
+    /** Requests sent so far, including 401 retries. */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /** Calls that joined an identical call already in flight instead of sending their own. */
+    public long getSharedCount() {
+        return flights.getSharedCount();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return waitingInteractive.size() + waitingBackground.size();
+    }
+
+    /** False while the points endpoint's circuit is open; pollers skip the cycle. */
+    public boolean isAvailable() {
+        return breaker.isAvailable(CircuitBreaker.endpoint(URI.create(apiBase + "/points/user_points")));
+    }
+
+    private <T> CompletableFuture<T> call(URI uri, RateGovernor.Priority priority, JsonDecoding.Decoder<T> decoder) {
+        try {
+            breaker.acquire(CircuitBreaker.endpoint(uri));
+        } catch (CircuitOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        // rate budget first, then an in-flight slot, so calls waiting on the budget don't hold slots
+        CompletableFuture<T> result = new CompletableFuture<T>()
+                .orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        governor.acquire(uri.getHost(), priority)
+                .thenRun(() -> withPermit(priority, result, () -> sendNow(uri, priority, false, decoder)));
+        return result;
+    }
+
+    private <T> CompletableFuture<T> send(URI uri, RateGovernor.Priority priority, boolean retried,
+                                          JsonDecoding.Decoder<T> decoder) {
+        return governor.acquire(uri.getHost(), priority).thenCompose(v -> sendNow(uri, priority, retried, decoder));
+    }
+
+    /** The body is decoded straight from the response stream; the stream is always closed. */
+    private <T> CompletableFuture<T> sendNow(URI uri, RateGovernor.Priority priority, boolean retried,
+                                             JsonDecoding.Decoder<T> decoder) {
+        HttpRequest request = http.request(uri, deadline)
+                .header("Authorization", "Bearer " + accessToken.get())
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        final String endpoint = CircuitBreaker.endpoint(uri);
+        requestCount.incrementAndGet();
+        return http.send(request).handle((resp, error) -> {
+            if (error == null) return onResponse(resp, uri, endpoint, priority, retried, decoder);
+            Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+            breaker.onFailure(endpoint, -1);
+            return CompletableFuture.<T>failedFuture(
+                    TwitchAPIException.noResponse("No response from " + endpoint + ": " + cause.getMessage(), cause));
+        }).thenCompose(f -> f);
+    }
+
+    private <T> CompletableFuture<T> onResponse(HttpResponse<InputStream> resp, URI uri, String endpoint,
+                                                RateGovernor.Priority priority, boolean retried,
+                                                JsonDecoding.Decoder<T> decoder) {
+        int code = resp.statusCode();
+        Function<String, String> header = name -> resp.headers().firstValue(name).orElse(null);
+        governor.observe(uri.getHost(), code, header);
+        long retryAfterMs = RateGovernor.retryAfterMs(header);
+        if (code >= 500) breaker.onFailure(endpoint, retryAfterMs);
+        else breaker.onSuccess(endpoint);
+        if (code == 429 && !retried) {
+            // the governor now holds further requests until the reset; queue behind it once
+            HttpTransport.discard(resp);
+            return send(uri, priority, true, decoder);
+        }
+        // 302 here means the Authorization header was not accepted
+        if ((code == 401 || code == 302) && !retried) {
+            HttpTransport.discard(resp);
+            // waits on the shared refresh without holding a thread
+            return refreshToken.get().thenCompose(refreshed -> refreshed
+                    ? send(uri, priority, true, decoder)
+                    : CompletableFuture.failedFuture(new TwitchAPIException(code, "Streamlabs token rejected and refresh failed")));
+        }
+        if (code != 200) {
+            return CompletableFuture.failedFuture(new TwitchAPIException(code, HttpTransport.snippet(resp, 140), retryAfterMs));
+        }
+        try {
+            return CompletableFuture.completedFuture(JsonDecoding.decode(HttpTransport.body(resp), decoder));
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /* ---------------- in-flight limit (non-blocking semaphore) ---------------- */
+
+    /** Runs {@code task} once a slot is free and completes {@code result} with its outcome. */
+    private <T> void withPermit(RateGovernor.Priority priority, CompletableFuture<T> result,
+                                Supplier<CompletableFuture<T>> task) {
+        if (result.isDone()) return;
+        (priority == RateGovernor.Priority.INTERACTIVE ? waitingInteractive : waitingBackground).add(() -> {
+            if (result.isDone()) {
+                // deadline passed while queued; don't spend a request on it
+                inFlight.decrementAndGet();
+                return;
+            }
+            CompletableFuture<T> call;
+            try {
+                call = task.get();
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            call.whenComplete((value, error) -> {
+                inFlight.decrementAndGet();
+                drain();
+                if (error != null) result.completeExceptionally(error);
+                else result.complete(value);
+            });
+        });
+        drain();
+    }
+
+    private void drain() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight || (waitingInteractive.isEmpty() && waitingBackground.isEmpty())) return;
+            if (!inFlight.compareAndSet(current, current + 1)) continue;
+
+            Runnable next = waitingInteractive.poll();
+            if (next == null) next = waitingBackground.poll();
+            if (next == null) {
+                inFlight.decrementAndGet();
+                // another thread took the last entry; re-check in case one arrived meanwhile
+                continue;
+            }
+            next.run();
+        }
+    }
+
+    // {"socket_token":"..."}
+    private static String readSocketToken(JsonReader in) throws IOException {
+        String token = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("socket_token".equals(in.nextName())) token = JsonDecoding.nextString(in);
+            else in.skipValue();
+        }
+        in.endObject();
+        if (token == null || token.isEmpty()) throw new IOException("Streamlabs returned no socket_token");
+        return token;
+    }
+}
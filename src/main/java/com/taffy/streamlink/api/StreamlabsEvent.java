@@ -0,0 +1,119 @@
+package com.taffy.streamlink.api;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One alert from the Streamlabs socket API. A socket "event" may carry several
+ * messages (e.g. a gift bomb); each becomes its own event sharing the same {@code id}
+ * with an index suffix.
+ *
+ * @param login  lowercased Twitch login (or donor name) the alert is about; may be null
+ * @param amount donation/bits amount or subscription months; 0 when not applicable
+ */
+public record StreamlabsEvent(Type type, String id, String login, double amount) {
+
+    public enum Type { FOLLOW, SUBSCRIPTION, DONATION, BITS, LOYALTY, OTHER }
+
+    static Type typeOf(String type) {
+        if (type == null) return Type.OTHER;
+        return switch (type) {
+            case "follow" -> Type.FOLLOW;
+            case "subscription", "resub", "subMysteryGift" -> Type.SUBSCRIPTION;
+            case "donation" -> Type.DONATION;
+            case "bits" -> Type.BITS;
+            case "loyalty_store_redemption" -> Type.LOYALTY;
+            default -> type.startsWith("loyalty") ? Type.LOYALTY : Type.OTHER;
+        };
+    }
+
+    /**
+     * Decodes a socket.io event payload, {@code ["event",{"type":..,"event_id":..,"message":[{..}]}]}.
+     * Other event names and the "streamlabels" bookkeeping messages yield an empty list.
+     */
+    static List<StreamlabsEvent> readPacket(JsonReader in) throws IOException {
+        List<StreamlabsEvent> out = new ArrayList<>();
+        in.beginArray();
+        if (!in.hasNext() || in.peek() != JsonToken.STRING || !"event".equals(in.nextString())) {
+            while (in.hasNext()) in.skipValue();
+            in.endArray();
+            return out;
+        }
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.BEGIN_OBJECT) readEvent(in, out);
+            else in.skipValue();
+        }
+        in.endArray();
+        return out;
+    }
+
+    private static void readEvent(JsonReader in, List<StreamlabsEvent> out) throws IOException {
+        String type = null;
+        String id = null;
+        List<String[]> messages = new ArrayList<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type" -> type = JsonDecoding.nextString(in);
+                case "event_id" -> id = JsonDecoding.nextString(in);
+                case "message" -> {
+                    if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            if (in.peek() == JsonToken.BEGIN_OBJECT) messages.add(readMessage(in));
+                            else in.skipValue();
+                        }
+                        in.endArray();
+                    } else if (in.peek() == JsonToken.BEGIN_OBJECT) {
+                        messages.add(readMessage(in));
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (type == null || type.startsWith("streamlabels")) return;
+        Type kind = typeOf(type);
+        for (int i = 0; i < messages.size(); i++) {
+            String[] m = messages.get(i);
+            String eventId = (id != null) ? id : m[2];
+            if (eventId != null && messages.size() > 1) eventId = eventId + "#" + i;
+            double amount = 0;
+            try {
+                if (m[1] != null) amount = Double.parseDouble(m[1]);
+            } catch (NumberFormatException ignored) {
+                // formatted amounts like "$5.00" are not needed
+            }
+            out.add(new StreamlabsEvent(kind, eventId, m[0] == null ? null : m[0].toLowerCase(), amount));
+        }
+    }
+
+    // {name|from|username, amount|months, _id}
+    private static String[] readMessage(JsonReader in) throws IOException {
+        String login = null, from = null, amount = null, months = null, id = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name", "username" -> {
+                    String value = JsonDecoding.nextString(in);
+                    if (login == null) login = value;
+                }
+                case "from" -> from = JsonDecoding.nextString(in);
+                case "amount" -> amount = JsonDecoding.nextString(in);
+                case "months" -> months = JsonDecoding.nextString(in);
+                case "_id", "id" -> id = JsonDecoding.nextString(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new String[]{login != null ? login : from, amount != null ? amount : months, id};
+    }
+}
@@ -0,0 +1,338 @@
+package com.taffy.streamlink.api;
+
+import com.google.gson.stream.JsonReader;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Managed connection to the Streamlabs socket API (socket.io v2 over a plain WebSocket,
+ * engine.io protocol 3).
+ *
+ * A fresh socket token is fetched for every connection attempt. While connected the
+ * client sends the engine.io ping every {@code pingInterval} the server announces and
+ * drops the connection if nothing arrives within {@code pingInterval + pingTimeout}.
+ * The same watchdog runs from the moment a connection is attempted (with engine.io's
+ * default timings until the server announces its own), so a stalled connect or
+ * handshake is retried as well.
+ * Dropped connections are retried with exponential backoff (1s doubling up to
+ * {@code maxReconnectMs}, half-jittered), reset once a connection is accepted.
+ *
+ * Streamlabs does not replay missed events, so "resuming" is up to the listener:
+ * {@link Listener#onConnected} says whether this is a reconnect, and events that do
+ * get redelivered are dropped by {@code event_id}. The URL is configurable so the
+ * client can be pointed at a local WebSocket stand-in.
+ */
+public class StreamlabsSocket {
+
+    /** Called from the socket's own threads; implementations should hand real work off. */
+    public interface Listener {
+        void onEvent(StreamlabsEvent event);
+
+        /** @param reconnected true if an earlier connection was lost; events sent meanwhile are gone */
+        void onConnected(boolean reconnected);
+
+        /** Not connected (lost, refused or no token); another attempt follows in {@code retryInMs}. */
+        void onDisconnected(String reason, long retryInMs);
+    }
+
+    private static final long BASE_RECONNECT_MS = 1000L;
+    private static final long DEFAULT_PING_INTERVAL_MS = 25_000L;
+    private static final long DEFAULT_PING_TIMEOUT_MS = 60_000L;
+    private static final int RECENT_EVENT_IDS = 256;
+
+    private final String baseUrl;
+    private final Supplier<CompletableFuture<String>> socketToken;
+    private final Listener listener;
+    private final long maxReconnectMs;
+    private final ScheduledExecutorService timer;
+
+    private final Object lock = new Object();
+    // guarded by lock
+    private Connection current;
+    private int generation;
+    private int failures;
+    private boolean everConnected;
+    private boolean started;
+    private boolean stopped;
+    private ScheduledFuture<?> heartbeat;
+    private ScheduledFuture<?> pendingReconnect;
+    private String lastProblem = "not started";
+
+    private volatile boolean connected;
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+    private final Set<String> recentIds = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > RECENT_EVENT_IDS;
+        }
+    });
+
+    /**
+     * @param baseUrl     e.g. {@code wss://sockets.streamlabs.com}; {@code /socket.io/} is added when there is no path
+     * @param socketToken fetches the socket token, once per connection attempt
+     */
+    public StreamlabsSocket(String baseUrl, Supplier<CompletableFuture<String>> socketToken, Listener listener,
+                            long maxReconnectMs) {
+        this.baseUrl = baseUrl;
+        this.socketToken = socketToken;
+        this.listener = listener;
+        this.maxReconnectMs = Math.max(BASE_RECONNECT_MS, maxReconnectMs);
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "StreamLink-StreamlabsSocket");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void start() {
+        synchronized (lock) {
+            if (started || stopped) return;
+            started = true;
+        }
+        connect();
+    }
+
+    /** Closes the connection for good; no reconnect follows. */
+    public void stop() {
+        Connection c;
+        synchronized (lock) {
+            stopped = true;
+            generation++;
+            cancelTimers();
+            c = current;
+            current = null;
+        }
+        connected = false;
+        if (c != null) c.close();
+        timer.shutdownNow();
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public long getEventCount() {
+        return events.get();
+    }
+
+    /** For the metrics report, e.g. {@code connected, 12 events, 1 reconnects}. */
+    public String describe() {
+        synchronized (lock) {
+            String state = connected ? "connected" : "disconnected (" + lastProblem + ")";
+            return state + ", " + events.get() + " events, " + reconnects.get() + " reconnects";
+        }
+    }
+
+    private void connect() {
+        final int gen;
+        synchronized (lock) {
+            if (stopped) return;
+            gen = ++generation;
+            pendingReconnect = null;
+        }
+        CompletableFuture<String> token;
+        try {
+            token = socketToken.get();
+        } catch (RuntimeException e) {
+            token = CompletableFuture.failedFuture(e);
+        }
+        token.whenComplete((value, error) -> {
+            if (error != null) {
+                Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                dropped(gen, "no socket token: " + cause.getMessage());
+                return;
+            }
+            Connection c = new Connection(uri(value), gen);
+            synchronized (lock) {
+                if (stopped || gen != generation) return;
+                current = c;
+                armHeartbeat(c, DEFAULT_PING_INTERVAL_MS, DEFAULT_PING_INTERVAL_MS + DEFAULT_PING_TIMEOUT_MS);
+            }
+            // the engine.io heartbeat below replaces the library's own pings
+            c.setConnectionLostTimeout(0);
+            c.connect();
+        });
+    }
+
+    private URI uri(String token) {
+        URI base = URI.create(baseUrl);
+        String path = (base.getPath() == null || base.getPath().isEmpty() || "/".equals(base.getPath()))
+                ? "/socket.io/" : base.getPath();
+        String query = (base.getQuery() == null ? "" : base.getQuery() + "&")
+                + "EIO=3&transport=websocket&token=" + URLEncoder.encode(token, StandardCharsets.UTF_8);
+        return URI.create(base.getScheme() + "://" + base.getAuthority() + path + "?" + query);
+    }
+
+    private void handle(Connection c, String message) {
+        if (message.isEmpty()) return;
+        switch (message.charAt(0)) {
+            case '0' -> startHeartbeat(c, message.substring(1));
+            case '1' -> c.close();
+            case '2' -> c.send("3" + message.substring(1)); // server-initiated ping
+            case '4' -> handleSocketIo(c, message.substring(1));
+            default -> {
+                // '3' pong and no-ops only refresh lastSeen
+            }
+        }
+    }
+
+    // socket.io packet types: 0 connect, 1 disconnect, 2 event, 4 error
+    private void handleSocketIo(Connection c, String packet) {
+        if (packet.isEmpty()) return;
+        switch (packet.charAt(0)) {
+            case '0' -> {
+                boolean reconnected;
+                synchronized (lock) {
+                    if (c.gen != generation) return;
+                    failures = 0;
+                    reconnected = everConnected;
+                    everConnected = true;
+                    connected = true;
+                }
+                if (reconnected) reconnects.incrementAndGet();
+                listener.onConnected(reconnected);
+            }
+            case '1' -> c.close();
+            case '2' -> {
+                List<StreamlabsEvent> decoded;
+                try (JsonReader in = new JsonReader(new StringReader(packet.substring(1)))) {
+                    decoded = StreamlabsEvent.readPacket(in);
+                } catch (IOException | RuntimeException e) {
+                    return; // not an alert we understand
+                }
+                for (StreamlabsEvent event : decoded) {
+                    if (event.id() != null) {
+                        synchronized (recentIds) {
+                            if (!recentIds.add(event.id())) continue;
+                        }
+                    }
+                    events.incrementAndGet();
+                    listener.onEvent(event);
+                }
+            }
+            case '4' -> c.closeConnection(1008, "rejected: " + packet.substring(1));
+            default -> {
+                // acks and binary packets are not used by Streamlabs
+            }
+        }
+    }
+
+    // open packet: {"sid":..,"pingInterval":25000,"pingTimeout":60000}
+    private void startHeartbeat(Connection c, String open) {
+        long interval = DEFAULT_PING_INTERVAL_MS, timeout = DEFAULT_PING_TIMEOUT_MS;
+        try (JsonReader in = new JsonReader(new StringReader(open))) {
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "pingInterval" -> interval = JsonDecoding.nextLong(in, interval);
+                    case "pingTimeout" -> timeout = JsonDecoding.nextLong(in, timeout);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+        } catch (IOException | RuntimeException e) {
+            // keep the defaults
+        }
+        final long pingEvery = Math.max(1000L, interval);
+        synchronized (lock) {
+            if (c.gen != generation || stopped) return;
+            c.engineOpen = true;
+            armHeartbeat(c, pingEvery, pingEvery + Math.max(1000L, timeout));
+        }
+    }
+
+    // guarded by lock; pings only once the engine.io session is open, but the timeout applies throughout
+    private void armHeartbeat(Connection c, long pingEvery, long deadAfter) {
+        if (heartbeat != null) heartbeat.cancel(false);
+        heartbeat = timer.scheduleAtFixedRate(() -> {
+            if (System.currentTimeMillis() - c.lastSeen > deadAfter) {
+                c.closeConnection(1006, "heartbeat timeout");
+                // a connect that never completed may not report a close
+                dropped(c.gen, "heartbeat timeout");
+                return;
+            }
+            if (!c.engineOpen) return;
+            try {
+                c.send("2");
+            } catch (RuntimeException e) {
+                // closing already; onClose schedules the reconnect
+            }
+        }, pingEvery, pingEvery, TimeUnit.MILLISECONDS);
+    }
+
+    private void dropped(int gen, String reason) {
+        long delay;
+        synchronized (lock) {
+            if (stopped || gen != generation || pendingReconnect != null) return;
+            current = null;
+            connected = false;
+            cancelTimers();
+            lastProblem = reason;
+            long ceiling = Math.min(maxReconnectMs, BASE_RECONNECT_MS << Math.min(failures, 20));
+            failures++;
+            delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+            pendingReconnect = timer.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+        }
+        listener.onDisconnected(reason, delay);
+    }
+
+    // guarded by lock
+    private void cancelTimers() {
+        if (heartbeat != null) heartbeat.cancel(false);
+        if (pendingReconnect != null) pendingReconnect.cancel(false);
+        heartbeat = null;
+        pendingReconnect = null;
+    }
+
+    private final class Connection extends WebSocketClient {
+        final int gen;
+        volatile long lastSeen = System.currentTimeMillis();
+        volatile boolean engineOpen;
+
+        Connection(URI uri, int gen) {
+            super(uri);
+            this.gen = gen;
+        }
+
+        @Override
+        public void onOpen(ServerHandshake handshake) {
+            lastSeen = System.currentTimeMillis();
+        }
+
+        @Override
+        public void onMessage(String message) {
+            lastSeen = System.currentTimeMillis();
+            handle(this, message);
+        }
+
+        @Override
+        public void onClose(int code, String reason, boolean remote) {
+            dropped(gen, "closed " + code + (reason == null || reason.isEmpty() ? "" : ": " + reason));
+        }
+
+        @Override
+        public void onError(Exception e) {
+            // always followed by onClose
+        }
+    }
+}
@@ -2,33 +2,76 @@ package com.taffy.streamlink.api;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.taffy.streamlink.exceptions.CircuitOpenException;
+import com.taffy.streamlink.exceptions.TwitchAPIException;
 import com.taffy.streamlink.managers.ManagerBase;
 import com.taffy.streamlink.streamlink;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import org.bukkit.Bukkit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Twitch Helix and OAuth calls over the shared {@link HttpTransport}.
+ *
+ * Public reads (streams, users by id) use the plugin's app access token; methods that
+ * take an access token act as that player and are kept for what needs their scope.
+ * Every public call has an {@code ...Async} variant that never blocks; the plain
+ * variants wait for it, bounded by the rate limit wait plus the request deadline.
+ */
 public class TwitchAPI extends ManagerBase {
+    private final HttpTransport transport;
     private final String clientId;
     private final String clientSecret;
     private final ConcurrentHashMap<UUID, String> authCodes;
-    private final Cache<String, JsonObject> userInfoCache = CacheBuilder.newBuilder()
+    private final Cache<String, TwitchUser> userInfoCache = CacheBuilder.newBuilder()
             .expireAfterWrite(30, TimeUnit.MINUTES)
             .build();
     private final Cache<String, Boolean> liveStatusCache = CacheBuilder.newBuilder()
             .expireAfterWrite(2, TimeUnit.MINUTES)
             .build();
+    private static final String STREAMS_ENDPOINT = "api.twitch.tv/helix/streams";
+    // most user_id parameters Helix accepts on one /streams request
+    private static final int STREAMS_BATCH = 100;
+    // identical GETs in flight at the same time share one response
+    private final SingleFlight<Object> getFlights = new SingleFlight<>();
+    // public Helix reads (streams, users by id) use this instead of player tokens
+    private final AppAccessToken appToken;
+    // user tokens that passed /oauth2/validate recently; Twitch asks for a check about hourly
+    private final Cache<String, Boolean> validatedTokens = CacheBuilder.newBuilder()
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .build();
+
+    /** Consumes a successful response body. */
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
 
     public TwitchAPI(streamlink plugin) {
         super(plugin);
+        this.transport = plugin.getHttpTransport();
         this.clientId = getConfigValue("twitch.client-id");
         this.clientSecret = getSecureSecret("twitch.client-secret");
         this.authCodes = new ConcurrentHashMap<>();
@@ -41,34 +84,112 @@ public class TwitchAPI extends ManagerBase {
             log.severe("Twitch Client Secret not configured in config.yml!");
         }
 
+        this.appToken = new AppAccessToken(this::requestAppToken,
+                1000L * Math.max(60, plugin.getConfig().getLong("twitch.app-token-refresh-skew-secs", 3600)));
+
         if ((clientId != null && !clientId.equals("MISSING_CONFIG") && !clientId.equals("your_twitch_client_id_here")) &&
                 clientSecret != null) {
             log.info("TwitchAPI initialized with Client ID: " + clientId);
+            startAppTokenRefresh();
         } else {
             log.severe("Twitch features will be disabled due to missing configuration.");
         }
     }
 
-    public JsonObject getCachedUserInfo(String accessToken, String twitchId) throws Exception {
-        String cacheKey = twitchId + "_userinfo";
-        JsonObject cached = userInfoCache.getIfPresent(cacheKey);
+    /** Fetches the app token now and renews it ahead of expiry from then on. */
+    private void startAppTokenRefresh() {
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> appToken.get().whenComplete((token, error) -> {
+            if (error != null) {
+                Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                log.warn("Could not get a Twitch app access token: " + cause.getMessage());
+            }
+        }), 0L, 20L * 60);
+    }
+
+    // client credentials grant: {"access_token":"..","expires_in":5011271,"token_type":"bearer"}
+    private CompletableFuture<AppAccessToken.Grant> requestAppToken() {
+        if (clientSecret == null) {
+            return CompletableFuture.failedFuture(new TwitchAPIException("Twitch client secret is not configured"));
+        }
+        return request(RateGovernor.Priority.INTERACTIVE,
+                "https://id.twitch.tv/oauth2/token" +
+                        "?client_id=" + clientId +
+                        "&client_secret=" + clientSecret +
+                        "&grant_type=client_credentials",
+                "POST"
+        ).thenApply(response -> {
+            JsonObject json = JsonParser.parseString(response).getAsJsonObject();
+            if (!json.has("access_token") || json.get("access_token").isJsonNull()) {
+                throw new CompletionException(new TwitchAPIException("Twitch returned no app access token"));
+            }
+            long expiresIn = json.has("expires_in") ? json.get("expires_in").getAsLong() : 3600L;
+            return new AppAccessToken.Grant(json.get("access_token").getAsString(),
+                    System.currentTimeMillis() + expiresIn * 1000L);
+        });
+    }
+
+    /**
+     * Runs a public Helix read with the app token. If Twitch rejects the token it is
+     * dropped and the call is made once more with a fresh one.
+     */
+    private <T> CompletableFuture<T> withAppToken(Function<String, CompletableFuture<T>> call) {
+        return appToken.get().thenCompose(token -> call.apply(token).handle((value, error) -> {
+            if (error == null) return CompletableFuture.completedFuture(value);
+            Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+            if (cause instanceof TwitchAPIException api && api.isUnauthorized()) {
+                appToken.invalidate(token);
+                return appToken.get().thenCompose(call);
+            }
+            return CompletableFuture.<T>failedFuture(cause);
+        }).thenCompose(f -> f));
+    }
+
+    /** User info by Twitch id, from the cache when possible. */
+    public TwitchUser getCachedUserInfo(String twitchId) throws Exception {
+        return await(getCachedUserInfoAsync(twitchId));
+    }
+
+    public CompletableFuture<TwitchUser> getCachedUserInfoAsync(String twitchId) {
+        TwitchUser cached = userInfoCache.getIfPresent(twitchId + "_userinfo");
         if (cached != null) {
-            return cached;
+            return CompletableFuture.completedFuture(cached);
         }
 
-        JsonObject freshData = getUserInfo(accessToken);
-        userInfoCache.put(cacheKey, freshData);
-        return freshData;
+        // concurrent misses collapse into one /helix/users call in getFirst
+        return getUserByIdAsync(twitchId);
+    }
+
+    /** User info by Twitch id, read with the app token. */
+    public TwitchUser getUserById(String twitchId) throws Exception {
+        return await(getUserByIdAsync(twitchId));
+    }
+
+    public CompletableFuture<TwitchUser> getUserByIdAsync(String twitchId) {
+        return withAppToken(token -> getFirst(RateGovernor.Priority.INTERACTIVE,
+                "https://api.twitch.tv/helix/users?id=" + URLEncoder.encode(twitchId, StandardCharsets.UTF_8),
+                token, TwitchUser.class, TwitchUser::read)).thenApply(user -> {
+            if (user == null || user.id() == null) {
+                throw new CompletionException(new TwitchAPIException("Twitch has no user with id " + twitchId));
+            }
+            userInfoCache.put(user.id() + "_userinfo", user);
+            return user;
+        });
     }
 
     public String[] startDeviceFlow() throws Exception {
-        String response = makeHttpRequest(
+        return await(startDeviceFlowAsync());
+    }
+
+    public CompletableFuture<String[]> startDeviceFlowAsync() {
+        return request(RateGovernor.Priority.INTERACTIVE,
                 "https://id.twitch.tv/oauth2/device" +
                         "?client_id=" + clientId +
                         "&scope=user:read:email+channel:read:subscriptions",
                 "POST"
-        );
+        ).thenApply(this::parseDeviceFlow);
+    }
 
+    private String[] parseDeviceFlow(String response) {
         JsonObject json = JsonParser.parseString(response).getAsJsonObject();
 
         // Add proper error handling
@@ -76,7 +197,7 @@ public class TwitchAPI extends ManagerBase {
             String error = json.get("error").getAsString();
             String errorDescription = json.has("error_description") ?
                     json.get("error_description").getAsString() : "Unknown error";
-            throw new Exception("Device flow error: " + error + " - " + errorDescription);
+            throw new CompletionException(new TwitchAPIException("Device flow error: " + error + " - " + errorDescription));
         }
 
         String deviceCode = json.get("device_code").getAsString();
@@ -88,14 +209,20 @@ public class TwitchAPI extends ManagerBase {
     }
 
     public String getAccessToken(String deviceCode) throws Exception {
-        String response = makeHttpRequest(
+        return await(getAccessTokenAsync(deviceCode));
+    }
+
+    public CompletableFuture<String> getAccessTokenAsync(String deviceCode) {
+        return request(RateGovernor.Priority.INTERACTIVE,
                 "https://id.twitch.tv/oauth2/token" +
                         "?client_id=" + clientId +
                         "&device_code=" + deviceCode +
                         "&grant_type=urn:ietf:params:oauth:grant-type:device_code",
                 "POST"
-        );
+        ).thenApply(TwitchAPI::parseDeviceToken);
+    }
 
+    private static String parseDeviceToken(String response) {
         JsonObject json = JsonParser.parseString(response).getAsJsonObject();
 
         // Check for errors first
@@ -103,7 +230,7 @@ public class TwitchAPI extends ManagerBase {
             String error = json.get("error").getAsString();
             String errorDescription = json.has("error_description") ?
                     json.get("error_description").getAsString() : "Unknown error";
-            throw new Exception("Token error: " + error + " - " + errorDescription);
+            throw new CompletionException(new TwitchAPIException("Token error: " + error + " - " + errorDescription));
         }
 
         String accessToken = json.get("access_token").getAsString();
@@ -134,197 +261,385 @@ public class TwitchAPI extends ManagerBase {
     }
 
     /**
-     * Get complete user info from Twitch API
+     * Get the token owner's user info from Twitch API
      */
-    public JsonObject getUserInfo(String accessToken) throws Exception {
-        String response = makeHttpRequest(
-                "https://api.twitch.tv/helix/users",
-                "GET",
-                "Authorization", "Bearer " + accessToken,
-                "Client-Id", clientId
-        );
+    public TwitchUser getUserInfo(String accessToken) throws Exception {
+        return await(getUserInfoAsync(accessToken));
+    }
 
-        return JsonParser.parseString(response).getAsJsonObject();
+    public CompletableFuture<TwitchUser> getUserInfoAsync(String accessToken) {
+        return getFirst(RateGovernor.Priority.INTERACTIVE,
+                "https://api.twitch.tv/helix/users", accessToken, TwitchUser.class, TwitchUser::read).thenApply(user -> {
+            if (user == null || user.id() == null) {
+                throw new CompletionException(new TwitchAPIException("Twitch returned no user for this access token"));
+            }
+            // every lookup refreshes the cache getCachedUserInfo reads from
+            userInfoCache.put(user.id() + "_userinfo", user);
+            return user;
+        });
     }
 
     /**
-     * Get stream info from Twitch API
+     * Get stream info from Twitch API; null when the user is not streaming
      */
-    public JsonObject getStreamInfo(String accessToken, String twitchId) throws Exception {
-        String response = makeHttpRequest(
-                "https://api.twitch.tv/helix/streams?user_id=" + twitchId,
-                "GET",
-                "Authorization", "Bearer " + accessToken,
-                "Client-Id", clientId
-        );
+    public StreamInfo getStreamInfo(String twitchId) throws Exception {
+        return await(getStreamInfoAsync(twitchId));
+    }
 
-        JsonObject json = JsonParser.parseString(response).getAsJsonObject();
-        JsonArray data = json.getAsJsonArray("data");
+    public CompletableFuture<StreamInfo> getStreamInfoAsync(String twitchId) {
+        return withAppToken(token -> getFirst(RateGovernor.Priority.BACKGROUND,
+                "https://api.twitch.tv/helix/streams?user_id=" + twitchId, token, StreamInfo.class, StreamInfo::read))
+                .thenApply(stream -> {
+                    // same endpoint as isUserLive, so keep its cache current too
+                    liveStatusCache.put(twitchId + "_live", stream != null && stream.isLive());
+                    return stream;
+                });
+    }
+
+    /**
+     * Live streams for many users at once, keyed by user id; users who are not live are absent.
+     */
+    public Map<String, StreamInfo> getStreams(Collection<String> twitchIds) throws Exception {
+        return await(getStreamsAsync(twitchIds));
+    }
+
+    /**
+     * Ids are looked up {@value #STREAMS_BATCH} per request and the requests run concurrently,
+     * so N users cost ceil(N/100) requests. Every id's cached live status is updated from
+     * the same responses.
+     */
+    public CompletableFuture<Map<String, StreamInfo>> getStreamsAsync(Collection<String> twitchIds) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(twitchIds));
+        return withAppToken(token -> getStreamsAsync(token, ids));
+    }
 
-        if (data.size() > 0) {
-            return data.get(0).getAsJsonObject();
+    private CompletableFuture<Map<String, StreamInfo>> getStreamsAsync(String accessToken, List<String> ids) {
+        List<CompletableFuture<List<StreamInfo>>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += STREAMS_BATCH) {
+            StringBuilder url = new StringBuilder("https://api.twitch.tv/helix/streams?first=").append(STREAMS_BATCH);
+            for (String id : ids.subList(from, Math.min(ids.size(), from + STREAMS_BATCH))) {
+                url.append("&user_id=").append(URLEncoder.encode(id, StandardCharsets.UTF_8));
+            }
+            batches.add(send(RateGovernor.Priority.BACKGROUND, url.toString(), "GET",
+                    body -> JsonDecoding.decode(body, in -> JsonDecoding.allOfData(in, StreamInfo::read)),
+                    "Authorization", "Bearer " + accessToken,
+                    "Client-Id", clientId));
         }
-        return null;
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            Map<String, StreamInfo> live = new HashMap<>();
+            for (CompletableFuture<List<StreamInfo>> batch : batches) {
+                for (StreamInfo stream : batch.join()) {
+                    if (stream.userId() != null && stream.isLive()) live.put(stream.userId(), stream);
+                }
+            }
+            for (String id : ids) {
+                liveStatusCache.put(id + "_live", live.containsKey(id));
+            }
+            return live;
+        });
     }
 
     /**
      * Get just the Twitch user ID
      */
     public String getTwitchUserId(String accessToken) throws Exception {
-        JsonObject userJson = getUserInfo(accessToken);
-        return userJson.getAsJsonArray("data").get(0).getAsJsonObject().get("id").getAsString();
+        return getUserInfo(accessToken).id();
+    }
+
+    public CompletableFuture<String> getTwitchUserIdAsync(String accessToken) {
+        return getUserInfoAsync(accessToken).thenApply(TwitchUser::id);
     }
 
     /**
      * Get the Twitch username (login name)
      */
     public String getTwitchUsername(String accessToken) throws Exception {
-        JsonObject userJson = getUserInfo(accessToken);
-        return userJson.getAsJsonArray("data").get(0).getAsJsonObject().get("login").getAsString();
+        return getUserInfo(accessToken).login();
+    }
+
+    public CompletableFuture<String> getTwitchUsernameAsync(String accessToken) {
+        return getUserInfoAsync(accessToken).thenApply(TwitchUser::login);
     }
 
     /**
      * Get the Twitch display name
      */
     public String getTwitchDisplayName(String accessToken) throws Exception {
-        JsonObject userJson = getUserInfo(accessToken);
-        return userJson.getAsJsonArray("data").get(0).getAsJsonObject().get("display_name").getAsString();
+        return getUserInfo(accessToken).displayName();
+    }
+
+    public CompletableFuture<String> getTwitchDisplayNameAsync(String accessToken) {
+        return getUserInfoAsync(accessToken).thenApply(TwitchUser::displayName);
     }
 
     /**
-     * Core HTTP request handler with rate limit detection
+     * Helix GET decoded straight off the response stream: the first entry of {@code data},
+     * or null if it is empty. Identical lookups in flight at the same time share one request.
      */
-    private String makeHttpRequest(String urlString, String method, String... headers) throws Exception {
-        URL url = new URL(urlString);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod(method);
+    private <T> CompletableFuture<T> getFirst(RateGovernor.Priority priority, String urlString, String accessToken,
+                                              Class<T> type, JsonDecoding.Decoder<T> element) {
+        String key = urlString + "|" + SingleFlight.fingerprint(accessToken) + "|" + type.getName();
+        return getFlights.run(key, () -> send(priority, urlString, "GET",
+                body -> JsonDecoding.decode(body, in -> JsonDecoding.firstOfData(in, element)),
+                "Authorization", "Bearer " + accessToken,
+                "Client-Id", clientId)).thenApply(type::cast);
+    }
 
-        // Add headers if provided
+    /**
+     * Request returning the body as text. A GET identical to one already in flight
+     * (same URL and token) waits for that one instead of being sent.
+     */
+    private CompletableFuture<String> request(RateGovernor.Priority priority, String urlString, String method, String... headers) {
+        if (!"GET".equals(method)) {
+            return send(priority, urlString, method, TwitchAPI::readText, headers);
+        }
+        String auth = null;
         for (int i = 0; i < headers.length; i += 2) {
-            connection.setRequestProperty(headers[i], headers[i + 1]);
+            if ("Authorization".equalsIgnoreCase(headers[i])) auth = headers[i + 1];
+        }
+        String key = urlString + "|" + SingleFlight.fingerprint(auth);
+        return getFlights.run(key, () -> send(priority, urlString, method, TwitchAPI::readText, headers))
+                .thenApply(String.class::cast);
+    }
+
+    /**
+     * Waits for the host's budget in the shared {@link RateGovernor} before sending, and
+     * reports the response's rate limit headers back to it. A 429 is retried once, after
+     * the governor has held the request until the limit resets. Fails fast with
+     * {@link CircuitOpenException} while the endpoint's circuit is open.
+     *
+     * The whole call, including the wait for budget and reading the body, has a deadline:
+     * the request timeout only covers the response headers, so a body that stalls would
+     * otherwise leave the future pending for good.
+     */
+    private <T> CompletableFuture<T> send(RateGovernor.Priority priority, String urlString, String method,
+                                          BodyReader<T> reader, String... headers) {
+        URI uri;
+        try {
+            uri = URI.create(urlString);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        long deadlineMs = deadlineMs();
+        return send(priority, uri, method, reader, headers, false)
+                .orTimeout(deadlineMs, TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(e -> CompletableFuture.failedFuture(e instanceof TimeoutException
+                        ? TwitchAPIException.noResponse("No complete response from " + CircuitBreaker.endpoint(uri)
+                                + " within " + deadlineMs + "ms", e)
+                        : e));
+    }
+
+    private <T> CompletableFuture<T> send(RateGovernor.Priority priority, URI uri, String method,
+                                          BodyReader<T> reader, String[] headers, boolean retried) {
+        RateGovernor governor = plugin.getRateGovernor();
+        CircuitBreaker breaker = plugin.getCircuitBreaker();
+        String endpoint = CircuitBreaker.endpoint(uri);
+
+        // fail fast while the endpoint is down, before spending rate budget on it
+        if (breaker != null) {
+            try {
+                breaker.acquire(endpoint);
+            } catch (CircuitOpenException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        CompletableFuture<Void> permit = (governor != null)
+                ? governor.acquire(uri.getHost(), priority, maxWaitMs())
+                : CompletableFuture.completedFuture(null);
+
+        return permit.thenCompose(v -> {
+            HttpRequest.Builder request = transport.request(uri)
+                    .method(method, HttpRequest.BodyPublishers.noBody());
+            for (int i = 0; i < headers.length; i += 2) {
+                request.header(headers[i], headers[i + 1]);
+            }
+            return transport.send(request.build()).handle((resp, error) -> {
+                if (error == null) return onResponse(resp, priority, uri, endpoint, method, reader, headers, retried);
+                Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                if (breaker != null) breaker.onFailure(endpoint, -1);
+                return CompletableFuture.<T>failedFuture(
+                        TwitchAPIException.noResponse("No response from " + endpoint + ": " + cause.getMessage(), cause));
+            }).thenCompose(f -> f);
+        });
+    }
 
-        int responseCode = connection.getResponseCode();
+    private <T> CompletableFuture<T> onResponse(HttpResponse<InputStream> resp, RateGovernor.Priority priority, URI uri,
+                                                String endpoint, String method, BodyReader<T> reader,
+                                                String[] headers, boolean retried) {
+        RateGovernor governor = plugin.getRateGovernor();
+        CircuitBreaker breaker = plugin.getCircuitBreaker();
+        int responseCode = resp.statusCode();
+        Function<String, String> header = name -> resp.headers().firstValue(name).orElse(null);
+        if (governor != null) {
+            governor.observe(uri.getHost(), responseCode, header);
+        }
+        long retryAfterMs = RateGovernor.retryAfterMs(header);
+        if (breaker != null) {
+            if (responseCode >= 500) breaker.onFailure(endpoint, retryAfterMs);
+            else breaker.onSuccess(endpoint);
+        }
 
         // Handle rate limiting (429 status code)
         if (responseCode == 429) {
-            String retryAfter = connection.getHeaderField("Ratelimit-Retry-After");
-            throw new Exception("Twitch API rate limit exceeded. Try again in " + retryAfter + " seconds");
+            HttpTransport.discard(resp);
+            if (!retried && governor != null) {
+                return send(priority, uri, method, reader, headers, true);
+            }
+            return CompletableFuture.failedFuture(new TwitchAPIException(429, "Twitch API rate limit exceeded. Try again in "
+                    + Math.max(1, retryAfterMs / 1000) + " seconds", retryAfterMs));
         }
 
         // Handle other non-200 responses
         if (responseCode != 200) {
-            // Try to read error details
-            try (BufferedReader errorReader = new BufferedReader(new InputStreamReader(connection.getErrorStream()))) {
-                StringBuilder errorResponse = new StringBuilder();
-                String line;
-                while ((line = errorReader.readLine()) != null) {
-                    errorResponse.append(line);
-                }
-
-                // Provide more specific error messages
-                if (responseCode == 401) {
-                    throw new Exception("Access token expired or invalid (401). Token needs refresh.");
-                } else if (responseCode == 403) {
-                    throw new Exception("Forbidden (403): Check your Twitch API permissions");
-                } else if (responseCode == 404) {
-                    throw new Exception("Not found (404): Invalid API endpoint");
-                } else {
-                    throw new Exception("HTTP request failed (" + responseCode + "): " + errorResponse.toString());
-                }
-            } catch (Exception e) {
-                throw new Exception("HTTP request failed with code: " + responseCode);
-            }
+            // Provide more specific error messages
+            String message = switch (responseCode) {
+                case 401 -> "Access token expired or invalid. Token needs refresh.";
+                case 403 -> "Forbidden: Check your Twitch API permissions";
+                case 404 -> "Not found: Invalid API endpoint";
+                default -> "HTTP request failed: " + HttpTransport.snippet(resp, 300);
+            };
+            HttpTransport.discard(resp);
+            return CompletableFuture.failedFuture(new TwitchAPIException(responseCode, message, retryAfterMs));
         }
 
         // Read successful response
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-            StringBuilder response = new StringBuilder();
-            String inputLine;
-            while ((inputLine = in.readLine()) != null) {
-                response.append(inputLine);
-            }
-            return response.toString();
+        try (InputStream in = HttpTransport.body(resp)) {
+            return CompletableFuture.completedFuture(reader.read(in));
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 
+    private long maxWaitMs() {
+        return plugin.getConfig().getLong("http.rate-limit.max-wait-ms", 10000L);
+    }
+
+    // budget wait plus headers plus body; the 429 retry shares it
+    private long deadlineMs() {
+        return maxWaitMs() + transport.getRequestTimeout().toMillis() * 2;
+    }
+
+    /**
+     * Waits for an async call from a blocking caller and rethrows its failure as is. Each
+     * request already has a deadline; this bounds calls that chain several of them.
+     */
+    private <T> T await(CompletableFuture<T> future) throws Exception {
+        long limitMs = deadlineMs() * 2;
+        try {
+            return future.get(limitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        } catch (TimeoutException e) {
+            throw TwitchAPIException.noResponse("Twitch request timed out after " + limitMs + "ms", e);
+        }
+    }
+
+    private static String readText(InputStream body) throws IOException {
+        return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
     public String getBroadcasterType(String accessToken) throws Exception {
-        JsonObject userJson = getUserInfo(accessToken);
-        JsonObject userData = userJson.getAsJsonArray("data").get(0).getAsJsonObject();
+        return await(getBroadcasterTypeAsync(accessToken));
+    }
 
+    public CompletableFuture<String> getBroadcasterTypeAsync(String accessToken) {
         // Broadcaster type can be: "", "affiliate", or "partner"
-        return userData.get("broadcaster_type").getAsString();
+        return getUserInfoAsync(accessToken).thenApply(TwitchUser::broadcasterType);
     }
 
     public String getAccessTokenFromRefresh(String refreshToken) throws Exception {
-        String response = makeHttpRequest(
+        return await(getAccessTokenFromRefreshAsync(refreshToken));
+    }
+
+    public CompletableFuture<String> getAccessTokenFromRefreshAsync(String refreshToken) {
+        return request(RateGovernor.Priority.INTERACTIVE,
                 "https://id.twitch.tv/oauth2/token" +
                         "?client_id=" + clientId +
                         "&client_secret=" + clientSecret +
                         "&refresh_token=" + refreshToken +
                         "&grant_type=refresh_token",
                 "POST"
-        );
-
-        JsonObject json = JsonParser.parseString(response).getAsJsonObject();
-        return json.get("access_token").getAsString();
+        ).thenApply(response -> JsonParser.parseString(response).getAsJsonObject().get("access_token").getAsString());
     }
 
     public String getValidAccessToken(UUID playerId, String currentToken, String refreshToken) throws Exception {
-        if (validateAccessToken(currentToken)) {
-            return currentToken;
-        }
+        return await(getValidAccessTokenAsync(playerId, currentToken, refreshToken));
+    }
 
-        plugin.getLogger().info("Access token expired for " + playerId + ", refreshing...");
-        try {
-            String newToken = getAccessTokenFromRefresh(refreshToken);
-            plugin.getDataManager().updateAccessToken(playerId, newToken);
-            return newToken;
-        } catch (Exception e) {
-            plugin.getLogger().severe("Failed to refresh token for " + playerId + ": " + e.getMessage());
-            throw new Exception("Token refresh failed", e);
-        }
+    public CompletableFuture<String> getValidAccessTokenAsync(UUID playerId, String currentToken, String refreshToken) {
+        return validateAccessTokenAsync(currentToken).thenCompose(valid -> {
+            if (valid) {
+                return CompletableFuture.completedFuture(currentToken);
+            }
+
+            plugin.getLogger().info("Access token expired for " + playerId + ", refreshing...");
+            return getAccessTokenFromRefreshAsync(refreshToken).handle((newToken, error) -> {
+                if (error != null) {
+                    Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                    plugin.getLogger().severe("Failed to refresh token for " + playerId + ": " + cause.getMessage());
+                    throw new CompletionException(new TwitchAPIException("Token refresh failed", cause));
+                }
+                plugin.getDataManager().updateAccessToken(playerId, newToken);
+                return newToken;
+            });
+        });
     }
 
     public boolean validateAccessToken(String accessToken) {
-        if (accessToken == null || accessToken.isEmpty()) {
-            return false;
-        }
         try {
-            String response = makeHttpRequest(
-                    "https://id.twitch.tv/oauth2/validate",
-                    "GET",
-                    "Authorization", "Bearer " + accessToken
-            );
-
-            JsonObject json = JsonParser.parseString(response).getAsJsonObject();
-            return json.has("client_id") && json.has("user_id") && !json.has("error");
+            return await(validateAccessTokenAsync(accessToken));
         } catch (Exception e) {
             plugin.getLogger().warning("Token validation failed: " + e.getMessage());
             return false;
         }
     }
 
-    public boolean isUserLive(String accessToken, String twitchId) throws Exception {
+    /** Never completes exceptionally; a failed validation counts as invalid. */
+    public CompletableFuture<Boolean> validateAccessTokenAsync(String accessToken) {
+        if (accessToken == null || accessToken.isEmpty()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        String fingerprint = SingleFlight.fingerprint(accessToken);
+        if (validatedTokens.getIfPresent(fingerprint) != null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return request(RateGovernor.Priority.INTERACTIVE,
+                "https://id.twitch.tv/oauth2/validate",
+                "GET",
+                "Authorization", "Bearer " + accessToken
+        ).handle((response, error) -> {
+            if (error != null) {
+                Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                plugin.getLogger().warning("Token validation failed: " + cause.getMessage());
+                return false;
+            }
+            JsonObject json = JsonParser.parseString(response).getAsJsonObject();
+            boolean valid = json.has("client_id") && json.has("user_id") && !json.has("error");
+            if (valid) validatedTokens.put(fingerprint, true);
+            return valid;
+        });
+    }
+
+    public boolean isUserLive(String twitchId) throws Exception {
+        return await(isUserLiveAsync(twitchId));
+    }
+
+    public CompletableFuture<Boolean> isUserLiveAsync(String twitchId) {
         String cacheKey = twitchId + "_live";
         Boolean cached = liveStatusCache.getIfPresent(cacheKey);
         if (cached != null) {
-            return cached;
+            return CompletableFuture.completedFuture(cached);
         }
 
-        String response = makeHttpRequest(
-                "https://api.twitch.tv/helix/streams?user_id=" + twitchId,
-                "GET",
-                "Authorization", "Bearer " + accessToken,
-                "Client-Id", clientId
-        );
-
-        JsonObject json = JsonParser.parseString(response).getAsJsonObject();
-        JsonArray data = json.getAsJsonArray("data");
-
-        boolean isLive = data.size() > 0 && !data.get(0).getAsJsonObject().get("type").getAsString().equals("");
-        liveStatusCache.put(cacheKey, isLive);
-        return isLive;
+        // the live check and a going-live stream lookup for the same user share one request
+        return withAppToken(token -> getFirst(RateGovernor.Priority.BACKGROUND,
+                "https://api.twitch.tv/helix/streams?user_id=" + twitchId, token, StreamInfo.class, StreamInfo::read))
+                .thenApply(stream -> {
+                    boolean isLive = stream != null && stream.isLive();
+                    liveStatusCache.put(cacheKey, isLive);
+                    return isLive;
+                });
     }
 
     public boolean isAffiliate(String accessToken) throws Exception {
@@ -332,8 +647,27 @@ public class TwitchAPI extends ManagerBase {
         return "affiliate".equals(broadcasterType);
     }
 
+    public CompletableFuture<Boolean> isAffiliateAsync(String accessToken) {
+        return getBroadcasterTypeAsync(accessToken).thenApply("affiliate"::equals);
+    }
+
+    /** False while the circuit breaker for Helix /streams is open, so pollers can skip a cycle. */
+    public boolean isStreamLookupAvailable() {
+        CircuitBreaker breaker = plugin.getCircuitBreaker();
+        return breaker == null || breaker.isAvailable(STREAMS_ENDPOINT);
+    }
+
+    /** Requests that were answered by an identical request already in flight. */
+    public long getSharedRequestCount() {
+        return getFlights.getSharedCount();
+    }
+
     public boolean isPartner(String accessToken) throws Exception {
         String broadcasterType = getBroadcasterType(accessToken);
         return "partner".equals(broadcasterType);
     }
-}
\ No newline at end of file
+
+    public CompletableFuture<Boolean> isPartnerAsync(String accessToken) {
+        return getBroadcasterTypeAsync(accessToken).thenApply("partner"::equals);
+    }
+}
@@ -0,0 +1,25 @@
+package com.taffy.streamlink.api;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/** The fields of a Helix {@code /users} entry the plugin uses. */
+public record TwitchUser(String id, String login, String displayName, String broadcasterType) {
+
+    public static TwitchUser read(JsonReader in) throws IOException {
+        String id = null, login = null, displayName = null, broadcasterType = "";
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> id = JsonDecoding.nextString(in);
+                case "login" -> login = JsonDecoding.nextString(in);
+                case "display_name" -> displayName = JsonDecoding.nextString(in);
+                case "broadcaster_type" -> broadcasterType = JsonDecoding.nextString(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new TwitchUser(id, login, displayName, broadcasterType == null ? "" : broadcasterType);
+    }
+}
@@ -1,5 +1,7 @@
 package com.taffy.streamlink.commands;
 
+import com.taffy.streamlink.exceptions.TwitchAPIException;
+import com.taffy.streamlink.loyalty.ExportOptions;
 import com.taffy.streamlink.managers.LogManager;
 import com.taffy.streamlink.managers.PlayerDataManager;
 import com.taffy.streamlink.managers.UniversalPermissionManager;
@@ -82,7 +84,7 @@ public class StreamLinkCommand implements CommandExecutor {
             player.sendMessage(ChatColor.YELLOW + "/streamlink setup"   + ChatColor.GRAY + " - Setup guidance");
             player.sendMessage(ChatColor.YELLOW + "/streamlink migrate" + ChatColor.GRAY + " - Migrate old groups");
             player.sendMessage(ChatColor.YELLOW + "/streamlink streamlabs"+ ChatColor.GRAY + " - Get OAuth link");
-            player.sendMessage(ChatColor.YELLOW + "/streamlink sync [file]" + ChatColor.GRAY + " - Import loyalty CSV");
+            player.sendMessage(ChatColor.YELLOW + "/streamlink sync [file|--cloudbot] [--dry] [--full]" + ChatColor.GRAY + " - Import loyalty CSV");
         }
         player.sendMessage(ChatColor.GOLD + "╚════════════════════════════════╝");
         return true;
@@ -97,7 +99,7 @@ public class StreamLinkCommand implements CommandExecutor {
         player.sendMessage(ChatColor.AQUA + "/streamlink setup" + ChatColor.GRAY + " - Show setup guidance");
         player.sendMessage(ChatColor.AQUA + "/streamlink migrate" + ChatColor.GRAY + " - Migrate old groups");
         player.sendMessage(ChatColor.YELLOW + "/streamlink streamlabs"+ ChatColor.GRAY + " - Get OAuth link");
-        player.sendMessage(ChatColor.AQUA + "/streamlink sync [file]" + ChatColor.GRAY + " - Import loyalty CSV");
+        player.sendMessage(ChatColor.AQUA + "/streamlink sync [file|--cloudbot] [--dry] [--full]" + ChatColor.GRAY + " - Import loyalty CSV");
         player.sendMessage(ChatColor.DARK_AQUA + "╚══════════════════════════════════╝");
         return true;
     }
@@ -161,7 +163,7 @@ public class StreamLinkCommand implements CommandExecutor {
                     String displayName = plugin.getTwitchAPI().getTwitchDisplayName(accessToken);
                     player.sendMessage(ChatColor.GREEN + "✅ Linked to: " + ChatColor.AQUA + displayName + ChatColor.GRAY + " (" + twitchId + ")");
                 } catch (Exception e) {
-                    if (e.getMessage() != null && e.getMessage().contains("401") && refreshToken != null) {
+                    if (e instanceof TwitchAPIException api && api.isUnauthorized() && refreshToken != null) {
                         try {
                             String newAccessToken = plugin.getTwitchAPI().getAccessTokenFromRefresh(refreshToken);
                             plugin.getDataManager().updateAccessToken(player.getUniqueId(), newAccessToken);
@@ -212,6 +214,13 @@ public class StreamLinkCommand implements CommandExecutor {
         player.sendMessage(ChatColor.GOLD + "StreamLabs (stored)");
         player.sendMessage(ChatColor.GRAY + "Points: " + ChatColor.GREEN + points);
         player.sendMessage(ChatColor.GRAY + "Watch time: " + ChatColor.GREEN + String.format("%.1f", minutes / 60.0) + "h");
+
+        // with the API as source, follow up with a live value
+        if (data != null && data.getTwitchUsername() != null && plugin.getStreamLabsManager() != null
+                && plugin.getStreamLabsManager().hasLoyaltyPointsAccess()
+                && "api".equalsIgnoreCase(plugin.getConfig().getString("loyalty.source", "csv"))) {
+            plugin.getStreamLabsManager().fetchPointsOnce(player, data.getTwitchUsername());
+        }
         return true;
     }
 
@@ -252,42 +261,82 @@ public class StreamLinkCommand implements CommandExecutor {
 
     private boolean handleSyncCsv(Player player, String[] args) {
         boolean dry = false;
+        boolean full = false;
+        boolean cloudbot = false;
         String pathArg = null;
         for (int i = 1; i < args.length; i++) {
             if ("--dry".equalsIgnoreCase(args[i]) || "-n".equalsIgnoreCase(args[i])) dry = true;
+            else if ("--full".equalsIgnoreCase(args[i])) full = true;
+            else if ("--cloudbot".equalsIgnoreCase(args[i])) cloudbot = true;
             else pathArg = args[i];
         }
 
+        if (cloudbot) {
+            player.sendMessage(ChatColor.GRAY + (dry ? "[DRY-RUN] " : "") + "Fetching loyalty from Streamlabs Cloudbot...");
+            plugin.getStreamLabsManager().syncCloudbotLoyalty(dry, status ->
+                            Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage(ChatColor.GRAY + status)))
+                    .thenAccept(summary ->
+                            Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage(ChatColor.YELLOW + summary)));
+            return true;
+        }
+
         File csv = (pathArg != null)
                 ? new File(pathArg)
                 : new File(plugin.getDataFolder(), plugin.getConfig().getString("loyalty.csv.path", "loyalty.csv"));
 
         final boolean dryRun = dry;                 // <-- make final
         final File csvFile = csv;                   // <-- make final
+        final boolean incremental = !full;
 
         player.sendMessage(ChatColor.GRAY + (dryRun ? "[DRY-RUN] " : "") +
                 "Syncing from: " + ChatColor.AQUA + csvFile.getAbsolutePath());
 
         Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            // Make sure PlayerDataManager has this overload: importLoyaltyCsv(File file, boolean dryRun)
-            String summary = plugin.getDataManager().importLoyaltyCsv(csvFile, dryRun);
+            String summary = plugin.getDataManager().importLoyaltyCsv(csvFile, dryRun, incremental, status ->
+                    Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage(ChatColor.GRAY + status)));
             Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage(ChatColor.YELLOW + summary));
         });
         return true;
     }
 
     private boolean handleExport(Player player, String[] args) {
-        File out = (args.length >= 2) ? new File(args[1])
-                : new File(plugin.getDataFolder(), "export-loyalty.csv");
-        final File outFile = out; // <-- make final
+        ExportOptions options = new ExportOptions();
+        String pathArg = null;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                String a = args[i].toLowerCase();
+                switch (a) {
+                    case "--gzip", "-z" -> options.gzip(true);
+                    case "--online" -> options.onlineOnly(true);
+                    case "--format" -> options.format(ExportOptions.parseFormat(requireValue(args, ++i, a)));
+                    case "--min-points" -> options.minPoints(Integer.parseInt(requireValue(args, ++i, a)));
+                    case "--since" -> options.linkedSince(ExportOptions.parseSince(requireValue(args, ++i, a)));
+                    default -> pathArg = args[i];
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            player.sendMessage(ChatColor.RED + e.getMessage());
+            player.sendMessage(ChatColor.YELLOW + "Usage: /streamlink export [file] [--format csv|ndjson|bin] [--gzip] "
+                    + "[--min-points N] [--since yyyy-MM-dd|7d] [--online]");
+            return true;
+        }
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            String result = plugin.getDataManager().exportLoyaltyCsv(outFile);
-            Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage(ChatColor.YELLOW + result));
-        });
+        final File outFile = (pathArg != null) ? new File(pathArg)
+                : new File(plugin.getDataFolder(), options.defaultFileName());
+
+        player.sendMessage(ChatColor.GRAY + "Exporting to " + ChatColor.AQUA + outFile.getAbsolutePath());
+        plugin.getDataManager().exportLoyalty(outFile, options, status ->
+                        Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage(ChatColor.GRAY + status)))
+                .thenAccept(result ->
+                        Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage(ChatColor.YELLOW + result)));
         return true;
     }
 
+    private static String requireValue(String[] args, int i, String flag) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + flag);
+        return args[i];
+    }
+
     private boolean handleDebug(Player player, String[] args) {
         if (args.length < 2) {
             player.sendMessage(ChatColor.YELLOW + "Usage: /streamlink debug <on|off>");
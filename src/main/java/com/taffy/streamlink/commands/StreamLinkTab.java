@@ -23,9 +23,9 @@ public class StreamLinkTab implements TabCompleter {
         }
 
         if (args.length == 2 && admin) {
-            if ("sync".equalsIgnoreCase(args[0])) return Arrays.asList("--dry", "<path>");
+            if ("sync".equalsIgnoreCase(args[0])) return Arrays.asList("--dry", "--full", "--cloudbot", "<path>");
             if ("debug".equalsIgnoreCase(args[0])) return Arrays.asList("on","off");
-            if ("export".equalsIgnoreCase(args[0])) return Arrays.asList("<path>");
+            if ("export".equalsIgnoreCase(args[0])) return Arrays.asList("--format", "--gzip", "--min-points", "--since", "--online", "<path>");
         }
         return List.of();
     }
@@ -0,0 +1,27 @@
+package com.taffy.streamlink.exceptions;
+
+/** Not sent: the endpoint's circuit breaker is open after repeated failures. */
+public class CircuitOpenException extends TwitchAPIException {
+    private final String endpoint;
+    private final long retryInMs;
+
+    public CircuitOpenException(String endpoint, long retryInMs) {
+        super("Circuit open for " + endpoint + "; next attempt in " + Math.max(1, (retryInMs + 999) / 1000) + "s", null);
+        this.endpoint = endpoint;
+        this.retryInMs = retryInMs;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public long getRetryAfterMs() {
+        return retryInMs;
+    }
+
+    @Override
+    public boolean isRetryable() {
+        return true;
+    }
+}
@@ -0,0 +1,11 @@
+package com.taffy.streamlink.exceptions;
+
+public class StorageException extends Exception {
+    public StorageException(String message) {
+        super(message);
+    }
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,15 +1,67 @@
 package com.taffy.streamlink.exceptions;
 
+/**
+ * A failed Twitch or Streamlabs call. {@link #getStatusCode()} is the HTTP status, or 0
+ * when no response arrived (connection refused, timeout).
+ */
 public class TwitchAPIException extends Exception {
+    private final int statusCode;
+    private final long retryAfterMs;
+    private final boolean retryable;
+
     public TwitchAPIException(String message) {
-        super(message);
+        this(message, null);
     }
 
     public TwitchAPIException(String message, Throwable cause) {
         super(message, cause);
+        this.statusCode = 0;
+        this.retryAfterMs = -1;
+        this.retryable = cause != null;
     }
 
     public TwitchAPIException(int statusCode, String message) {
+        this(statusCode, message, -1);
+    }
+
+    /** @param retryAfterMs from the Retry-After / rate limit headers, or -1 if not given */
+    public TwitchAPIException(int statusCode, String message, long retryAfterMs) {
         super("HTTP " + statusCode + ": " + message);
+        this.statusCode = statusCode;
+        this.retryAfterMs = retryAfterMs;
+        this.retryable = isRetryableStatus(statusCode);
+    }
+
+    /** No response at all, e.g. a connect or read timeout; always retryable. */
+    public static TwitchAPIException noResponse(String message, Throwable cause) {
+        return new TwitchAPIException(message, cause);
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /** How long the server asked us to wait, or -1 if it did not say. */
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+
+    /** True for failures that may go away by themselves: no response, 408, 425, 429 and 5xx. */
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    /** The token was rejected; refreshing it may help. */
+    public boolean isUnauthorized() {
+        return statusCode == 401;
+    }
+
+    /** True when the endpoint itself is unhealthy, as opposed to rejecting this request. */
+    public boolean isUpstreamFailure() {
+        return statusCode == 0 || statusCode >= 500;
+    }
+
+    public static boolean isRetryableStatus(int statusCode) {
+        return statusCode == 0 || statusCode == 408 || statusCode == 425 || statusCode == 429 || statusCode >= 500;
     }
 }
@@ -3,8 +3,11 @@ package com.taffy.streamlink.listeners;
 import com.taffy.streamlink.streamlink;
 import com.taffy.streamlink.utils.DeviceFlowTask;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.entity.Player;
 
@@ -19,6 +22,22 @@ public class StreamLinkListener implements Listener {
         this.log = plugin.getLogManager();
     }
 
+    // MONITOR: the login result is final here, so a ban or whitelist plugin can't deny it after we pin
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        // off the main thread: pull the player's record into the cache before they join
+        plugin.getDataManager().loadOnLogin(event.getUniqueId());
+    }
+
+    // a login refused after pre-login (e.g. server full) never gets a quit event to unpin it
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            plugin.getDataManager().releasePlayer(event.getPlayer().getUniqueId());
+        }
+    }
+
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
@@ -27,6 +46,12 @@ public class StreamLinkListener implements Listener {
         if (plugin.getDataManager().isLinked(player.getUniqueId())) {
             plugin.getPermissionManager().migrateOldGroups(player);
             log.debug("Migrated old groups for " + player.getName());
+
+            // back to the online polling rate (and an immediate refresh)
+            if (plugin.getStreamLabsManager() != null) {
+                plugin.getStreamLabsManager().registerPlayerTwitchName(player,
+                        plugin.getDataManager().getTwitchUsername(player.getUniqueId()));
+            }
         }
     }
 
@@ -45,5 +70,10 @@ public class StreamLinkListener implements Listener {
         // Clean up permission attachments
         plugin.getPermissionManager().cleanupPlayer(player);
         log.debug("Cleaned up permissions for " + player.getName());
+
+        if (plugin.getStreamLabsManager() != null) {
+            plugin.getStreamLabsManager().onPlayerQuit(playerId);
+        }
+        plugin.getDataManager().releasePlayer(playerId);
     }
 }
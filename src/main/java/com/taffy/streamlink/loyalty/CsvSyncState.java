@@ -0,0 +1,166 @@
+package com.taffy.streamlink.loyalty;
+
+import com.taffy.streamlink.managers.LogManager;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What the last successful CSV sync saw: the file's size, mtime and SHA-256,
+ * plus a hash of (points, minutes) per linked login. Lets auto-sync skip an
+ * unchanged file outright and, when it did change, touch only changed rows.
+ *
+ * Persisted to loyalty-sync.state so restarts don't force a full re-apply.
+ * Callers must serialize imports; {@link #forget(String)} is safe at any time.
+ */
+public class CsvSyncState {
+    private static final int MAGIC = 0x534C4353; // "SLCS"
+    private static final int VERSION = 1;
+
+    private final File stateFile;
+    private final LogManager log;
+
+    private String path = "";
+    private long size = -1;
+    private long modified = -1;
+    private byte[] digest = new byte[0];
+    private volatile Map<String, Long> rowHashes = new ConcurrentHashMap<>();
+    private boolean loaded;
+
+    public CsvSyncState(File stateFile, LogManager log) {
+        this.stateFile = stateFile;
+        this.log = log;
+    }
+
+    /**
+     * True if {@code csv} has the same content as the last applied sync. A
+     * size+mtime match is trusted; an mtime-only change is confirmed by digest.
+     */
+    public synchronized boolean isUnchanged(File csv) throws IOException {
+        ensureLoaded();
+        if (!csv.getAbsolutePath().equals(path) || csv.length() != size) return false;
+        if (csv.lastModified() == modified) return true;
+
+        byte[] current;
+        try (DigestInputStream in = digestStream(new FileInputStream(csv))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            current = in.getMessageDigest().digest();
+        }
+        if (!Arrays.equals(current, digest)) return false;
+
+        // touched but identical: remember the new mtime so the next check is cheap
+        modified = csv.lastModified();
+        save();
+        return true;
+    }
+
+    /** @return true if this login was last applied with exactly these values */
+    boolean isRowUnchanged(String login, long rowHash) {
+        // only called during an import, after isUnchanged() has loaded the state
+        Long previous = rowHashes.get(login);
+        return previous != null && previous == rowHash;
+    }
+
+    /** Record a fully applied sync. {@code hashes} replaces the previous row map. */
+    synchronized void commit(File csv, long csvSize, long csvModified, byte[] csvDigest, Map<String, Long> hashes) {
+        ensureLoaded();
+        path = csv.getAbsolutePath();
+        size = csvSize;
+        modified = csvModified;
+        digest = csvDigest;
+        rowHashes = new ConcurrentHashMap<>(hashes);
+        save();
+    }
+
+    /** Drop a login's row hash (e.g. on unlink) so its next CSV row is applied again. */
+    public synchronized void forget(String login) {
+        ensureLoaded();
+        if (login != null && rowHashes.remove(login.toLowerCase()) != null) save();
+    }
+
+    /** Forget everything, forcing the next sync to re-apply every row. */
+    public synchronized void clear() {
+        ensureLoaded();
+        path = "";
+        size = modified = -1;
+        digest = new byte[0];
+        rowHashes = new ConcurrentHashMap<>();
+        save();
+    }
+
+    static long rowHash(int points, long minutes) {
+        long h = points * 0x9E3779B97F4A7C15L;
+        h ^= minutes + 0x632BE59BD9B4E019L + (h << 6) + (h >>> 2);
+        return h;
+    }
+
+    static DigestInputStream digestStream(InputStream in) {
+        try {
+            return new DigestInputStream(in, MessageDigest.getInstance("SHA-256"));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+        if (!stateFile.exists()) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(stateFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("Ignoring unrecognised " + stateFile.getName() + "; next CSV sync will be a full one");
+                return;
+            }
+            String p = in.readUTF();
+            long s = in.readLong();
+            long m = in.readLong();
+            byte[] d = new byte[in.readUnsignedShort()];
+            in.readFully(d);
+            int count = in.readInt();
+            Map<String, Long> rows = new ConcurrentHashMap<>(Math.max(16, count * 4 / 3 + 1));
+            for (int i = 0; i < count; i++) rows.put(in.readUTF(), in.readLong());
+
+            path = p;
+            size = s;
+            modified = m;
+            digest = d;
+            rowHashes = rows;
+        } catch (IOException e) {
+            log.warn("Could not read " + stateFile.getName() + ", next CSV sync will be a full one: " + e.getMessage());
+        }
+    }
+
+    private void save() {
+        File tmp = new File(stateFile.getParentFile(), stateFile.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(path);
+            out.writeLong(size);
+            out.writeLong(modified);
+            out.writeShort(digest.length);
+            out.write(digest);
+            out.writeInt(rowHashes.size());
+            for (Map.Entry<String, Long> e : rowHashes.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeLong(e.getValue());
+            }
+        } catch (IOException e) {
+            log.warn("Could not write " + stateFile.getName() + ": " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not replace " + stateFile.getName() + ": " + e.getMessage());
+        }
+    }
+}
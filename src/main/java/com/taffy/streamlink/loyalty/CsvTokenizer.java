@@ -0,0 +1,186 @@
+package com.taffy.streamlink.loyalty;
+
+import java.util.Arrays;
+
+/**
+ * Reusable RFC 4180 tokenizer over a {@code char[]} window.
+ *
+ * {@link #nextRecord()} only records field offsets; nothing is allocated per
+ * row. Quoted fields may contain commas, doubled quotes and line breaks.
+ * Numbers are parsed straight from the buffer and strings are only built when
+ * a caller asks for one with {@link #field(int)}.
+ */
+public final class CsvTokenizer {
+    /** Returned by {@link #parseLong(int)} when the field is not a number. */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private char[] buf;
+    private int pos;
+    private int limit;
+
+    private int fieldCount;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] escaped = new boolean[16];
+
+    public CsvTokenizer reset(char[] buf, int offset, int length) {
+        this.buf = buf;
+        this.pos = offset;
+        this.limit = offset + length;
+        this.fieldCount = 0;
+        return this;
+    }
+
+    /** Advance to the next record. @return false once the window is exhausted */
+    public boolean nextRecord() {
+        fieldCount = 0;
+        if (pos >= limit) return false;
+
+        while (true) {
+            int start;
+            int end;
+            boolean hasEscapes = false;
+
+            if (pos < limit && buf[pos] == '"') {
+                start = ++pos;
+                while (true) {
+                    if (pos >= limit) { end = pos; break; }          // unterminated quote: take the rest
+                    char c = buf[pos];
+                    if (c == '"') {
+                        if (pos + 1 < limit && buf[pos + 1] == '"') {
+                            hasEscapes = true;
+                            pos += 2;
+                            continue;
+                        }
+                        end = pos++;
+                        break;
+                    }
+                    pos++;
+                }
+                // tolerate junk between the closing quote and the delimiter
+                while (pos < limit && buf[pos] != ',' && buf[pos] != '\n' && buf[pos] != '\r') pos++;
+            } else {
+                start = pos;
+                while (pos < limit && buf[pos] != ',' && buf[pos] != '\n' && buf[pos] != '\r') pos++;
+                end = pos;
+            }
+
+            addField(start, end, hasEscapes);
+
+            if (pos >= limit) return true;
+            char c = buf[pos++];
+            if (c == ',') continue;
+            if (c == '\r' && pos < limit && buf[pos] == '\n') pos++;
+            return true;
+        }
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /** True for a record consisting of one empty field, i.e. a blank line. */
+    public boolean isBlankRecord() {
+        return fieldCount == 1 && starts[0] == ends[0];
+    }
+
+    public boolean isBlank(int field) {
+        return trimmedStart(field) >= trimmedEnd(field);
+    }
+
+    /** Field value, trimmed and unescaped. Allocates; use sparingly on hot paths. */
+    public String field(int field) {
+        int s = trimmedStart(field);
+        int e = trimmedEnd(field);
+        if (!escaped[field]) return new String(buf, s, e - s);
+        StringBuilder sb = new StringBuilder(e - s);
+        for (int i = s; i < e; i++) {
+            char c = buf[i];
+            sb.append(c);
+            if (c == '"' && i + 1 < e && buf[i + 1] == '"') i++;
+        }
+        return sb.toString();
+    }
+
+    /** Parse a signed decimal straight from the buffer; {@link #INVALID} on anything else or overflow. */
+    public long parseLong(int field) {
+        int i = trimmedStart(field);
+        int e = trimmedEnd(field);
+        if (i >= e) return INVALID;
+
+        boolean negative = false;
+        char first = buf[i];
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i >= e) return INVALID;
+        }
+
+        long value = 0;
+        for (; i < e; i++) {
+            int d = buf[i] - '0';
+            if (d < 0 || d > 9) return INVALID;
+            if (value > (Long.MAX_VALUE - d) / 10) return INVALID;
+            value = value * 10 + d;
+        }
+        return negative ? -value : value;
+    }
+
+    public char[] buffer() {
+        return buf;
+    }
+
+    /** Offset of the first non-blank char of the field. */
+    public int trimmedStart(int field) {
+        int s = starts[field];
+        int e = ends[field];
+        while (s < e && buf[s] <= ' ') s++;
+        return s;
+    }
+
+    /** Offset just past the last non-blank char of the field. */
+    public int trimmedEnd(int field) {
+        int s = starts[field];
+        int e = ends[field];
+        while (e > s && buf[e - 1] <= ' ') e--;
+        return e;
+    }
+
+    /**
+     * End of the last complete record in {@code buf[offset, offset+length)}: just
+     * past the last line break outside quotes, or {@code offset} if there is none.
+     */
+    public static int lastRecordBoundary(char[] buf, int offset, int length) {
+        boolean inQuotes = false;
+        int boundary = offset;
+        for (int i = offset, n = offset + length; i < n; i++) {
+            char c = buf[i];
+            if (c == '"') inQuotes = !inQuotes;
+            else if (c == '\n' && !inQuotes) boundary = i + 1;
+        }
+        return boundary;
+    }
+
+    /** End of the first record in the range (just past its line break), or the range end. */
+    public static int firstRecordEnd(char[] buf, int offset, int length) {
+        boolean inQuotes = false;
+        for (int i = offset, n = offset + length; i < n; i++) {
+            char c = buf[i];
+            if (c == '"') inQuotes = !inQuotes;
+            else if (c == '\n' && !inQuotes) return i + 1;
+        }
+        return offset + length;
+    }
+
+    private void addField(int start, int end, boolean hasEscapes) {
+        if (fieldCount == starts.length) {
+            int n = fieldCount * 2;
+            starts = Arrays.copyOf(starts, n);
+            ends = Arrays.copyOf(ends, n);
+            escaped = Arrays.copyOf(escaped, n);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        escaped[fieldCount] = hasEscapes;
+        fieldCount++;
+    }
+}
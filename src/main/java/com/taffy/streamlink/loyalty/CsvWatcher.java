@@ -0,0 +1,217 @@
+package com.taffy.streamlink.loyalty;
+
+import com.taffy.streamlink.managers.LogManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Watches a directory for loyalty CSVs and imports them as soon as they are
+ * fully written, replacing the fixed-interval re-read.
+ *
+ * A file is considered complete once no create/modify event has arrived for
+ * {@code debounceMs} and its size and mtime have stopped changing. The import
+ * runs on a separate thread; afterwards a dropped file can be moved into
+ * {@code archive/} so the same drop is never processed twice. A single
+ * configured file stays where it is (the exporter keeps writing to it) and
+ * only a copy is archived; just the newest {@code archiveKeep} copies are kept.
+ */
+public class CsvWatcher {
+    private static final long POLL_MS = 250L;
+
+    private final Path dir;
+    private final String fileName;          // null = any *.csv in dir
+    private final Path archiveDir;          // null = leave the file in place
+    private final int archiveKeep;          // copies of the single file kept in archiveDir
+    private final long debounceMs;
+    private final Function<File, ImportResult> importer;
+    private final LogManager log;
+
+    private final Map<Path, Pending> pending = new HashMap<>();
+    private final ExecutorService importExecutor;
+    private volatile boolean running;
+    private Thread thread;
+    private WatchService watchService;
+
+    /**
+     * @param fileName   only react to this file name; null for any .csv
+     * @param archiveDir where processed files are moved (copied when watching {@code fileName}); null to leave them alone
+     * @param archiveKeep how many copies of {@code fileName} to keep; older ones are deleted
+     * @param importer   runs one import
+     */
+    public CsvWatcher(Path dir, String fileName, Path archiveDir, int archiveKeep, long debounceMs,
+                      Function<File, ImportResult> importer, LogManager log) {
+        this.dir = dir;
+        this.fileName = fileName;
+        this.archiveDir = archiveDir;
+        this.archiveKeep = Math.max(1, archiveKeep);
+        this.debounceMs = Math.max(POLL_MS, debounceMs);
+        this.importer = importer;
+        this.log = log;
+        this.importExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "StreamLink-CsvImport");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void start() throws IOException {
+        Files.createDirectories(dir);
+        watchService = dir.getFileSystem().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        // pick up anything dropped while the server was down
+        try (DirectoryStream<Path> existing = Files.newDirectoryStream(dir)) {
+            for (Path file : existing) {
+                if (Files.isRegularFile(file) && matches(file.getFileName())) touch(file);
+            }
+        }
+
+        running = true;
+        thread = new Thread(this::loop, "StreamLink-CsvWatcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching " + dir + " for " + (fileName != null ? fileName : "*.csv") + " drops");
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) thread.interrupt();
+        try {
+            if (watchService != null) watchService.close();
+        } catch (IOException ignored) {
+            // shutting down anyway
+        }
+        importExecutor.shutdown();
+        try {
+            if (!importExecutor.awaitTermination(5, TimeUnit.SECONDS)) importExecutor.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            importExecutor.shutdownNow();
+        }
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                WatchKey key = watchService.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) continue;
+                        Path name = (Path) event.context();
+                        if (matches(name)) touch(dir.resolve(name));
+                    }
+                    if (!key.reset()) {
+                        log.warn("CSV watch directory " + dir + " is no longer accessible; watcher stopped");
+                        return;
+                    }
+                }
+                dispatchSettled();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (Exception e) {
+                log.warn("CSV watcher error: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private boolean matches(Path name) {
+        String n = name.toString();
+        return fileName != null ? n.equalsIgnoreCase(fileName) : n.toLowerCase().endsWith(".csv");
+    }
+
+    private void touch(Path file) {
+        Pending p = pending.computeIfAbsent(file, f -> new Pending());
+        p.lastEvent = System.currentTimeMillis();
+        p.size = file.toFile().length();
+        p.modified = file.toFile().lastModified();
+    }
+
+    // a file is settled once events stop and size/mtime hold still for one more debounce window
+    private void dispatchSettled() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Path, Pending>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, Pending> e = it.next();
+            Path file = e.getKey();
+            Pending p = e.getValue();
+            if (now - p.lastEvent < debounceMs) continue;
+
+            File f = file.toFile();
+            if (!f.exists()) {
+                it.remove();
+                continue;
+            }
+            if (f.length() != p.size || f.lastModified() != p.modified) {
+                touch(file);
+                continue;
+            }
+            it.remove();
+            importExecutor.execute(() -> process(f));
+        }
+    }
+
+    private void process(File file) {
+        ImportResult result;
+        try {
+            result = importer.apply(file);
+        } catch (Exception e) {
+            log.warn("[CSV Watch] Import of " + file.getName() + " failed: " + e.getMessage(), e);
+            return;
+        }
+        log.info("[CSV Watch] " + file.getName() + ": " + result.toSummary());
+        // a failed import stays put so it is retried on the next write or restart
+        if (result.isFailed() || archiveDir == null || !file.exists()) return;
+        // the single file was not rewritten since the last copy; nothing new to keep
+        if (fileName != null && result.isFileUnchanged()) return;
+
+        try {
+            Files.createDirectories(archiveDir);
+            String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            Path target = archiveDir.resolve(stamp + "-" + file.getName());
+            if (fileName != null) {
+                Files.copy(file.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+                pruneCopies(file.getName());
+            } else {
+                try {
+                    Files.move(file.toPath(), target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(file.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            log.debug("Archived " + file.getName() + " to " + target);
+        } catch (IOException e) {
+            log.warn("Could not archive " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    // copies are named <yyyyMMdd-HHmmss>-<name>, so name order is age order
+    private void pruneCopies(String name) throws IOException {
+        List<Path> copies = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(archiveDir, "*-" + name)) {
+            for (Path copy : stream) copies.add(copy);
+        }
+        if (copies.size() <= archiveKeep) return;
+        Collections.sort(copies);
+        for (Path old : copies.subList(0, copies.size() - archiveKeep)) Files.deleteIfExists(old);
+    }
+
+    private static final class Pending {
+        long lastEvent;
+        long size;
+        long modified;
+    }
+}
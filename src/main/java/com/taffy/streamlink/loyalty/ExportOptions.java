@@ -0,0 +1,80 @@
+package com.taffy.streamlink.loyalty;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/** Format and filters for a loyalty export, parsed from /streamlink export flags. */
+public class ExportOptions {
+    public enum Format {
+        CSV("csv"), NDJSON("ndjson"), BINARY("bin");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private Format format = Format.CSV;
+    private boolean gzip;
+    private int minPoints = Integer.MIN_VALUE;
+    private long linkedSince;   // epoch millis, 0 = no filter
+    private boolean onlineOnly;
+
+    public Format getFormat() { return format; }
+    public boolean isGzip() { return gzip; }
+    public int getMinPoints() { return minPoints; }
+    public long getLinkedSince() { return linkedSince; }
+    public boolean isOnlineOnly() { return onlineOnly; }
+
+    public ExportOptions format(Format format) { this.format = format; return this; }
+    public ExportOptions gzip(boolean gzip) { this.gzip = gzip; return this; }
+    public ExportOptions minPoints(int minPoints) { this.minPoints = minPoints; return this; }
+    public ExportOptions linkedSince(long epochMillis) { this.linkedSince = epochMillis; return this; }
+    public ExportOptions onlineOnly(boolean onlineOnly) { this.onlineOnly = onlineOnly; return this; }
+
+    /** Default file name for these options, e.g. export-loyalty.ndjson.gz */
+    public String defaultFileName() {
+        return "export-loyalty." + format.getExtension() + (gzip ? ".gz" : "");
+    }
+
+    /** Players linked before {@code linkedSince} (or with an unknown link time) are excluded. */
+    public boolean accepts(ExportRow row, boolean online) {
+        if (row.login() == null) return false;
+        if (row.points() < minPoints) return false;
+        if (linkedSince > 0 && row.linkedAt() < linkedSince) return false;
+        return !onlineOnly || online;
+    }
+
+    public static Format parseFormat(String value) {
+        for (Format f : Format.values()) {
+            if (f.name().equalsIgnoreCase(value) || f.getExtension().equalsIgnoreCase(value)) return f;
+        }
+        throw new IllegalArgumentException("Unknown format '" + value + "' (csv, ndjson, bin)");
+    }
+
+    /** Accepts a date (yyyy-MM-dd) or a relative age such as 7d, 12h, 30m. */
+    public static long parseSince(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.length() > 1 && Character.isDigit(v.charAt(0)) && "dhm".indexOf(v.charAt(v.length() - 1)) >= 0) {
+            long amount = Long.parseLong(v.substring(0, v.length() - 1));
+            TimeUnit unit = switch (v.charAt(v.length() - 1)) {
+                case 'd' -> TimeUnit.DAYS;
+                case 'h' -> TimeUnit.HOURS;
+                default -> TimeUnit.MINUTES;
+            };
+            return System.currentTimeMillis() - unit.toMillis(amount);
+        }
+        try {
+            return new SimpleDateFormat("yyyy-MM-dd").parse(v).getTime();
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid --since '" + value + "' (use yyyy-MM-dd or e.g. 7d)");
+        }
+    }
+}
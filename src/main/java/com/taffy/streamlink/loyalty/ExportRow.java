@@ -0,0 +1,7 @@
+package com.taffy.streamlink.loyalty;
+
+import java.util.UUID;
+
+/** Token-free copy of the exported fields, captured when the export snapshot is taken. */
+public record ExportRow(UUID playerId, String login, int points, long minutes, long linkedAt, boolean live) {
+}
@@ -0,0 +1,98 @@
+package com.taffy.streamlink.loyalty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Counters and samples from one CSV import; chunk results are merged in file order. */
+public class ImportResult {
+    final List<LoyaltyUpdate> updates = new ArrayList<>();
+    final List<String> notLinked = new ArrayList<>();
+    final List<LoyaltyUpdate> staged = new ArrayList<>();
+    final List<TwitchRename> renames = new ArrayList<>();
+    final Map<String, Long> rowHashes = new HashMap<>();
+    int totalRows;
+    int unchanged;
+    int skippedNoLink;
+    int skippedParse;
+    int applied;
+    int tierChanges;
+    long elapsedMs;
+    boolean dryRun;
+    boolean incremental;
+    boolean fileUnchanged;
+    String error;
+
+    static ImportResult failed(String message) {
+        ImportResult r = new ImportResult();
+        r.error = message;
+        return r;
+    }
+
+    static ImportResult unchangedFile(boolean dryRun) {
+        ImportResult r = new ImportResult();
+        r.dryRun = dryRun;
+        r.incremental = true;
+        r.fileUnchanged = true;
+        return r;
+    }
+
+    void merge(ImportResult chunk) {
+        updates.addAll(chunk.updates);
+        staged.addAll(chunk.staged);
+        renames.addAll(chunk.renames);
+        rowHashes.putAll(chunk.rowHashes);
+        totalRows += chunk.totalRows;
+        unchanged += chunk.unchanged;
+        skippedNoLink += chunk.skippedNoLink;
+        skippedParse += chunk.skippedParse;
+        for (String name : chunk.notLinked) {
+            if (notLinked.size() >= 10) break;
+            notLinked.add(name);
+        }
+    }
+
+    public List<LoyaltyUpdate> getUpdates() { return updates; }
+    public int getTotalRows() { return totalRows; }
+    public int getUpdated() { return updates.size(); }
+    public int getSkippedNoLink() { return skippedNoLink; }
+    public int getSkippedParse() { return skippedParse; }
+    public int getUnchanged() { return unchanged; }
+    public int getTierChanges() { return tierChanges; }
+    public boolean isFileUnchanged() { return fileUnchanged; }
+    public long getElapsedMs() { return elapsedMs; }
+    public boolean isFailed() { return error != null; }
+
+    public long getRowsPerSecond() {
+        return elapsedMs <= 0 ? totalRows : totalRows * 1000L / elapsedMs;
+    }
+
+    public String toSummary() {
+        if (error != null) return error;
+        if (fileUnchanged) return (dryRun ? "[DRY-RUN] " : "") + "CSV unchanged since last sync; nothing to do.";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(dryRun ? "[DRY-RUN] " : "")
+                .append("Sync complete. Updated=").append(updates.size())
+                .append(incremental ? ", Unchanged=" + unchanged : "")
+                .append(", Skipped (not linked)=").append(skippedNoLink)
+                .append(staged.isEmpty() ? "" : " (" + staged.size() + " staged for when they link)")
+                .append(", Skipped (parse errors)=").append(skippedParse)
+                .append(dryRun ? "" : ", Tier changes=" + tierChanges)
+                .append(", Total rows=").append(totalRows)
+                .append(" in ").append(elapsedMs).append("ms (").append(getRowsPerSecond()).append(" rows/s)");
+
+        if (!notLinked.isEmpty()) {
+            sb.append(". Not linked (first 10): ").append(String.join(", ", notLinked));
+        }
+        if (dryRun && !updates.isEmpty()) {
+            List<String> examples = new ArrayList<>();
+            for (LoyaltyUpdate u : updates.subList(0, Math.min(10, updates.size()))) {
+                examples.add(u.login() + " -> points=" + u.points() + (u.hasMinutes() ? (", minutes=" + u.minutes()) : ""));
+            }
+            sb.append(". Examples: ").append(String.join("; ", examples));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.taffy.streamlink.loyalty;
+
+import com.taffy.streamlink.storage.IndexEntry;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Read-only login -> UUID snapshot taken at the start of an import.
+ * Lookups hash and compare directly against a tokenizer buffer range, so
+ * rows for viewers who never linked cost no String allocation at all.
+ */
+final class LoginTable {
+    private final char[][] logins;
+    private final UUID[] players;
+    private final int mask;
+
+    private LoginTable(int capacity) {
+        logins = new char[capacity][];
+        players = new UUID[capacity];
+        mask = capacity - 1;
+    }
+
+    static LoginTable of(Collection<IndexEntry> entries) {
+        int capacity = Integer.highestOneBit(Math.max(16, entries.size() * 2 - 1)) << 1;
+        LoginTable table = new LoginTable(capacity);
+        for (IndexEntry entry : entries) {
+            String login = entry.twitchUsername();
+            if (login == null || login.isBlank()) continue;
+            table.put(login.trim().toLowerCase(Locale.ROOT).toCharArray(), entry.playerId());
+        }
+        return table;
+    }
+
+    /** @return the linked player for {@code buf[start, end)} compared case-insensitively, or null */
+    UUID find(char[] buf, int start, int end) {
+        int slot = hash(buf, start, end) & mask;
+        while (true) {
+            char[] candidate = logins[slot];
+            if (candidate == null) return null;
+            if (matches(candidate, buf, start, end)) return players[slot];
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void put(char[] login, UUID playerId) {
+        int slot = hash(login, 0, login.length) & mask;
+        while (logins[slot] != null && !matches(logins[slot], login, 0, login.length)) {
+            slot = (slot + 1) & mask;
+        }
+        logins[slot] = login;
+        players[slot] = playerId;
+    }
+
+    private static boolean matches(char[] lower, char[] buf, int start, int end) {
+        if (lower.length != end - start) return false;
+        for (int i = 0; i < lower.length; i++) {
+            if (lower[i] != Character.toLowerCase(buf[start + i])) return false;
+        }
+        return true;
+    }
+
+    private static int hash(char[] buf, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) h = 31 * h + Character.toLowerCase(buf[i]);
+        return h ^ (h >>> 16);
+    }
+}
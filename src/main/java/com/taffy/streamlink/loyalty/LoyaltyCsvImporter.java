@@ -0,0 +1,270 @@
+package com.taffy.streamlink.loyalty;
+
+import com.taffy.streamlink.managers.LogManager;
+import com.taffy.streamlink.managers.PlayerDataManager;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Streaming loyalty CSV import.
+ *
+ * One reader thread cuts the file into blocks that end on a record boundary
+ * (a newline outside quotes), a fork-join pool tokenizes and resolves blocks in
+ * parallel, and results are merged in file order so a later row for the same
+ * viewer still wins. The resolved rows are applied to player data in a single
+ * batch at the end; a dry run stops before that stage.
+ *
+ * Incremental runs consult {@link CsvSyncState}: an unchanged file is skipped
+ * without parsing, and rows whose points/minutes match what was last applied
+ * are counted as unchanged instead of being applied again.
+ */
+public class LoyaltyCsvImporter {
+    private static final int BLOCK_CHARS = 1 << 20;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final PlayerDataManager dataManager;
+    private final LogManager log;
+    private final int parallelism;
+
+    public LoyaltyCsvImporter(PlayerDataManager dataManager, LogManager log, int parallelism) {
+        this.dataManager = dataManager;
+        this.log = log;
+        this.parallelism = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    /**
+     * @param state       sync state; always updated after a real run, consulted only when {@code incremental}
+     * @param progress    receives a short status line every few seconds; may be null
+     */
+    public ImportResult run(File csvFile, boolean dryRun, boolean incremental, List<String> watchHeaders,
+                            CsvSyncState state, Consumer<String> progress) {
+        if (!csvFile.exists()) {
+            return ImportResult.failed("CSV not found: " + csvFile.getAbsolutePath());
+        }
+
+        long start = System.nanoTime();
+        long lastReport = start;
+        long fileSize = csvFile.length();
+        long fileModified = csvFile.lastModified();
+        ImportResult result = new ImportResult();
+        result.dryRun = dryRun;
+        result.incremental = incremental;
+
+        try {
+            if (incremental && state.isUnchanged(csvFile)) {
+                return ImportResult.unchangedFile(dryRun);
+            }
+        } catch (IOException e) {
+            log.warn("Could not check CSV for changes, importing anyway: " + e.getMessage());
+        }
+        CsvSyncState rowState = incremental ? state : null;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (DigestInputStream raw = CsvSyncState.digestStream(new FileInputStream(csvFile));
+             Reader in = new InputStreamReader(raw, StandardCharsets.UTF_8)) {
+            Deque<ForkJoinTask<ImportResult>> inFlight = new ArrayDeque<>();
+            LoginTable logins = LoginTable.of(dataManager.getIndexEntries());
+            char[] window = new char[BLOCK_CHARS * 2];
+            int filled = 0;
+            Columns columns = null;
+            long charsRead = 0;
+
+            while (true) {
+                if (filled == window.length) {
+                    window = Arrays.copyOf(window, window.length * 2);   // one record longer than a block
+                }
+                int n = in.read(window, filled, window.length - filled);
+                boolean eof = n < 0;
+                if (!eof) {
+                    filled += n;
+                    charsRead += n;
+                }
+
+                int boundary = eof ? filled
+                        : filled >= BLOCK_CHARS ? CsvTokenizer.lastRecordBoundary(window, 0, filled) : 0;
+                if (boundary > 0) {
+                    int from = 0;
+                    if (columns == null) {
+                        CsvTokenizer header = new CsvTokenizer().reset(window, 0, boundary);
+                        header.nextRecord();
+                        columns = Columns.parse(header, watchHeaders);
+                        if (columns == null) {
+                            return ImportResult.failed("CSV must contain at least 'username' and 'points' columns.");
+                        }
+                        from = CsvTokenizer.firstRecordEnd(window, 0, boundary);
+                    }
+
+                    final char[] block = Arrays.copyOfRange(window, from, boundary);
+                    System.arraycopy(window, boundary, window, 0, filled - boundary);
+                    filled -= boundary;
+
+                    final Columns cols = columns;
+                    inFlight.add(pool.submit(() -> parseBlock(block, cols, logins, rowState, dryRun)));
+                    // bound read-ahead so a huge file never sits in memory all at once
+                    while (inFlight.size() > parallelism * 2) {
+                        result.merge(inFlight.poll().join());
+                    }
+                }
+
+                long now = System.nanoTime();
+                if (progress != null && now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                    lastReport = now;
+                    progress.accept(progressLine(charsRead, fileSize, result.totalRows, now - start));
+                }
+                if (eof) break;
+            }
+
+            if (columns == null) return ImportResult.failed("Empty CSV.");
+            while (!inFlight.isEmpty()) {
+                result.merge(inFlight.poll().join());
+            }
+
+            if (!dryRun) {
+                dataManager.applyTwitchRenames(result.renames);
+                List<PointsChange> changes = dataManager.applyLoyaltyUpdates(result.updates);
+                result.applied = changes.size();
+                result.tierChanges = dataManager.reapplyLoyaltyTiers(changes);
+                dataManager.stagePendingLoyalty(result.staged);
+                state.commit(csvFile, fileSize, fileModified, raw.getMessageDigest().digest(), result.rowHashes);
+            }
+        } catch (Exception e) {
+            log.warn("CSV import failed: " + e.getMessage(), e);
+            return ImportResult.failed("Import failed: " + e.getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        result.elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.debug("CSV import parsed " + result.totalRows + " rows in " + result.elapsedMs + "ms ("
+                + result.getRowsPerSecond() + " rows/s, " + parallelism + " threads)");
+        return result;
+    }
+
+    private ImportResult parseBlock(char[] block, Columns columns, LoginTable logins, CsvSyncState rowState, boolean dryRun) {
+        ImportResult r = new ImportResult();
+        CsvTokenizer tok = new CsvTokenizer().reset(block, 0, block.length);
+        while (tok.nextRecord()) {
+            if (tok.isBlankRecord()) continue;
+            r.totalRows++;
+            parseRow(tok, columns, logins, rowState, dryRun, r);
+        }
+        return r;
+    }
+
+    private void parseRow(CsvTokenizer tok, Columns columns, LoginTable logins, CsvSyncState rowState,
+                          boolean dryRun, ImportResult r) {
+        if (tok.fieldCount() <= columns.maxRequired) {
+            r.skippedParse++;
+            return;
+        }
+        if (tok.isBlank(columns.user)) { r.skippedParse++; return; }
+
+        long points = tok.parseLong(columns.points);
+        if (points == CsvTokenizer.INVALID || points < Integer.MIN_VALUE || points > Integer.MAX_VALUE) {
+            r.skippedParse++;
+            return;
+        }
+
+        long minutes = columns.minutes >= 0 ? tok.parseLong(columns.minutes) : CsvTokenizer.INVALID;
+        if (minutes == CsvTokenizer.INVALID) minutes = -1L;
+
+        // the immutable Twitch id wins when present; renames are only noted here and applied with the updates
+        UUID playerId = null;
+        if (columns.twitchId >= 0 && columns.twitchId < tok.fieldCount() && !tok.isBlank(columns.twitchId)) {
+            String twitchId = tok.field(columns.twitchId);
+            playerId = dataManager.findPlayerByTwitchId(twitchId);
+            if (playerId != null) {
+                String newLogin = dataManager.renamedLogin(playerId, tok.field(columns.user));
+                if (newLogin != null) r.renames.add(new TwitchRename(playerId, twitchId, newLogin));
+            }
+        }
+        if (playerId == null) {
+            playerId = logins.find(tok.buffer(), tok.trimmedStart(columns.user), tok.trimmedEnd(columns.user));
+        }
+
+        if (playerId == null) {
+            r.skippedNoLink++;
+            String login = tok.field(columns.user).toLowerCase(Locale.ROOT);
+            if (r.notLinked.size() < 10) r.notLinked.add(login);
+            // staged so the viewer is credited the moment they link
+            if (!dryRun) r.staged.add(new LoyaltyUpdate(null, login, (int) points, minutes));
+            return;
+        }
+        String login = tok.field(columns.user).toLowerCase(Locale.ROOT);
+        long rowHash = CsvSyncState.rowHash((int) points, minutes);
+        r.rowHashes.put(login, rowHash);
+        if (rowState != null && rowState.isRowUnchanged(login, rowHash)) {
+            r.unchanged++;
+            return;
+        }
+        r.updates.add(new LoyaltyUpdate(playerId, login, (int) points, minutes));
+    }
+
+    private static String progressLine(long charsRead, long fileSize, int rowsMerged, long elapsedNanos) {
+        long pct = fileSize > 0 ? Math.min(99, charsRead * 100 / fileSize) : 0;
+        long secs = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(elapsedNanos));
+        return "Sync " + pct + "% - " + (charsRead / (1024 * 1024)) + " MB read, "
+                + rowsMerged + " rows parsed (" + (rowsMerged / secs) + " rows/s)";
+    }
+
+    /** Column positions resolved once from the header row. */
+    static final class Columns {
+        final int user;
+        final int points;
+        final int minutes;
+        final int twitchId;
+        final int maxRequired;
+
+        private Columns(int user, int points, int minutes, int twitchId) {
+            this.user = user;
+            this.points = points;
+            this.minutes = minutes;
+            this.twitchId = twitchId;
+            this.maxRequired = Math.max(user, Math.max(points, Math.max(minutes, 0)));
+        }
+
+        static Columns parse(CsvTokenizer header, List<String> watchHeaders) {
+            String[] headerCols = new String[header.fieldCount()];
+            for (int i = 0; i < headerCols.length; i++) headerCols[i] = header.field(i);
+
+            int idxUser = indexOf(headerCols, "username");
+            if (idxUser < 0) idxUser = indexOf(headerCols, "name");
+
+            int idxPoints = indexOf(headerCols, "points");
+
+            int idxMinutes = -1;
+            for (String h : watchHeaders) {
+                idxMinutes = indexOf(headerCols, h);
+                if (idxMinutes >= 0) break;
+            }
+
+            int idxTwitchId = -1;
+            for (String h : List.of("id", "twitch_id", "twitchid", "user_id", "userid")) {
+                idxTwitchId = indexOf(headerCols, h);
+                if (idxTwitchId >= 0) break;
+            }
+
+            if (idxUser < 0 || idxPoints < 0) return null;
+            return new Columns(idxUser, idxPoints, idxMinutes, idxTwitchId);
+        }
+    }
+
+    private static int indexOf(String[] headers, String name) {
+        for (int i = 0; i < headers.length; i++) {
+            if (headers[i] != null && headers[i].trim().equalsIgnoreCase(name)) return i;
+        }
+        return -1;
+    }
+}
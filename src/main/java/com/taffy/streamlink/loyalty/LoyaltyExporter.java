@@ -0,0 +1,229 @@
+package com.taffy.streamlink.loyalty;
+
+import com.taffy.streamlink.managers.LogManager;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes loyalty exports on a dedicated background thread.
+ *
+ * The caller supplies a {@link RowSource} that makes one pass over the players
+ * and hands each row over as it goes; rows are written straight to disk
+ * (optionally gzipped) without collecting them first. It is up to the source to
+ * keep that pass consistent, e.g. by holding the lock its writers take. Output
+ * goes to a temp file that is renamed into place when complete, so a dashboard
+ * polling the file never sees a partial export.
+ *
+ * Formats: csv (Username,Points,Minutes,LinkedAt), ndjson (one object per line)
+ * and bin: "SLX1", version, createdAt, then per row a 1 byte followed by uuid,
+ * login, points, minutes, linkedAt, live; a 0 byte and the row count end the file.
+ */
+public class LoyaltyExporter {
+    private static final int BIN_MAGIC = 0x534C5831; // "SLX1"
+    // 2: row count moved from the header to a trailer so rows can be written as they are read
+    private static final int BIN_VERSION = 2;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final LogManager log;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "StreamLink-Export");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** One pass over the rows to export; runs on the export thread while the file is written. */
+    @FunctionalInterface
+    public interface RowSource {
+        void forEach(Consumer<ExportRow> sink);
+    }
+
+    public LoyaltyExporter(LogManager log) {
+        this.log = log;
+    }
+
+    /**
+     * Queue an export. The source runs on the export thread and feeds the file directly.
+     * @return completes with a one-line summary (also on failure)
+     */
+    public CompletableFuture<String> submit(File outFile, ExportOptions options,
+                                            RowSource source, Consumer<String> progress) {
+        return CompletableFuture.supplyAsync(() -> export(outFile, options, source, progress), executor)
+                .exceptionally(e -> {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    log.warn("Export failed: " + cause.getMessage());
+                    return "Export failed: " + cause.getMessage();
+                });
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) executor.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    private String export(File outFile, ExportOptions options, RowSource source, Consumer<String> progress) {
+        long start = System.nanoTime();
+        File parent = outFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+        File tmp = new File(parent, outFile.getName() + ".tmp");
+
+        int written;
+        try {
+            try (OutputStream out = open(tmp, options.isGzip());
+                 RowWriter writer = rowWriter(options.getFormat(), out)) {
+                long[] lastReport = {start};
+                source.forEach(row -> {
+                    try {
+                        writer.write(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    int n = writer.count();
+                    if (progress != null && (n & 1023) == 0) {
+                        long now = System.nanoTime();
+                        if (now - lastReport[0] >= PROGRESS_INTERVAL_NANOS) {
+                            lastReport[0] = now;
+                            progress.accept("Export - " + n + " rows written");
+                        }
+                    }
+                });
+                written = writer.count();
+            }
+            moveIntoPlace(tmp, outFile);
+        } catch (IOException | UncheckedIOException e) {
+            tmp.delete();
+            log.warn("Export failed: " + e.getMessage(), e);
+            return "Export failed: " + e.getMessage();
+        } catch (RuntimeException e) {
+            tmp.delete();
+            throw e;
+        }
+
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return "Exported " + written + " rows (" + options.getFormat().getExtension()
+                + (options.isGzip() ? ", gzip" : "") + ", " + (outFile.length() / 1024) + " KB) to "
+                + outFile.getAbsolutePath() + " in " + ms + "ms";
+    }
+
+    private static OutputStream open(File file, boolean gzip) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        // buffer in front of the deflater too, so small writes (bin's writeInt/writeLong) are not deflated one by one
+        return new BufferedOutputStream(gzip ? new GZIPOutputStream(out, 64 * 1024) : out, 64 * 1024);
+    }
+
+    private static void moveIntoPlace(File tmp, File target) throws IOException {
+        try {
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /* ------------------------------ formats ------------------------------ */
+
+    private abstract static class RowWriter implements Closeable {
+        private int count;
+
+        final void write(ExportRow row) throws IOException {
+            writeRow(row);
+            count++;
+        }
+
+        final int count() {
+            return count;
+        }
+
+        abstract void writeRow(ExportRow row) throws IOException;
+    }
+
+    private static RowWriter rowWriter(ExportOptions.Format format, OutputStream out) throws IOException {
+        return switch (format) {
+            case CSV -> {
+                Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                w.write("Username,Points,Minutes,LinkedAt\n");
+                yield new RowWriter() {
+                    void writeRow(ExportRow row) throws IOException {
+                        w.write(escapeCsv(row.login()) + "," + row.points() + "," + row.minutes() + "," + row.linkedAt() + "\n");
+                    }
+                    public void close() throws IOException { w.flush(); }
+                };
+            }
+            case NDJSON -> {
+                Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                yield new RowWriter() {
+                    void writeRow(ExportRow row) throws IOException {
+                        w.write("{\"uuid\":\"" + row.playerId() + "\",\"login\":\"" + escapeJson(row.login())
+                                + "\",\"points\":" + row.points() + ",\"minutes\":" + row.minutes()
+                                + ",\"linkedAt\":" + row.linkedAt() + ",\"live\":" + row.live() + "}\n");
+                    }
+                    public void close() throws IOException { w.flush(); }
+                };
+            }
+            case BINARY -> {
+                DataOutputStream d = new DataOutputStream(out);
+                d.writeInt(BIN_MAGIC);
+                d.writeInt(BIN_VERSION);
+                d.writeLong(System.currentTimeMillis());
+                yield new RowWriter() {
+                    void writeRow(ExportRow row) throws IOException {
+                        d.writeByte(1);
+                        d.writeLong(row.playerId().getMostSignificantBits());
+                        d.writeLong(row.playerId().getLeastSignificantBits());
+                        d.writeUTF(row.login());
+                        d.writeInt(row.points());
+                        d.writeLong(row.minutes());
+                        d.writeLong(row.linkedAt());
+                        d.writeBoolean(row.live());
+                    }
+                    public void close() throws IOException {
+                        d.writeByte(0);
+                        d.writeInt(count());
+                        d.flush();
+                    }
+                };
+            }
+        };
+    }
+
+    private static String escapeCsv(String s) {
+        if (s == null) return "";
+        if (s.contains(",") || s.contains("\"") || s.contains("\n")) {
+            return "\"" + s.replace("\"","\"\"") + "\"";
+        }
+        return s;
+    }
+
+    private static String escapeJson(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,14 @@
+package com.taffy.streamlink.loyalty;
+
+import java.util.UUID;
+
+/**
+ * One CSV row waiting to be applied ({@code playerId} is null for a viewer who has not linked).
+ * {@code minutes} is -1 when the CSV has no watch-time column.
+ */
+public record LoyaltyUpdate(UUID playerId, String login, int points, long minutes) {
+
+    public boolean hasMinutes() {
+        return minutes >= 0;
+    }
+}
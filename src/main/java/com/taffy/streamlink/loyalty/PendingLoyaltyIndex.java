@@ -0,0 +1,158 @@
+package com.taffy.streamlink.loyalty;
+
+import com.taffy.streamlink.managers.LogManager;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Loyalty values from the last CSV import for viewers who had not linked yet,
+ * keyed by lower-cased login. Lets {@code linkPlayer} credit a new link straight
+ * away instead of waiting for the next full import.
+ *
+ * Stored as parallel arrays in an open-addressing table (no per-entry objects)
+ * and persisted to pending-loyalty.dat. Each import replaces the whole table.
+ */
+public class PendingLoyaltyIndex {
+    private static final int MAGIC = 0x534C504C; // "SLPL"
+    private static final int VERSION = 1;
+    private static final String REMOVED = new String("<removed>");
+
+    /** Values staged for one login. */
+    public record Staged(int points, long minutes, long importedAt) {
+        public boolean hasMinutes() {
+            return minutes >= 0;
+        }
+    }
+
+    private final File file;
+    private final LogManager log;
+
+    // guarded by this
+    private String[] keys = new String[16];
+    private int[] points = new int[16];
+    private long[] minutes = new long[16];
+    private long[] importedAt = new long[16];
+    private int size;
+    private boolean dirty;
+
+    public PendingLoyaltyIndex(File file, LogManager log) {
+        this.file = file;
+        this.log = log;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Remove and return the staged values for {@code login}, or null if none.
+     * The removal is in memory only; follow with {@link #saveIfDirty} once the credit is stored.
+     */
+    public synchronized Staged take(String login) {
+        if (login == null || size == 0) return null;
+        int slot = find(login.toLowerCase(Locale.ROOT));
+        if (slot < 0) return null;
+
+        Staged staged = new Staged(points[slot], minutes[slot], importedAt[slot]);
+        keys[slot] = REMOVED;
+        size--;
+        dirty = true;
+        return staged;
+    }
+
+    /** Replace everything with the unlinked rows of the latest import. Later rows for a login win. */
+    public synchronized void replace(Collection<LoyaltyUpdate> rows, long timestamp) {
+        allocate(rows.size());
+        for (LoyaltyUpdate row : rows) put(row.login(), row.points(), row.minutes(), timestamp);
+        save();
+    }
+
+    public synchronized void load() {
+        allocate(0);
+        if (!file.exists()) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("Ignoring unrecognised " + file.getName());
+                return;
+            }
+            int count = in.readInt();
+            allocate(count);
+            for (int i = 0; i < count; i++) {
+                put(in.readUTF(), in.readInt(), in.readLong(), in.readLong());
+            }
+            log.debug("Loaded " + size + " pending loyalty entries for unlinked viewers");
+        } catch (IOException e) {
+            log.warn("Could not read " + file.getName() + ": " + e.getMessage());
+            allocate(0);
+        }
+    }
+
+    public synchronized void saveIfDirty() {
+        if (dirty) save();
+    }
+
+    private void save() {
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(size);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == null || keys[i] == REMOVED) continue;
+                out.writeUTF(keys[i]);
+                out.writeInt(points[i]);
+                out.writeLong(minutes[i]);
+                out.writeLong(importedAt[i]);
+            }
+        } catch (IOException e) {
+            log.warn("Could not write " + file.getName() + ": " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Could not replace " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private void allocate(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new String[capacity];
+        points = new int[capacity];
+        minutes = new long[capacity];
+        importedAt = new long[capacity];
+        size = 0;
+    }
+
+    // tables are sized for the rows they are built from, so put never needs to grow
+    private void put(String login, int pts, long mins, long at) {
+        int mask = keys.length - 1;
+        int slot = spread(login.hashCode()) & mask;
+        while (keys[slot] != null && !login.equals(keys[slot])) slot = (slot + 1) & mask;
+        if (keys[slot] == null) size++;
+        keys[slot] = login;
+        points[slot] = pts;
+        minutes[slot] = mins;
+        importedAt[slot] = at;
+    }
+
+    private int find(String login) {
+        int mask = keys.length - 1;
+        int slot = spread(login.hashCode()) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot] != REMOVED && login.equals(keys[slot])) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,7 @@
+package com.taffy.streamlink.loyalty;
+
+import java.util.UUID;
+
+/** A loyalty-points change actually written by an import; input to bulk tier reapplication. */
+public record PointsChange(UUID playerId, int oldPoints, int newPoints) {
+}
@@ -0,0 +1,232 @@
+package com.taffy.streamlink.loyalty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides when each registered viewer's loyalty is next fetched.
+ *
+ * Online viewers are polled every {@code baseMs}; offline ones every {@code offlineMs}
+ * (0 = never). While the channel is offline, a viewer whose points came back unchanged
+ * {@code backoffAfter} times in a row has their interval doubled per further unchanged
+ * poll, up to {@code maxMs}. Going live resets every backoff. Each next poll time is
+ * jittered by ±{@code jitter} of the interval so viewers spread out instead of firing
+ * together.
+ *
+ * While pushed events are arriving, {@link #setMinInterval} stretches every interval to
+ * a slow reconciliation rate and {@link #nudge} pulls single viewers forward instead.
+ */
+public class PollScheduler {
+
+    /** A viewer handed out by {@link #due}; report back with {@link #record} or {@link #retry}. */
+    public record Due(UUID playerId, String login) {
+    }
+
+    private static final class Entry {
+        final String login;
+        boolean online;
+        long nextDueAt;
+        int unchanged;
+        int lastPoints = Integer.MIN_VALUE;
+
+        Entry(String login, boolean online) {
+            this.login = login;
+            this.online = online;
+        }
+    }
+
+    private final long baseMs;
+    private final long offlineMs;
+    private final int backoffAfter;
+    private final long maxMs;
+    private final double jitter;
+
+    // each entry is guarded by its own monitor
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean channelLive;
+    private volatile long minIntervalMs;
+
+    public PollScheduler(long baseMs, long offlineMs, int backoffAfter, long maxMs, double jitter) {
+        this.baseMs = Math.max(1000L, baseMs);
+        this.offlineMs = Math.max(0L, offlineMs);
+        this.backoffAfter = Math.max(1, backoffAfter);
+        this.maxMs = Math.max(this.baseMs, maxMs);
+        this.jitter = Math.min(0.5, Math.max(0.0, jitter));
+    }
+
+    /** Start (or resume) polling a viewer; the first poll lands somewhere within one interval. */
+    public void register(UUID playerId, String login, boolean online, long now) {
+        Entry entry = new Entry(login, online);
+        Entry previous = entries.putIfAbsent(playerId, entry);
+        if (previous != null) {
+            synchronized (previous) {
+                if (previous.login.equals(login)) {
+                    setOnline(previous, online, now);
+                    return;
+                }
+            }
+            entries.put(playerId, entry);
+        }
+        synchronized (entry) {
+            long interval = interval(entry);
+            entry.nextDueAt = (interval == 0) ? Long.MAX_VALUE : now + spread(interval);
+        }
+    }
+
+    /** Joined or quit: switch between the online and offline rate, starting a fresh backoff. */
+    public void setOnline(UUID playerId, boolean online, long now) {
+        Entry entry = entries.get(playerId);
+        if (entry == null) return;
+        synchronized (entry) {
+            setOnline(entry, online, now);
+        }
+    }
+
+    /**
+     * Poll nobody more often than {@code ms} (0 = no floor). Lowering the floor pulls
+     * viewers that were pushed far out back to within one normal interval.
+     */
+    public void setMinInterval(long ms, long now) {
+        long previous = minIntervalMs;
+        minIntervalMs = Math.max(0L, ms);
+        if (minIntervalMs >= previous) return;
+        for (Entry entry : entries.values()) {
+            synchronized (entry) {
+                long interval = interval(entry);
+                if (interval > 0 && entry.nextDueAt > now + interval) entry.nextDueAt = now + spread(interval);
+            }
+        }
+    }
+
+    /** Something changed for this viewer; poll them at {@code at} at the latest, even if offline. */
+    public void nudge(UUID playerId, long at) {
+        Entry entry = entries.get(playerId);
+        if (entry == null) return;
+        synchronized (entry) {
+            entry.unchanged = 0;
+            entry.nextDueAt = Math.min(entry.nextDueAt, at);
+        }
+    }
+
+    public void remove(UUID playerId) {
+        entries.remove(playerId);
+    }
+
+    /**
+     * Viewers whose poll time has passed. They are pushed one interval out so a
+     * slow fetch is not handed out again; {@link #record} sets the real next time.
+     * The first call after the channel goes live resets every backoff.
+     */
+    public List<Due> due(long now, boolean live) {
+        if (live && !channelLive) {
+            for (Entry entry : entries.values()) {
+                synchronized (entry) {
+                    entry.unchanged = 0;
+                    long interval = interval(entry);
+                    if (interval > 0) entry.nextDueAt = Math.min(entry.nextDueAt, now + spread(interval));
+                }
+            }
+        }
+        channelLive = live;
+
+        List<Due> out = new ArrayList<>();
+        for (Map.Entry<UUID, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            synchronized (entry) {
+                if (entry.nextDueAt > now) continue;
+                entry.nextDueAt = now + Math.max(baseMs, interval(entry));
+                out.add(new Due(e.getKey(), entry.login));
+            }
+        }
+        return out;
+    }
+
+    /** A poll came back with these points; schedules the next one. */
+    public void record(UUID playerId, int points, long now) {
+        Entry entry = entries.get(playerId);
+        if (entry == null) return;
+        synchronized (entry) {
+            if (entry.lastPoints == points) entry.unchanged++;
+            else entry.unchanged = 0;
+            entry.lastPoints = points;
+            entry.nextDueAt = next(entry, now);
+        }
+    }
+
+    /** A poll failed or the viewer was missing from a bulk page; try again after the normal interval. */
+    public void retry(UUID playerId, long now) {
+        Entry entry = entries.get(playerId);
+        if (entry == null) return;
+        synchronized (entry) {
+            entry.nextDueAt = next(entry, now);
+        }
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /** Login → player for every registered viewer, e.g. to match rows of a bulk page. */
+    public Map<String, UUID> viewers() {
+        Map<String, UUID> out = new HashMap<>();
+        entries.forEach((id, entry) -> out.put(entry.login, id));
+        return out;
+    }
+
+    public String describe() {
+        int online = 0, backedOff = 0;
+        for (Entry entry : entries.values()) {
+            synchronized (entry) {
+                if (entry.online) online++;
+                if (!channelLive && entry.unchanged >= backoffAfter) backedOff++;
+            }
+        }
+        return entries.size() + " viewers (" + online + " online, " + backedOff + " backed off, channel "
+                + (channelLive ? "live" : "offline") + ")";
+    }
+
+    private void setOnline(Entry entry, boolean online, long now) {
+        if (entry.online == online) return;
+        entry.online = online;
+        entry.unchanged = 0;
+        long interval = interval(entry);
+        entry.nextDueAt = (interval == 0) ? Long.MAX_VALUE : now + spread(interval);
+    }
+
+    private long next(Entry entry, long now) {
+        long interval = interval(entry);
+        return (interval == 0) ? Long.MAX_VALUE : now + jittered(interval);
+    }
+
+    private long baseInterval(Entry entry) {
+        return entry.online ? baseMs : offlineMs;
+    }
+
+    // base interval doubled for every unchanged poll past the threshold, unless the channel is live;
+    // never below the reconciliation floor
+    private long interval(Entry entry) {
+        long interval = baseInterval(entry);
+        if (interval == 0) return 0;
+        if (!channelLive && entry.unchanged >= backoffAfter) {
+            int doublings = Math.min(30, entry.unchanged - backoffAfter + 1);
+            interval = Math.min(Math.max(maxMs, interval), interval << doublings);
+        }
+        return Math.max(interval, minIntervalMs);
+    }
+
+    private long jittered(long interval) {
+        if (jitter == 0) return interval;
+        double factor = 1.0 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return (long) (interval * factor);
+    }
+
+    // first poll after (re)registering: anywhere in the interval, so a restart doesn't poll everyone at once
+    private static long spread(long interval) {
+        return ThreadLocalRandom.current().nextLong(interval);
+    }
+}
@@ -0,0 +1,7 @@
+package com.taffy.streamlink.loyalty;
+
+import java.util.UUID;
+
+/** A linked viewer whose Twitch login in the CSV no longer matches the stored one. */
+public record TwitchRename(UUID playerId, String twitchId, String newLogin) {
+}
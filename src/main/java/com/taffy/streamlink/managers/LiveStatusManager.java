@@ -1,6 +1,7 @@
 package com.taffy.streamlink.managers;
 
-import com.google.gson.JsonObject;
+import com.taffy.streamlink.api.StreamInfo;
+import com.taffy.streamlink.exceptions.CircuitOpenException;
 import com.taffy.streamlink.streamlink;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -38,57 +39,91 @@ public class LiveStatusManager extends ManagerBase {
     }
 
     private void checkAllLiveStatuses() {
+        if (!plugin.getTwitchAPI().isStreamLookupAvailable()) {
+            log.debug("Twitch streams endpoint is failing; skipping this live check");
+            return;
+        }
         Set<UUID> linkedPlayers = plugin.getDataManager().getAllLinkedPlayers();
-        log.debug("Checking live status for " + linkedPlayers.size() + " linked players");
 
+        // one Twitch account may be linked to more than one online player
+        Map<String, List<Player>> byTwitchId = new LinkedHashMap<>();
         for (UUID playerId : linkedPlayers) {
             Player player = Bukkit.getPlayer(playerId);
-            if (player != null && player.isOnline()) {
-                checkPlayerLiveStatus(player);
+            if (player == null || !player.isOnline()) continue;
+            String twitchId = plugin.getDataManager().getTwitchId(playerId);
+            if (twitchId == null) {
+                log.debug("Skipping live check for " + player.getName() + " - missing Twitch id");
+                continue;
+            }
+            byTwitchId.computeIfAbsent(twitchId, id -> new ArrayList<>()).add(player);
+        }
+        if (byTwitchId.isEmpty()) return;
+        log.debug("Checking live status for " + byTwitchId.size() + " streamers in one batched sweep");
+
+        Map<String, StreamInfo> live = fetchLiveStreams(byTwitchId);
+        if (live == null) return;
+        for (Map.Entry<String, List<Player>> entry : byTwitchId.entrySet()) {
+            for (Player player : entry.getValue()) {
+                applyLiveStatus(player, live.get(entry.getKey()));
             }
         }
     }
 
+    /**
+     * One batched /streams lookup for every streamer, made with the app token so an expired
+     * or revoked player token cannot hide anyone's stream.
+     * @return live streams by Twitch id, or null if the lookup failed
+     */
+    private Map<String, StreamInfo> fetchLiveStreams(Map<String, List<Player>> byTwitchId) {
+        try {
+            return plugin.getTwitchAPI().getStreams(byTwitchId.keySet());
+        } catch (CircuitOpenException e) {
+            log.debug("Skipping live check: " + e.getMessage());
+        } catch (Exception e) {
+            log.warn("Failed to check live status for " + byTwitchId.size() + " streamers: " + e.getMessage());
+        }
+        return null;
+    }
+
     public void checkPlayerLiveStatus(Player player) {
-        UUID playerId = player.getUniqueId();
-        String accessToken = plugin.getDataManager().getAccessToken(playerId);
-        String twitchId = plugin.getDataManager().getTwitchId(playerId);
+        String twitchId = plugin.getDataManager().getTwitchId(player.getUniqueId());
 
-        if (accessToken == null || twitchId == null) {
-            log.debug("Skipping live check for " + player.getName() + " - missing tokens");
+        if (twitchId == null) {
+            log.debug("Skipping live check for " + player.getName() + " - missing Twitch id");
             return;
         }
 
         try {
-            boolean isLive = plugin.getTwitchAPI().isUserLive(accessToken, twitchId);
-            boolean wasLive = liveStatusCache.getOrDefault(playerId, false);
-
-            if (isLive && !wasLive) {
-                // Player just went live
-                onPlayerWentLive(player, accessToken, twitchId);
-            } else if (!isLive && wasLive) {
-                // Player just went offline
-                onPlayerWentOffline(player);
-            }
-
-            liveStatusCache.put(playerId, isLive);
-
+            applyLiveStatus(player, plugin.getTwitchAPI().getStreamInfo(twitchId));
+        } catch (CircuitOpenException e) {
+            log.debug("Skipping live check for " + player.getName() + ": " + e.getMessage());
         } catch (Exception e) {
             log.warn("Failed to check live status for " + player.getName() + ": " + e.getMessage());
+        }
+    }
 
-            // Try to refresh token if it's invalid
-            if (e.getMessage().contains("401") || e.getMessage().contains("Invalid")) {
-                tryRefreshToken(player);
-            }
+    /** @param stream the player's stream, or null if they are not live */
+    private void applyLiveStatus(Player player, StreamInfo stream) {
+        UUID playerId = player.getUniqueId();
+        boolean isLive = stream != null && stream.isLive();
+        boolean wasLive = liveStatusCache.getOrDefault(playerId, false);
+
+        if (isLive && !wasLive) {
+            // Player just went live
+            onPlayerWentLive(player, stream);
+        } else if (!isLive && wasLive) {
+            // Player just went offline
+            onPlayerWentOffline(player);
         }
+
+        liveStatusCache.put(playerId, isLive);
     }
 
-    private void onPlayerWentLive(Player player, String accessToken, String twitchId) {
+    private void onPlayerWentLive(Player player, StreamInfo streamInfo) {
         try {
-            JsonObject streamInfo = plugin.getTwitchAPI().getStreamInfo(accessToken, twitchId);
-            String streamTitle = streamInfo.get("title").getAsString();
-            String gameName = streamInfo.get("game_name").getAsString();
-            int viewerCount = streamInfo.get("viewer_count").getAsInt();
+            String streamTitle = streamInfo.title();
+            String gameName = streamInfo.gameName();
+            int viewerCount = streamInfo.viewerCount();
 
             // Apply live permissions
             plugin.getPermissionManager().applyLivePermissions(player);
@@ -103,7 +138,7 @@ public class LiveStatusManager extends ManagerBase {
             log.info(player.getName() + " is now live on Twitch with " + viewerCount + " viewers!");
 
         } catch (Exception e) {
-            log.warn("Failed to get stream info for " + player.getName(), e);
+            log.warn("Failed to announce stream for " + player.getName(), e);
         }
     }
 
@@ -154,19 +189,6 @@ public class LiveStatusManager extends ManagerBase {
         Bukkit.broadcastMessage(message);
     }
 
-    private void tryRefreshToken(Player player) {
-        try {
-            String refreshToken = plugin.getDataManager().getRefreshToken(player.getUniqueId());
-            if (refreshToken != null) {
-                String newAccessToken = plugin.getTwitchAPI().getAccessTokenFromRefresh(refreshToken);
-                plugin.getDataManager().updateAccessToken(player.getUniqueId(), newAccessToken);
-                log.info("Refreshed access token for " + player.getName());
-            }
-        } catch (Exception e) {
-            log.warn("Failed to refresh token for " + player.getName(), e);
-        }
-    }
-
     public boolean isPlayerLive(UUID playerId) {
         return liveStatusCache.getOrDefault(playerId, false);
     }
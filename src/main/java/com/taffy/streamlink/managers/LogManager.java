@@ -2,40 +2,45 @@ package com.taffy.streamlink.managers;
 
 import com.taffy.streamlink.streamlink;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class LogManager {
-    private final streamlink plugin;
+    private final Logger logger;
     private final boolean debugMode;
 
     public LogManager(streamlink plugin) {
-        this.plugin = plugin;
-        this.debugMode = plugin.getConfig().getBoolean("debug-mode", false);
+        this(plugin.getLogger(), plugin.getConfig().getBoolean("debug-mode", false));
+    }
+
+    public LogManager(Logger logger, boolean debugMode) {
+        this.logger = logger;
+        this.debugMode = debugMode;
     }
 
     public void debug(String message) {
         if (debugMode) {
-            plugin.getLogger().info("[DEBUG] " + message);
+            logger.info("[DEBUG] " + message);
         }
     }
 
     public void info(String message) {
-        plugin.getLogger().info(message);
+        logger.info(message);
     }
 
     public void warn(String message) {
-        plugin.getLogger().warning(message);
+        logger.warning(message);
     }
 
     public void warn(String message, Exception e) {
-        plugin.getLogger().log(Level.WARNING, message, e);
+        logger.log(Level.WARNING, message, e);
     }
 
     public void severe(String message) {
-        plugin.getLogger().severe(message);
+        logger.severe(message);
     }
 
     public void severe(String message, Exception e) {
-        plugin.getLogger().log(Level.SEVERE, message, e);
+        logger.log(Level.SEVERE, message, e);
     }
 
     public boolean isDebugMode() {
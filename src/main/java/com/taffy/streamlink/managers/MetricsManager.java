@@ -1,7 +1,9 @@
 package com.taffy.streamlink.managers;
 
 import com.taffy.streamlink.streamlink;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class MetricsManager {
     private final streamlink plugin;
@@ -9,6 +11,22 @@ public class MetricsManager {
     private final AtomicInteger failedLinks = new AtomicInteger(0);
     private final AtomicInteger liveStreamsDetected = new AtomicInteger(0);
 
+    // Player data write-behind
+    private final AtomicLong dataFlushes = new AtomicLong(0);
+    private final AtomicLong dataRecordsFlushed = new AtomicLong(0);
+    private final AtomicLong dataCoalescedWrites = new AtomicLong(0);
+    private final AtomicLong dataFlushNanosTotal = new AtomicLong(0);
+    private final AtomicLong dataFlushNanosMax = new AtomicLong(0);
+
+    // Streamlabs loyalty polling
+    private final AtomicLong pollCycles = new AtomicLong(0);
+    private final AtomicLong pollRequests = new AtomicLong(0);
+    private final AtomicLong pollChanges = new AtomicLong(0);
+    private final AtomicLong pollNanosTotal = new AtomicLong(0);
+    private final AtomicLong pollNanosMax = new AtomicLong(0);
+    private final AtomicInteger lastPollRequests = new AtomicInteger(0);
+    private final AtomicLong lastPollNanos = new AtomicLong(0);
+
     public MetricsManager(streamlink plugin) {
         this.plugin = plugin;
     }
@@ -25,21 +43,89 @@ public class MetricsManager {
         liveStreamsDetected.incrementAndGet();
     }
 
+    public void incrementCoalescedWrite() {
+        dataCoalescedWrites.incrementAndGet();
+    }
+
+    public void recordFlush(int records, long elapsedNanos) {
+        dataFlushes.incrementAndGet();
+        dataRecordsFlushed.addAndGet(records);
+        dataFlushNanosTotal.addAndGet(elapsedNanos);
+        dataFlushNanosMax.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    public void recordLoyaltyPoll(int requests, int changed, long elapsedNanos) {
+        pollCycles.incrementAndGet();
+        pollRequests.addAndGet(requests);
+        pollChanges.addAndGet(changed);
+        pollNanosTotal.addAndGet(elapsedNanos);
+        pollNanosMax.accumulateAndGet(elapsedNanos, Math::max);
+        lastPollRequests.set(requests);
+        lastPollNanos.set(elapsedNanos);
+    }
+
     public void reportMetrics() {
         plugin.getLogger().info("=== StreamLink Metrics ===");
         plugin.getLogger().info("Successful Links: " + successfulLinks.get());
         plugin.getLogger().info("Failed Links: " + failedLinks.get());
         plugin.getLogger().info("Live Streams Detected: " + liveStreamsDetected.get());
+        long flushes = dataFlushes.get();
+        long avgMs = flushes == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(dataFlushNanosTotal.get() / flushes);
+        plugin.getLogger().info("Data Flushes: " + flushes + " (" + dataRecordsFlushed.get() + " records, "
+                + dataCoalescedWrites.get() + " coalesced, avg " + avgMs + "ms, max "
+                + TimeUnit.NANOSECONDS.toMillis(dataFlushNanosMax.get()) + "ms)");
+        long cycles = pollCycles.get();
+        if (cycles > 0) {
+            plugin.getLogger().info("Loyalty Polls: " + cycles + " cycles (" + pollRequests.get() + " requests, "
+                    + pollChanges.get() + " changed, avg " + TimeUnit.NANOSECONDS.toMillis(pollNanosTotal.get() / cycles)
+                    + "ms, max " + TimeUnit.NANOSECONDS.toMillis(pollNanosMax.get()) + "ms, last "
+                    + lastPollRequests.get() + " requests in " + TimeUnit.NANOSECONDS.toMillis(lastPollNanos.get()) + "ms)");
+        }
+        if (plugin.getTwitchAPI() != null && plugin.getStreamLabsManager() != null) {
+            plugin.getLogger().info("Deduplicated Requests: Twitch " + plugin.getTwitchAPI().getSharedRequestCount()
+                    + ", Streamlabs " + plugin.getStreamLabsManager().getSharedRequestCount());
+        }
+        if (plugin.getStreamLabsManager() != null && plugin.getStreamLabsManager().getSocketStatus() != null) {
+            plugin.getLogger().info("Streamlabs Socket: " + plugin.getStreamLabsManager().getSocketStatus());
+        }
+        if (plugin.getRateGovernor() != null) {
+            plugin.getLogger().info("Rate Budget: " + plugin.getRateGovernor().describe());
+        }
+        if (plugin.getCircuitBreaker() != null) {
+            plugin.getLogger().info("Circuit Breakers: " + plugin.getCircuitBreaker().describe());
+        }
+        if (plugin.getDataManager() != null) {
+            plugin.getLogger().info("Player Cache: " + plugin.getDataManager().getCacheStats());
+        }
     }
 
     // Optional getters for external access
     public int getSuccessfulLinks() { return successfulLinks.get(); }
     public int getFailedLinks() { return failedLinks.get(); }
     public int getLiveStreamsDetected() { return liveStreamsDetected.get(); }
+    public long getDataFlushes() { return dataFlushes.get(); }
+    public long getDataCoalescedWrites() { return dataCoalescedWrites.get(); }
+    public long getDataFlushNanosMax() { return dataFlushNanosMax.get(); }
+    public long getPollCycles() { return pollCycles.get(); }
+    public long getPollRequests() { return pollRequests.get(); }
+    public int getLastPollRequests() { return lastPollRequests.get(); }
+    public long getLastPollNanos() { return lastPollNanos.get(); }
 
     public void resetMetrics() {
         successfulLinks.set(0);
         failedLinks.set(0);
         liveStreamsDetected.set(0);
+        dataFlushes.set(0);
+        dataRecordsFlushed.set(0);
+        dataCoalescedWrites.set(0);
+        dataFlushNanosTotal.set(0);
+        dataFlushNanosMax.set(0);
+        pollCycles.set(0);
+        pollRequests.set(0);
+        pollChanges.set(0);
+        pollNanosTotal.set(0);
+        pollNanosMax.set(0);
+        lastPollRequests.set(0);
+        lastPollNanos.set(0);
     }
 }
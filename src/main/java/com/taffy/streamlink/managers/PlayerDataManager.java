@@ -1,36 +1,83 @@
 package com.taffy.streamlink.managers;
 
+import com.taffy.streamlink.exceptions.StorageException;
+import com.taffy.streamlink.loyalty.CsvSyncState;
+import com.taffy.streamlink.loyalty.CsvWatcher;
+import com.taffy.streamlink.loyalty.ExportOptions;
+import com.taffy.streamlink.loyalty.ExportRow;
+import com.taffy.streamlink.loyalty.ImportResult;
+import com.taffy.streamlink.loyalty.LoyaltyCsvImporter;
+import com.taffy.streamlink.loyalty.LoyaltyExporter;
+import com.taffy.streamlink.loyalty.LoyaltyUpdate;
+import com.taffy.streamlink.loyalty.PendingLoyaltyIndex;
+import com.taffy.streamlink.loyalty.PointsChange;
+import com.taffy.streamlink.loyalty.TwitchRename;
 import com.taffy.streamlink.models.PlayerData;
+import com.taffy.streamlink.storage.*;
 import com.taffy.streamlink.streamlink;
 import org.bukkit.Bukkit;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class PlayerDataManager extends ManagerBase {
-    private FileConfiguration playerDataConfig;
-    private File playerDataFile;
-    private final Map<UUID, PlayerData> playerCache = new ConcurrentHashMap<>();
+    private final PlayerCache playerCache;
+    private final PlayerIndex index = new PlayerIndex();
+    private final boolean lazy;
+    private final PlayerDataStore store;
+    private final PlayerDataWriter writer;
+    private final CsvSyncState csvSyncState;
+    private final PendingLoyaltyIndex pendingLoyalty;
+    private final Object csvImportLock = new Object();
+    private final LoyaltyExporter exporter;
+    private CsvWatcher csvWatcher;
 
     public PlayerDataManager(streamlink plugin) {
         super(plugin);
-        setupPlayerData();
-        loadAllPlayerData();
+        this.store = openStore();
+        // eager = every record resident (original behaviour); lazy = index resident, records loaded on login
+        this.lazy = useLazyCache();
+        this.playerCache = new PlayerCache(lazy ? plugin.getConfig().getLong("storage.cache.max-offline", 1000L) : 0L);
+        this.writer = new PlayerDataWriter(log, metrics, store::write,
+                plugin.getConfig().getLong("storage.write-behind.flush-interval-seconds", 5L) * 1000L,
+                plugin.getConfig().getInt("storage.write-behind.max-dirty", 500));
+        if (lazy) {
+            loadIndex();
+        } else {
+            loadAllPlayerData();
+        }
+        this.exporter = new LoyaltyExporter(log);
+        this.csvSyncState = new CsvSyncState(new File(plugin.getDataFolder(), "loyalty-sync.state"), log);
+        this.pendingLoyalty = new PendingLoyaltyIndex(new File(plugin.getDataFolder(), "pending-loyalty.dat"), log);
+        pendingLoyalty.load();
         scheduleCsvAutoSyncIfEnabled();
     }
 
+    @Override
+    public void shutdown() {
+        long timeoutMs = plugin.getConfig().getLong("storage.write-behind.shutdown-timeout-seconds", 10L) * 1000L;
+        if (csvWatcher != null) csvWatcher.stop();
+        exporter.shutdown();
+        writer.shutdown(timeoutMs);
+        pendingLoyalty.saveIfDirty();
+        store.close();
+    }
+
     private void scheduleCsvAutoSyncIfEnabled() {
         String source = plugin.getConfig().getString("loyalty.source", "api").trim().toLowerCase();
         if (!"csv".equals(source)) return;
 
+        if (plugin.getConfig().getBoolean("loyalty.csv.watch.enabled", false)) {
+            startCsvWatcher();
+            return;
+        }
+
         boolean auto = plugin.getConfig().getBoolean("loyalty.csv.auto-sync", false);
         if (!auto) return;
 
@@ -43,48 +90,151 @@ public class PlayerDataManager extends ManagerBase {
                     String summary = importLoyaltyCsv(csv, false);
                     if (log.isDebugMode()) log.debug("[Auto CSV Sync] " + summary);
                 },
-                20L * 60L * mins, // initial delay
+                20L,              // first run right after startup: an unchanged file is skipped almost for free
                 20L * 60L * mins  // repeat
         );
     }
 
-    private void setupPlayerData() {
-        playerDataFile = new File(plugin.getDataFolder(), "playerdata.yml");
-        if (!playerDataFile.exists()) {
+    /** Import CSVs as soon as they are dropped instead of re-reading on a timer. */
+    private void startCsvWatcher() {
+        String dropDir = plugin.getConfig().getString("loyalty.csv.watch.drop-dir", "").trim();
+        Path dir;
+        String fileName;
+        if (dropDir.isEmpty()) {
+            File csv = new File(plugin.getDataFolder(), plugin.getConfig().getString("loyalty.csv.path", "loyalty.csv"));
+            dir = csv.getAbsoluteFile().getParentFile().toPath();
+            fileName = csv.getName();
+        } else {
+            dir = new File(plugin.getDataFolder(), dropDir).toPath();
+            fileName = null;
+        }
+        Path archive = plugin.getConfig().getBoolean("loyalty.csv.watch.archive", true) ? dir.resolve("archive") : null;
+
+        csvWatcher = new CsvWatcher(dir, fileName, archive,
+                plugin.getConfig().getInt("loyalty.csv.watch.archive-keep", 10),
+                plugin.getConfig().getLong("loyalty.csv.watch.debounce-ms", 2000L),
+                file -> runLoyaltyImport(file, false, true, null), log);
+        try {
+            csvWatcher.start();
+        } catch (IOException e) {
+            log.warn("Could not watch " + dir + " for CSV drops: " + e.getMessage(), e);
+            csvWatcher = null;
+        }
+    }
+
+    /** Pick the store from storage.engine; anything that fails to open falls back to playerdata.yml. */
+    private PlayerDataStore openStore() {
+        String engine = plugin.getConfig().getString("storage.engine", "yaml").trim().toLowerCase();
+        File yamlFile = new File(plugin.getDataFolder(), "playerdata.yml");
+
+        PlayerDataStore selected = switch (engine) {
+            case "journal" -> new JournalPlayerDataStore(new File(plugin.getDataFolder(), "storage"), log,
+                    plugin.getConfig().getLong("storage.journal.compact-after-kb", 1024L) * 1024L);
+            case "sqlite" -> JdbcPlayerDataStore.sqlite(plugin.getDataFolder(), log);
+            case "jdbc" -> new JdbcPlayerDataStore("jdbc", plugin.getConfig().getString("storage.jdbc.url", ""), null, log);
+            default -> null;
+        };
+
+        if (selected != null) {
+            try {
+                selected.open();
+                if (selected.isEmpty()) {
+                    YamlMigrator.migrate(yamlFile, selected, log);
+                }
+                return selected;
+            } catch (StorageException e) {
+                log.severe("Could not open " + engine + " storage, falling back to playerdata.yml: " + e.getMessage(), e);
+                selected.close();
+            }
+        }
+
+        if (!yamlFile.exists()) {
             plugin.saveResource("playerdata.yml", false);
         }
-        playerDataConfig = YamlConfiguration.loadConfiguration(playerDataFile);
-        log.info("Player data loaded successfully");
+        YamlPlayerDataStore yaml = new YamlPlayerDataStore(yamlFile, log);
+        yaml.open();
+        return yaml;
+    }
+
+    // yaml and journal hold every record in memory already; an index and LRU on top would only add to it
+    private boolean useLazyCache() {
+        if (!"lazy".equalsIgnoreCase(plugin.getConfig().getString("storage.cache.mode", "eager").trim())) return false;
+        if (store.loadsOnDemand()) return true;
+        log.warn("storage.cache.mode 'lazy' needs the sqlite or jdbc engine; " + store.getName()
+                + " storage keeps every player in memory, using the eager cache instead");
+        return false;
     }
 
     private void loadAllPlayerData() {
-        ConfigurationSection linksSection = playerDataConfig.getConfigurationSection("links");
-        if (linksSection != null) {
-            for (String uuidString : linksSection.getKeys(false)) {
-                try {
-                    UUID playerId = UUID.fromString(uuidString);
-                    PlayerData playerData = loadPlayerData(playerId);
-                    playerCache.put(playerId, playerData);
-                } catch (IllegalArgumentException e) {
-                    log.warn("Invalid UUID in playerdata: " + uuidString);
-                }
+        try {
+            for (PlayerData data : store.loadAll().values()) {
+                playerCache.put(data);
+                index.put(data);
             }
+        } catch (StorageException e) {
+            log.severe("Failed to load player data from " + store.getName() + " storage: " + e.getMessage(), e);
         }
         log.info("Loaded " + playerCache.size() + " players into cache");
     }
 
+    private void loadIndex() {
+        try {
+            index.putAll(store.loadIndex());
+        } catch (StorageException e) {
+            log.severe("Failed to load player index from " + store.getName() + " storage: " + e.getMessage(), e);
+        }
+        // covers /reload: players already online never see a login event
+        for (Player online : Bukkit.getOnlinePlayers()) {
+            loadOnLogin(online.getUniqueId());
+        }
+        log.info("Indexed " + index.size() + " players (lazy cache, " + playerCache.size() + " loaded)");
+    }
+
+    /** Called from AsyncPlayerPreLoginEvent so the first main-thread lookup is a cache hit. */
+    public void loadOnLogin(UUID playerId) {
+        PlayerData data = getPlayerData(playerId);
+        if (data != null) playerCache.pin(data);
+    }
+
+    /** Player quit: their record becomes evictable (lazy mode only bounds offline players). */
+    public void releasePlayer(UUID playerId) {
+        playerCache.unpin(playerId);
+    }
+
+    public String getCacheStats() {
+        return (lazy ? "lazy" : "eager") + ", indexed=" + index.size() + ", " + playerCache.describeStats();
+    }
+
     public void linkPlayer(UUID playerId, String twitchId, String accessToken, String refreshToken, String twitchUsername) {
         PlayerData playerData = getOrCreatePlayerData(playerId);
+        if (playerData.getLinkedAt() == 0L || !Objects.equals(playerData.getTwitchId(), twitchId)) {
+            playerData.setLinkedAt(System.currentTimeMillis());
+        }
         playerData.setTwitchId(twitchId);
         playerData.setAccessToken(accessToken);
         playerData.setRefreshToken(refreshToken);
         playerData.setTwitchUsername(twitchUsername.toLowerCase());
 
-        savePlayerData(playerData);
-        playerCache.put(playerId, playerData);
+        index.put(playerData);
+        if (Bukkit.getPlayer(playerId) != null) {
+            playerCache.pin(playerData);
+        } else {
+            playerCache.put(playerData);
+        }
+        markDirty(playerData, PlayerChange.LINK);
 
         log.debug("Linked player " + playerId + " to Twitch: " + twitchUsername);
 
+        // credit anything the last CSV import staged while this viewer was unlinked
+        PendingLoyaltyIndex.Staged staged = pendingLoyalty.take(twitchUsername);
+        if (staged != null) {
+            setLoyaltyPoints(playerId, staged.points());
+            if (staged.hasMinutes()) setWatchMinutes(playerId, staged.minutes());
+            log.debug("Applied staged loyalty for " + twitchUsername + ": points=" + staged.points());
+            // drop the entry from disk too, but only once the credited points are stored
+            writer.runAfterFlush(pendingLoyalty::saveIfDirty);
+        }
+
         // Register with StreamLabs manager
         if (plugin.getStreamLabsManager() != null) {
             Player player = Bukkit.getPlayer(playerId);
@@ -95,47 +245,37 @@ public class PlayerDataManager extends ManagerBase {
     }
 
     public PlayerData getPlayerData(UUID playerId) {
-        return playerCache.get(playerId);
+        if (lazy && index.contains(playerId)) {
+            return playerCache.get(playerId, this::loadForCache);
+        }
+        return playerCache.peek(playerId);
     }
 
     public PlayerData getOrCreatePlayerData(UUID playerId) {
-        return playerCache.computeIfAbsent(playerId, id -> {
-            PlayerData data = new PlayerData(id);
-            // Try to load from config if it exists
-            PlayerData savedData = loadPlayerData(id);
-            return savedData != null ? savedData : data;
-        });
+        PlayerData data = getPlayerData(playerId);
+        if (data != null) return data;
+        data = playerCache.putIfAbsent(new PlayerData(playerId));
+        index.put(data);
+        return data;
+    }
+
+    /** Cache miss: an unflushed copy in the writer is newer than anything in the store. */
+    private PlayerData loadForCache(UUID playerId) {
+        PlayerData pending = writer.getPending(playerId);
+        return pending != null ? pending : loadPlayerData(playerId);
     }
 
     private PlayerData loadPlayerData(UUID playerId) {
-        String basePath = "links." + playerId.toString();
-        if (!playerDataConfig.contains(basePath)) {
+        try {
+            return store.load(playerId);
+        } catch (StorageException e) {
+            log.warn("Failed to load player " + playerId + ": " + e.getMessage(), e);
             return null;
         }
-
-        PlayerData playerData = new PlayerData(playerId);
-        playerData.setTwitchId(playerDataConfig.getString(basePath + ".twitchId"));
-        playerData.setTwitchUsername(playerDataConfig.getString(basePath + ".twitchUsername"));
-        playerData.setAccessToken(playerDataConfig.getString(basePath + ".accessToken"));
-        playerData.setRefreshToken(playerDataConfig.getString(basePath + ".refreshToken"));
-        playerData.setLive(playerDataConfig.getBoolean(basePath + ".isLive", false));
-        playerData.setLoyaltyPoints(playerDataConfig.getInt(basePath + ".loyaltyPoints", 0));
-        playerData.setWatchMinutes(playerDataConfig.getLong(basePath + ".watchMinutes", 0L));
-
-        return playerData;
     }
 
-    private void savePlayerData(PlayerData playerData) {
-        String basePath = "links." + playerData.getPlayerId().toString();
-        playerDataConfig.set(basePath + ".twitchId", playerData.getTwitchId());
-        playerDataConfig.set(basePath + ".twitchUsername", playerData.getTwitchUsername());
-        playerDataConfig.set(basePath + ".accessToken", playerData.getAccessToken());
-        playerDataConfig.set(basePath + ".refreshToken", playerData.getRefreshToken());
-        playerDataConfig.set(basePath + ".isLive", playerData.isLive());
-        playerDataConfig.set(basePath + ".loyaltyPoints", playerData.getLoyaltyPoints());
-        playerDataConfig.set(basePath + ".watchMinutes", playerData.getWatchMinutes());
-
-        saveConfig();
+    private void markDirty(PlayerData playerData, PlayerChange change) {
+        writer.markDirty(playerData, change);
     }
 
     public boolean isLinked(UUID playerId) {
@@ -167,29 +307,31 @@ public class PlayerDataManager extends ManagerBase {
         PlayerData playerData = getPlayerData(playerId);
         if (playerData != null) {
             playerData.setAccessToken(newAccessToken);
-            savePlayerData(playerData);
+            markDirty(playerData, PlayerChange.TOKEN);
             log.debug("Updated access token for player " + playerId);
         }
     }
 
     public void setLoyaltyPoints(UUID playerId, int points) {
         PlayerData data = getOrCreatePlayerData(playerId);
+        if (data.getLoyaltyPoints() == points) return;
         data.setLoyaltyPoints(points);
-        savePlayerData(data); // this already writes .loyaltyPoints to playerdata.yml
+        markDirty(data, PlayerChange.POINTS);
     }
 
     public void setLiveStatus(UUID playerId, boolean isLive) {
         PlayerData playerData = getPlayerData(playerId);
-        if (playerData != null) {
+        if (playerData != null && playerData.isLive() != isLive) {
             playerData.setLive(isLive);
-            savePlayerData(playerData);
+            markDirty(playerData, PlayerChange.LIVE);
         }
     }
 
     public void setWatchMinutes(UUID playerId, long minutes) {
         PlayerData data = getOrCreatePlayerData(playerId);
+        if (data.getWatchMinutes() == minutes) return;
         data.setWatchMinutes(minutes);
-        savePlayerData(data);
+        markDirty(data, PlayerChange.MINUTES);
     }
 
     public boolean isLive(UUID playerId) {
@@ -198,33 +340,57 @@ public class PlayerDataManager extends ManagerBase {
     }
 
     public void unlinkPlayer(UUID playerId) {
-        playerDataConfig.set("links." + playerId.toString(), null);
+        IndexEntry entry = index.get(playerId);
+        if (entry != null) csvSyncState.forget(entry.twitchUsername());
+        if (plugin.getStreamLabsManager() != null) plugin.getStreamLabsManager().unregisterPlayer(playerId);
         playerCache.remove(playerId);
-        saveConfig();
+        index.remove(playerId);
+        writer.markDeleted(playerId);
         log.info("Unlinked player " + playerId + " from Twitch");
     }
 
-    public Set<UUID> getAllLinkedPlayers() {
-        return new HashSet<>(playerCache.keySet());
+    /** @return the player linked to this Twitch login (any case), or null */
+    public UUID findPlayerByTwitchLogin(String login) {
+        return index.findByLogin(login);
     }
 
-    private void saveConfig() {
-        try {
-            playerDataConfig.save(playerDataFile);
-        } catch (IOException e) {
-            log.severe("Could not save playerdata.yml: " + e.getMessage(), e);
+    /** @return the player linked to this Twitch user id, or null */
+    public UUID findPlayerByTwitchId(String twitchId) {
+        return index.findByTwitchId(twitchId);
+    }
+
+    /**
+     * The Twitch user id never changes, so when it matches a player stored under a
+     * different login the viewer has renamed. Read-only; see {@link #applyTwitchRenames}.
+     * @return the normalised new login, or null if it matches the stored one
+     */
+    public String renamedLogin(UUID playerId, String login) {
+        String newLogin = PlayerIndex.normalizeLogin(login);
+        IndexEntry entry = index.get(playerId);
+        if (newLogin == null || entry == null) return null;
+        return newLogin.equals(PlayerIndex.normalizeLogin(entry.twitchUsername())) ? null : newLogin;
+    }
+
+    /** Apply stage for renames found while parsing an import; call under the import lock. */
+    public void applyTwitchRenames(List<TwitchRename> renames) {
+        for (TwitchRename rename : renames) {
+            if (renamedLogin(rename.playerId(), rename.newLogin()) == null) continue;
+            PlayerData data = getPlayerData(rename.playerId());
+            if (data == null) continue;
+            log.info("Twitch user " + rename.twitchId() + " renamed " + data.getTwitchUsername() + " -> " + rename.newLogin());
+            data.setTwitchUsername(rename.newLogin());
+            index.put(data);
+            markDirty(data, PlayerChange.LINK);
         }
     }
 
-    private void setLoyaltyPointsNoFlush(UUID playerId, int points) {
-        PlayerData data = getOrCreatePlayerData(playerId);
-        data.setLoyaltyPoints(points);
-        // no save here
+    /** Live view of the resident index; bulk lookups should snapshot it once rather than call per row. */
+    public Collection<IndexEntry> getIndexEntries() {
+        return index.entries();
     }
-    private void setWatchMinutesNoFlush(UUID playerId, long minutes) {
-        PlayerData data = getOrCreatePlayerData(playerId);
-        data.setWatchMinutes(minutes);
-        // no save here
+
+    public Set<UUID> getAllLinkedPlayers() {
+        return new HashSet<>(index.playerIds());
     }
 
     public void backupPlayerData() {
@@ -232,10 +398,14 @@ public class PlayerDataManager extends ManagerBase {
         if (!backupDir.exists()) backupDir.mkdirs();
 
         String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
-        File backupFile = new File(backupDir, "playerdata-backup-" + timestamp + ".yml");
+        File source = store.getDataFile();
+        if (source == null || !source.exists()) return;
+        String name = source.getName();
+        String extension = name.contains(".") ? name.substring(name.lastIndexOf('.')) : "";
+        File backupFile = new File(backupDir, "playerdata-backup-" + timestamp + extension);
 
         try {
-            Files.copy(playerDataFile.toPath(), backupFile.toPath());
+            Files.copy(source.toPath(), backupFile.toPath());
             log.info("Player data backed up to: " + backupFile.getName());
         } catch (IOException e) {
             log.warn("Failed to create backup: " + e.getMessage(), e);
@@ -247,6 +417,7 @@ public class PlayerDataManager extends ManagerBase {
     /**
      * Import a CSV of loyalty data. Expected headers (case-insensitive):
      *   username, points, minutes  (minutes = watch time in minutes)
+     * An optional id column (Twitch user id) is matched first so renamed viewers still resolve.
      * Only updates players who are already linked.
      *
      * @param csvFile CSV file path
@@ -257,178 +428,155 @@ public class PlayerDataManager extends ManagerBase {
         return importLoyaltyCsv(csvFile, false);
     }
 
-    /** dryRun=true → only counts & previews, no writes. */
+    /** dryRun=true → only counts & previews, no writes. Incremental: unchanged files/rows are skipped. */
     public String importLoyaltyCsv(File csvFile, boolean dryRun) {
-        if (!csvFile.exists()) {
-            return "CSV not found: " + csvFile.getAbsolutePath();
-        }
+        return importLoyaltyCsv(csvFile, dryRun, true, null);
+    }
 
-        int updated = 0, skippedNoLink = 0, skippedParse = 0, totalRows = 0;
-        List<String> examples   = new ArrayList<>();
-        List<String> notLinked  = new ArrayList<>();
+    /**
+     * @param incremental skip the file if unchanged since the last sync, and rows whose values did not change
+     * @param progress    receives periodic status lines while the import runs; may be null
+     */
+    public String importLoyaltyCsv(File csvFile, boolean dryRun, boolean incremental, Consumer<String> progress) {
+        return runLoyaltyImport(csvFile, dryRun, incremental, progress).toSummary();
+    }
 
+    private ImportResult runLoyaltyImport(File csvFile, boolean dryRun, boolean incremental, Consumer<String> progress) {
         // header aliases: from config, or sensible defaults if missing
         List<String> watchHeaders = plugin.getConfig().getStringList("loyalty.csv_watch_minutes_headers");
         if (watchHeaders == null || watchHeaders.isEmpty()) {
             watchHeaders = Arrays.asList("minutes","time","watchtimeminutes","watch_time_minutes","time_watched");
         }
 
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(new FileInputStream(csvFile), StandardCharsets.UTF_8))) {
-
-            String header = br.readLine();
-            if (header == null) return "Empty CSV.";
-            String[] headerCols = splitCsv(header);
-
-            int idxUser   = indexOf(headerCols, "username");
-            if (idxUser < 0) idxUser = indexOf(headerCols, "name");
-
-            int idxPoints = indexOf(headerCols, "points");
-
-            int idxMinutes = -1;
-            for (String h : watchHeaders) {
-                idxMinutes = indexOf(headerCols, h);
-                if (idxMinutes >= 0) break;
-            }
-
-            if (idxUser < 0 || idxPoints < 0) {
-                return "CSV must contain at least 'username' and 'points' columns.";
-            }
-
-            String line;
-            while ((line = br.readLine()) != null) {
-                totalRows++;
-                String[] cols = splitCsv(line);
-                if (cols.length <= Math.max(idxUser, Math.max(idxPoints, Math.max(idxMinutes, 0)))) {
-                    skippedParse++; continue;
-                }
-
-                String username = cols[idxUser] == null ? "" : cols[idxUser].trim().toLowerCase();
-                if (username.isEmpty()) { skippedParse++; continue; }
-
-                Integer points = tryParseInt(cols[idxPoints]);
-                if (points == null) { skippedParse++; continue; }
-
-                Long minutes = (idxMinutes >= 0) ? tryParseLong(cols[idxMinutes]) : null;
-
-                UUID playerId = findLinkedPlayerByTwitchUsername(username);
-                if (playerId == null) {
-                    skippedNoLink++;
-                    if (notLinked.size() < 10) notLinked.add(username);
-                    continue;
-                }
-
-                if (!dryRun) {
-                    // update in-memory objects only; flush once after loop
-                    setLoyaltyPointsNoFlush(playerId, points);
-                    if (minutes != null) setWatchMinutesNoFlush(playerId, minutes);
-                } else {
-                    examples.add(username + " -> points=" + points + (minutes!=null? (", minutes=" + minutes) : ""));
-                }
-                updated++;
-            }
-
-            // single disk write if we actually changed anything
-            if (!dryRun && updated > 0) {
-                saveConfig();
-            }
-
-        } catch (Exception e) {
-            log.warn("CSV import failed: " + e.getMessage(), e);
-            return "Import failed: " + e.getMessage();
+        LoyaltyCsvImporter importer = new LoyaltyCsvImporter(this, log,
+                plugin.getConfig().getInt("loyalty.csv.import-threads", 0));
+        synchronized (csvImportLock) {
+            return importer.run(csvFile, dryRun, incremental, watchHeaders, csvSyncState, progress);
         }
+    }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append(dryRun ? "[DRY-RUN] " : "")
-                .append("Sync complete. Updated=").append(updated)
-                .append(", Skipped (not linked)=").append(skippedNoLink)
-                .append(", Skipped (parse errors)=").append(skippedParse)
-                .append(", Total rows=").append(totalRows);
+    /** Replace the staged values for unlinked viewers with those from the latest import. */
+    public void stagePendingLoyalty(List<LoyaltyUpdate> unlinkedRows) {
+        pendingLoyalty.replace(unlinkedRows, System.currentTimeMillis());
+    }
 
-        if (!notLinked.isEmpty()) {
-            sb.append(". Not linked (first 10): ").append(String.join(", ", notLinked));
-        }
-        if (dryRun && !examples.isEmpty()) {
-            sb.append(". Examples: ").append(String.join("; ", examples.subList(0, Math.min(10, examples.size()))));
-        }
-        return sb.toString();
-    }
-
-    public String exportLoyaltyCsv(File outFile) {
-        try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outFile), StandardCharsets.UTF_8))) {
-            bw.write("Username,Points,Minutes\n");
-            for (Map.Entry<UUID, PlayerData> e : playerCache.entrySet()) {
-                PlayerData d = e.getValue();
-                if (d == null || d.getTwitchUsername() == null) continue;
-                String u = d.getTwitchUsername();
-                int pts = d.getLoyaltyPoints();
-                long mins = d.getWatchMinutes();
-                bw.write(escape(u) + "," + pts + "," + mins + "\n");
+    /**
+     * Apply stage of a CSV import: marks changed players dirty and flushes once.
+     * @return the points changes actually made, for tier reapplication
+     */
+    public List<PointsChange> applyLoyaltyUpdates(List<LoyaltyUpdate> updates) {
+        List<PointsChange> changes = new ArrayList<>();
+        for (LoyaltyUpdate update : updates) {
+            int oldPoints = getOrCreatePlayerData(update.playerId()).getLoyaltyPoints();
+            setLoyaltyPoints(update.playerId(), update.points());
+            if (update.hasMinutes()) setWatchMinutes(update.playerId(), update.minutes());
+            if (oldPoints != update.points()) {
+                changes.add(new PointsChange(update.playerId(), oldPoints, update.points()));
             }
-            return "Exported " + playerCache.size() + " rows to " + outFile.getAbsolutePath();
-        } catch (Exception ex) {
-            log.warn("CSV export failed: " + ex.getMessage(), ex);
-            return "Export failed: " + ex.getMessage();
         }
+        if (!updates.isEmpty()) {
+            writer.requestFlush();
+        }
+        return changes;
     }
 
-    private static String escape(String s) {
-        if (s == null) return "";
-        if (s.contains(",") || s.contains("\"") || s.contains("\n")) {
-            return "\"" + s.replace("\"","\"\"") + "\"";
+    /**
+     * Apply a batch from a source other than a CSV file (e.g. a Cloudbot page).
+     * Serialised with CSV imports so the two never interleave on the same players.
+     */
+    public List<PointsChange> applyLoyaltyBatch(List<LoyaltyUpdate> updates) {
+        synchronized (csvImportLock) {
+            return applyLoyaltyUpdates(updates);
         }
-        return s;
     }
 
-    private UUID findLinkedPlayerByTwitchUsername(String usernameLower) {
-        for (Map.Entry<UUID, PlayerData> e : playerCache.entrySet()) {
-            PlayerData d = e.getValue();
-            if (d != null && d.getTwitchUsername() != null &&
-                    d.getTwitchUsername().equalsIgnoreCase(usernameLower)) {
-                return e.getKey();
+    /**
+     * Compare-and-write for values fetched from the Streamlabs API. Each polled value is
+     * merged with what is stored (with {@code preferStored} the higher one wins) and only
+     * changed players are written; the read and the write happen together under the import
+     * lock, so a CSV import, a Cloudbot batch or an export never lands in between.
+     * Tier changes for the written players are queued.
+     *
+     * @param merged receives the value that won for every polled player, changed or not
+     * @return the players whose stored values changed
+     */
+    public List<LoyaltyUpdate> mergePolledLoyalty(List<LoyaltyUpdate> polled, boolean preferStored,
+                                                  Consumer<LoyaltyUpdate> merged) {
+        List<LoyaltyUpdate> changed = new ArrayList<>();
+        List<PointsChange> pointsChanges;
+        synchronized (csvImportLock) {
+            for (LoyaltyUpdate update : polled) {
+                PlayerData pd = getPlayerData(update.playerId());
+                int curPoints = (pd != null) ? pd.getLoyaltyPoints() : 0;
+                long curMins = (pd != null) ? pd.getWatchMinutes() : 0L;
+
+                int points = preferStored ? Math.max(curPoints, update.points()) : update.points();
+                long minutes = preferStored ? Math.max(curMins, update.minutes()) : update.minutes();
+                LoyaltyUpdate won = new LoyaltyUpdate(update.playerId(), update.login(), points, minutes);
+                merged.accept(won);
+                if (points != curPoints || minutes != curMins) changed.add(won);
             }
+            pointsChanges = applyLoyaltyUpdates(changed);
         }
-        return null;
+        reapplyLoyaltyTiers(pointsChanges);
+        return changed;
     }
 
-    private static Integer tryParseInt(String s) {
-        try { return Integer.parseInt(s.trim()); } catch (Exception e) { return null; }
-    }
-    private static Long tryParseLong(String s) {
-        try { return Long.parseLong(s.trim()); } catch (Exception e) { return null; }
+    /** @return how many online players changed loyalty tier and were queued for reapplication */
+    public int reapplyLoyaltyTiers(List<PointsChange> changes) {
+        if (changes.isEmpty() || plugin.getStreamLabsManager() == null) return 0;
+        return plugin.getStreamLabsManager().queueTierChanges(changes);
     }
 
-    // very light CSV splitter (handles simple quoted fields)
-    private static String[] splitCsv(String line) {
-        List<String> out = new ArrayList<>();
-        StringBuilder cur = new StringBuilder();
-        boolean inQuotes = false;
+    /**
+     * Export on the background export thread.
+     * Call from the main thread: who is online is read here, as of the request.
+     */
+    public CompletableFuture<String> exportLoyalty(File outFile, ExportOptions options, Consumer<String> progress) {
+        Set<UUID> online = new HashSet<>();
+        for (Player p : Bukkit.getOnlinePlayers()) online.add(p.getUniqueId());
+        return exporter.submit(outFile, options, sink -> exportRows(options, online, sink), progress);
+    }
 
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            if (c == '"') {
-                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    // escaped quote ""
-                    cur.append('"');
-                    i++; // skip next quote
-                } else {
-                    inQuotes = !inQuotes; // toggle quote mode
-                }
-            } else if (c == ',' && !inQuotes) {
-                out.add(cur.toString());
-                cur.setLength(0);
-            } else {
-                cur.append(c);
+    /**
+     * One pass over every player, handing token-free rows that pass the filters straight to the file.
+     * Holds the import lock so CSV imports and loyalty batches land entirely before or after the export.
+     */
+    private void exportRows(ExportOptions options, Set<UUID> online, Consumer<ExportRow> sink) {
+        synchronized (csvImportLock) {
+            try {
+                forEachPlayer(d -> {
+                    ExportRow row = new ExportRow(d.getPlayerId(), d.getTwitchUsername(), d.getLoyaltyPoints(),
+                            d.getWatchMinutes(), d.getLinkedAt(), d.isLive());
+                    if (options.accepts(row, online.contains(row.playerId()))) sink.accept(row);
+                });
+            } catch (StorageException e) {
+                throw new IllegalStateException("could not read player data: " + e.getMessage(), e);
             }
         }
-        out.add(cur.toString());
-        return out.toArray(new String[0]);
     }
 
-    private static int indexOf(String[] headers, String name) {
-        for (int i = 0; i < headers.length; i++) {
-            if (headers[i] != null && headers[i].trim().equalsIgnoreCase(name)) return i;
+    /**
+     * Every known player once. In lazy mode records are streamed from the store and
+     * cached (possibly unflushed) copies win over stored ones.
+     */
+    private void forEachPlayer(Consumer<PlayerData> action) throws StorageException {
+        if (!lazy) {
+            playerCache.values().forEach(action);
+            return;
+        }
+        Map<UUID, PlayerData> newer = new HashMap<>();
+        for (PlayerData cached : playerCache.values()) newer.put(cached.getPlayerId(), cached);
+        for (UUID id : index.playerIds()) {
+            PlayerData pending = writer.getPending(id);
+            if (pending != null) newer.putIfAbsent(id, pending);
+        }
+        store.forEach(stored -> {
+            UUID id = stored.getPlayerId();
+            if (!newer.containsKey(id) && index.contains(id)) action.accept(stored);
+        });
+        for (PlayerData data : newer.values()) {
+            if (index.contains(data.getPlayerId())) action.accept(data);
         }
-        return -1;
     }
 }
@@ -1,37 +1,71 @@
 package com.taffy.streamlink.managers;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.taffy.streamlink.api.CircuitBreaker;
+import com.taffy.streamlink.api.CloudbotLoyaltyFetcher;
+import com.taffy.streamlink.api.HttpTransport;
+import com.taffy.streamlink.api.LoyaltyRow;
+import com.taffy.streamlink.api.RateGovernor;
+import com.taffy.streamlink.api.StreamlabsClient;
+import com.taffy.streamlink.api.StreamlabsEvent;
+import com.taffy.streamlink.api.StreamlabsSocket;
+import com.taffy.streamlink.exceptions.TwitchAPIException;
+import com.taffy.streamlink.loyalty.LoyaltyUpdate;
+import com.taffy.streamlink.loyalty.PollScheduler;
+import com.taffy.streamlink.loyalty.PointsChange;
 import com.taffy.streamlink.streamlink;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.java_websocket.client.WebSocketClient;
+import org.bukkit.scheduler.BukkitRunnable;
 
 import java.net.URI;
-import java.net.URLEncoder;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class StreamLabsManager extends ManagerBase {
-    // (Socket kept here in case you later re-enable alerts; unused for points)
-    private WebSocketClient socketClient;
-    private boolean connected = false;
+    // an alert usually changes the viewer's balance a moment later; poll them after this delay
+    private static final long SOCKET_EVENT_POLL_DELAY_MS = 2000L;
 
-    private final HttpClient http = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(10))
-            .build();
+    private StreamlabsSocket socket;
+    // only log the first failure of a run of reconnect attempts at warn
+    private final AtomicBoolean socketUp = new AtomicBoolean(false);
+
+    private final HttpTransport http = plugin.getHttpTransport();
 
     private TokenManager tokenManager;
+    private StreamlabsClient client;
 
     private final Map<UUID, Integer> playerLoyaltyPoints = new ConcurrentHashMap<>();
     private final Map<UUID, Integer> lastAppliedTier     = new ConcurrentHashMap<>();
-    private final Map<String, UUID> twitchToMinecraftMap = new ConcurrentHashMap<>();
+    private PollScheduler pollScheduler;
+
+    // bulk tier changes waiting for the main thread; latest tier per player wins
+    private final Map<UUID, Integer> pendingTiers = new ConcurrentHashMap<>();
+    private final Queue<UUID> tierQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean tierDrainRunning = new AtomicBoolean(false);
+
+    private final AtomicBoolean cloudbotSyncRunning = new AtomicBoolean(false);
+    // bulk mode only: one channel-wide fetch at a time
+    private final AtomicBoolean pollRunning = new AtomicBoolean(false);
 
     private boolean isCsvSource() {
         return "csv".equalsIgnoreCase(plugin.getConfig().getString("loyalty.source", "csv"));
@@ -48,6 +82,21 @@ public class StreamLabsManager extends ManagerBase {
     @Override
     public void initialize() {
         this.tokenManager = new TokenManager(plugin, plugin.getConfig(), plugin::saveConfig);
+        this.pollScheduler = new PollScheduler(
+                1000L * Math.max(5, plugin.getConfig().getLong("streamlabs.poll-interval-secs", 30)),
+                1000L * Math.max(0, plugin.getConfig().getLong("streamlabs.poll-offline-interval-secs", 0)),
+                plugin.getConfig().getInt("streamlabs.poll-backoff-after", 4),
+                1000L * plugin.getConfig().getLong("streamlabs.poll-max-interval-secs", 600),
+                plugin.getConfig().getDouble("streamlabs.poll-jitter", 0.2));
+        this.client = new StreamlabsClient(http, plugin.getRateGovernor(), plugin.getCircuitBreaker(),
+                plugin.getConfig().getString("streamlabs.api-base", StreamlabsClient.DEFAULT_API_BASE),
+                tokenManager::getAccessToken,
+                tokenManager::refresh,
+                plugin.getConfig().getInt("streamlabs.max-in-flight", 8),
+                Duration.ofMillis(Math.max(1000L, plugin.getConfig().getLong("streamlabs.request-deadline-ms", 15000L))));
+
+        // refreshes ahead of expiry once one is known; idle otherwise
+        tokenManager.startAutoRefresh();
 
         final String source = plugin.getConfig().getString("loyalty.source", "api").trim().toLowerCase();
         final boolean pollingEnabled = plugin.getConfig().getBoolean("streamlabs.polling-enabled", true);
@@ -62,6 +111,7 @@ public class StreamLabsManager extends ManagerBase {
     @Override
     public void shutdown() {
         disconnect();
+        if (tokenManager != null) tokenManager.flush();
     }
 
     /* ------------------------- public API ------------------------- */
@@ -71,12 +121,36 @@ public class StreamLabsManager extends ManagerBase {
         if (twitchLogin == null || twitchLogin.isEmpty()) return;
         if (!isApiSource()) return;
         String viewer = twitchLogin.toLowerCase();
-        twitchToMinecraftMap.put(viewer, player.getUniqueId());
+        pollScheduler.register(player.getUniqueId(), viewer, player.isOnline(), System.currentTimeMillis());
 
         // fetch once immediately so /streamlink points returns fast
         fetchLoyaltyPoints(viewer, player.getUniqueId());
     }
 
+    /** Player left: drop to the offline rate, or stop polling them if offline polling is off. */
+    public void onPlayerQuit(UUID playerId) {
+        // permissions are cleaned up on quit, so the tier must be applied again on the next join
+        lastAppliedTier.remove(playerId);
+        if (pollScheduler == null) return;
+        if (plugin.getConfig().getLong("streamlabs.poll-offline-interval-secs", 0) <= 0) {
+            pollScheduler.remove(playerId);
+        } else {
+            pollScheduler.setOnline(playerId, false, System.currentTimeMillis());
+        }
+    }
+
+    /** Player unlinked: never poll them again. */
+    public void unregisterPlayer(UUID playerId) {
+        if (pollScheduler != null) pollScheduler.remove(playerId);
+        playerLoyaltyPoints.remove(playerId);
+        lastAppliedTier.remove(playerId);
+    }
+
+    /** Points requests answered by an identical request already in flight. */
+    public long getSharedRequestCount() {
+        return (client == null) ? 0 : client.getSharedCount();
+    }
+
     /** Cached value for quick lookups. */
     public int getLoyaltyPoints(UUID playerId) {
         return playerLoyaltyPoints.getOrDefault(playerId, 0);
@@ -89,8 +163,14 @@ public class StreamLabsManager extends ManagerBase {
     }
 
     public void disconnect() {
-        if (socketClient != null) socketClient.close();
-        connected = false;
+        if (socket != null) socket.stop();
+        socket = null;
+    }
+
+    /** Socket state for the metrics report, or null when the socket is not in use. */
+    public String getSocketStatus() {
+        StreamlabsSocket s = socket;
+        return (s == null) ? null : s.describe();
     }
 
     /* ----------------------- polling / fetching ----------------------- */
@@ -105,135 +185,269 @@ public class StreamLabsManager extends ManagerBase {
             return;
         }
 
-        // every 30s poll any registered viewers
-        Bukkit.getScheduler().runTaskTimerAsynchronously(
-                plugin,
-                () -> {
-                    if (twitchToMinecraftMap.isEmpty()) return;
-                    for (Map.Entry<String, UUID> e : twitchToMinecraftMap.entrySet()) {
-                        fetchLoyaltyPoints(e.getKey(), e.getValue());
-                    }
-                },
-                0L,
-                20L * 30
-        );
+        // a cheap tick; the scheduler decides who is actually due
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::runPollTick, 20L, 20L);
+        startSocket();
     }
 
-    private void persistLoyalty(UUID playerId, int newPoints, long newMinutes) {
-        boolean preferStored = plugin.getConfig().getBoolean("streamlabs.prefer-stored", true);
+    /* ------------------------- socket (push) ------------------------- */
 
-        var dm = plugin.getDataManager();
-        var pd = dm.getPlayerData(playerId);
-
-        int curPoints  = (pd != null) ? pd.getLoyaltyPoints()  : 0;
-        long curMins   = (pd != null) ? pd.getWatchMinutes()   : 0L;
+    /**
+     * Opens the Streamlabs socket. While it is connected, alerts for linked viewers
+     * trigger a poll of just that viewer and everyone else is only reconciled every
+     * {@code streamlabs.socket.reconcile-interval-secs}; while it is down, polling
+     * runs at the normal rates.
+     */
+    private void startSocket() {
+        if (!plugin.getConfig().getBoolean("streamlabs.socket.enabled", false)) return;
+
+        final String configuredToken = plugin.getConfig().getString("streamlabs.socket.token", "").trim();
+        final Supplier<CompletableFuture<String>> token = configuredToken.isEmpty()
+                ? client::fetchSocketToken
+                : () -> CompletableFuture.completedFuture(configuredToken);
+
+        socket = new StreamlabsSocket(
+                plugin.getConfig().getString("streamlabs.socket.url", "wss://sockets.streamlabs.com"),
+                token,
+                new SocketListener(),
+                1000L * plugin.getConfig().getLong("streamlabs.socket.reconnect-max-secs", 300));
+        socket.start();
+    }
 
-        int pointsToWrite  = preferStored ? Math.max(curPoints,  newPoints)  : newPoints;
-        long minutesToWrite = preferStored ? Math.max(curMins,   newMinutes) : newMinutes;
+    private final class SocketListener implements StreamlabsSocket.Listener {
+        @Override
+        public void onEvent(StreamlabsEvent event) {
+            if (log.isDebugMode()) {
+                log.debug("Streamlabs " + event.type() + " from " + event.login()
+                        + (event.amount() != 0 ? " (" + event.amount() + ")" : ""));
+            }
+            if (event.login() == null) return;
+            UUID playerId = plugin.getDataManager().findPlayerByTwitchLogin(event.login());
+            if (playerId != null) {
+                pollScheduler.nudge(playerId, System.currentTimeMillis() + SOCKET_EVENT_POLL_DELAY_MS);
+            }
+        }
 
-        // Save once
-        dm.setLoyaltyPoints(playerId, pointsToWrite);
-        dm.setWatchMinutes(playerId, minutesToWrite);
+        @Override
+        public void onConnected(boolean reconnected) {
+            final long now = System.currentTimeMillis();
+            final long reconcileSecs = plugin.getConfig().getLong("streamlabs.socket.reconcile-interval-secs", 600);
+            pollScheduler.setMinInterval(1000L * Math.max(0, reconcileSecs), now);
+            socketUp.set(true);
+            log.info("Streamlabs socket connected; loyalty reconciled every " + reconcileSecs + "s");
+
+            if (reconnected) {
+                // alerts sent while we were away are lost: catch everyone up once, spread over one interval
+                long spreadMs = 1000L * Math.max(5, plugin.getConfig().getLong("streamlabs.poll-interval-secs", 30));
+                for (UUID playerId : pollScheduler.viewers().values()) {
+                    pollScheduler.nudge(playerId, now + ThreadLocalRandom.current().nextLong(spreadMs));
+                }
+            }
+        }
 
-        // Keep in-memory cache in sync and apply tiers based on *effective* points
-        playerLoyaltyPoints.put(playerId, pointsToWrite);
-        applyTierIfChanged(playerId, pointsToWrite);
+        @Override
+        public void onDisconnected(String reason, long retryInMs) {
+            pollScheduler.setMinInterval(0, System.currentTimeMillis());
+            String line = "Streamlabs socket " + reason + "; polling normally, retrying in "
+                    + TimeUnit.MILLISECONDS.toSeconds(retryInMs) + "s";
+            if (socketUp.compareAndSet(true, false)) log.warn(line);
+            else log.debug(line);
+        }
     }
 
     /**
-     * Background poller path:
-     * - parses points (minutes may be missing/incorrect here)
-     * - optionally keeps stored value if API returns lower (prefer-stored)
-     * - DOES NOT touch watchMinutes to avoid overwriting CSV imports
+     * Runs every second and fetches whoever the {@link PollScheduler} says is due.
+     * In "bulk" mode any due viewer triggers one page-through of the channel-wide
+     * Cloudbot list that refreshes everybody; otherwise only the due viewers are
+     * requested, through the shared client. Results are diffed against stored values
+     * and only changed players are written.
      */
-    private void fetchLoyaltyPoints(String viewerLoginLower, UUID playerId) {
-        final String channel = plugin.getConfig().getString("streamlabs.channel", "").trim().toLowerCase();
-        if (channel.isEmpty()) {
-            log.warn("Set streamlabs.channel (your Twitch login) in config.yml.");
+    private void runPollTick() {
+        if (pollScheduler.isEmpty()) return;
+        final boolean bulk = "bulk".equalsIgnoreCase(plugin.getConfig().getString("streamlabs.poll-mode", "per-viewer"));
+        if (!(bulk ? isCloudbotAvailable() : client.isAvailable())) {
+            // leave viewers due so they are polled as soon as the circuit lets a probe through
+            log.debug("Loyalty endpoint circuit is open; skipping this poll tick");
             return;
         }
+        final long now = System.currentTimeMillis();
+        final List<PollScheduler.Due> due = pollScheduler.due(now, isChannelLive());
+        if (due.isEmpty()) return;
 
-        final String url = String.format(
-                "https://streamlabs.com/api/v2.0/points/user_points?username=%s&channel=%s&platform=twitch",
-                URLEncoder.encode(viewerLoginLower, StandardCharsets.UTF_8),
-                URLEncoder.encode(channel, StandardCharsets.UTF_8)
-        );
+        if (bulk && !pollRunning.compareAndSet(false, true)) {
+            log.debug("Previous bulk loyalty poll still running; skipping this tick");
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final Map<String, UUID> viewers = new HashMap<>();
+        if (bulk) {
+            viewers.putAll(pollScheduler.viewers());
+        } else {
+            for (PollScheduler.Due d : due) viewers.put(d.login(), d.playerId());
+        }
+        final AtomicInteger requests = new AtomicInteger();
 
+        CompletableFuture<List<LoyaltyUpdate>> cycle;
         try {
-            HttpResponse<String> resp = http.send(
-                    HttpRequest.newBuilder()
-                            .uri(URI.create(url))
-                            .header("Authorization", "Bearer " + tokenManager.getAccessToken())
-                            .header("User-Agent", "StreamLink-Plugin/1.0")
-                            .timeout(Duration.ofSeconds(10))
-                            .GET()
-                            .build(),
-                    HttpResponse.BodyHandlers.ofString()
-            );
-
-            // On 401, try one refresh and retry
-            if (resp.statusCode() == 401 && tokenManager.hasRefreshToken() && tokenManager.refreshIfNeeded()) {
-                resp = http.send(
-                        HttpRequest.newBuilder()
-                                .uri(URI.create(url))
-                                .header("Authorization", "Bearer " + tokenManager.getAccessToken())
-                                .header("User-Agent", "StreamLink-Plugin/1.0")
-                                .timeout(Duration.ofSeconds(10))
-                                .GET()
-                                .build(),
-                        HttpResponse.BodyHandlers.ofString()
-                );
-            }
+            cycle = bulk ? pollBulk(viewers, requests) : pollPerViewer(viewers, requests);
+        } catch (RuntimeException e) {
+            pollRunning.set(false);
+            throw e;
+        }
 
-            if (resp.statusCode() != 200) {
+        cycle.whenComplete((fetched, error) -> {
+            int changed = 0;
+            try {
+                long done = System.currentTimeMillis();
+                Set<UUID> answered = new HashSet<>();
+                if (fetched != null) {
+                    for (LoyaltyUpdate polled : fetched) {
+                        pollScheduler.record(polled.playerId(), polled.points(), done);
+                        answered.add(polled.playerId());
+                    }
+                }
+                for (UUID playerId : viewers.values()) {
+                    if (!answered.contains(playerId)) pollScheduler.retry(playerId, done);
+                }
+
+                if (error != null) {
+                    Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                    log.warn("Loyalty poll failed: " + cause.getMessage());
+                } else {
+                    changed = applyPolledLoyalty(fetched);
+                }
+            } catch (Exception e) {
+                log.warn("Loyalty poll apply failed: " + e.getMessage(), e);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (metrics != null) metrics.recordLoyaltyPoll(requests.get(), changed, elapsed);
                 if (log.isDebugMode()) {
-                    log.debug("Streamlabs points HTTP=" + resp.statusCode() + " body=" + truncate(resp.body(), 200));
+                    log.debug("Loyalty poll: " + viewers.size() + " viewers, " + requests.get() + " requests, "
+                            + changed + " changed in " + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms; "
+                            + pollScheduler.describe());
                 }
-                return;
+                if (bulk) pollRunning.set(false);
             }
+        });
+    }
 
-            // ---- Parse response ----
-            JsonObject root = JsonParser.parseString(resp.body()).getAsJsonObject();
-            int  points  = 0;
-            long minutes = 0L;
-
-            if (root.has("points") && root.get("points").isJsonObject()) {
-                JsonObject wrapper = root.getAsJsonObject("points");
-                if (wrapper.has("data") && wrapper.get("data").isJsonArray() && wrapper.getAsJsonArray("data").size() > 0) {
-                    JsonObject row = wrapper.getAsJsonArray("data").get(0).getAsJsonObject();
-                    if (row.has("points"))        points  = row.get("points").getAsInt();
-                    if (row.has("time_watched"))  minutes = row.get("time_watched").getAsLong(); // minutes
-                }
-            } else if (root.has("data") && root.get("data").isJsonObject()) {
-                JsonObject data = root.getAsJsonObject("data");
-                if (data.has("points"))        points  = data.get("points").getAsInt();
-                if (data.has("time_watched"))  minutes = data.get("time_watched").getAsLong();
+    /**
+     * Whether streamlabs.channel is live, as last seen by the live status check. Only known
+     * while the streamer is linked and on the server; otherwise treated as offline.
+     */
+    private boolean isChannelLive() {
+        final String channel = plugin.getConfig().getString("streamlabs.channel", "").trim();
+        if (channel.isEmpty() || plugin.getLiveStatusManager() == null) return false;
+        UUID streamer = plugin.getDataManager().findPlayerByTwitchLogin(channel);
+        return streamer != null && plugin.getLiveStatusManager().isPlayerLive(streamer);
+    }
+
+    /** Pages the channel-wide Cloudbot list and keeps only the registered viewers. */
+    private CompletableFuture<List<LoyaltyUpdate>> pollBulk(Map<String, UUID> viewers, AtomicInteger requests) {
+        final List<LoyaltyUpdate> out = Collections.synchronizedList(new ArrayList<>());
+        final CloudbotLoyaltyFetcher fetcher = newCloudbotFetcher();
+        return fetcher.fetchAll((page, rows) -> {
+            for (LoyaltyRow row : rows) {
+                UUID playerId = viewers.get(row.login());
+                if (playerId != null) out.add(new LoyaltyUpdate(playerId, row.login(), row.points(), row.minutes()));
             }
+        }).handle((pages, error) -> {
+            requests.addAndGet(fetcher.getRequestCount());
+            if (error != null) throw new CompletionException(error);
+            return out;
+        });
+    }
+
+    /**
+     * Per-viewer mode: every viewer is requested at once through the shared client,
+     * which keeps {@code streamlabs.max-in-flight} on the wire, so a cycle takes roughly
+     * viewers / max-in-flight round trips rather than one round trip per viewer.
+     */
+    private CompletableFuture<List<LoyaltyUpdate>> pollPerViewer(Map<String, UUID> viewers, AtomicInteger requests) {
+        final String channel = plugin.getConfig().getString("streamlabs.channel", "").trim().toLowerCase();
+        if (channel.isEmpty()) {
+            log.warn("Set streamlabs.channel (your Twitch login) in config.yml.");
+            return CompletableFuture.completedFuture(List.of());
+        }
+        final long requestsBefore = client.getRequestCount();
+        final List<LoyaltyUpdate> out = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<?>[] calls = viewers.entrySet().stream()
+                .map(e -> client.fetchUserPoints(channel, e.getKey(), RateGovernor.Priority.BACKGROUND)
+                        .thenAccept(up -> out.add(new LoyaltyUpdate(e.getValue(), up.login(), up.points(), up.minutes())))
+                        .exceptionally(ex -> {
+                            if (log.isDebugMode()) log.debug("Streamlabs fetch error for " + e.getKey() + ": " + describe(ex));
+                            return null;
+                        }))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(calls).thenApply(v -> {
+            requests.addAndGet((int) (client.getRequestCount() - requestsBefore));
+            return out;
+        });
+    }
+
+    /**
+     * Merge polled values with what is stored (honouring prefer-stored) and write
+     * only the players that actually changed, in one batch. Every API result goes
+     * through here on the thread that received it; the merge itself runs under the
+     * data manager's import lock.
+     *
+     * @return number of players written
+     */
+    private int applyPolledLoyalty(List<LoyaltyUpdate> fetched) {
+        final boolean preferStored = plugin.getConfig().getBoolean("streamlabs.prefer-stored", true);
+        return plugin.getDataManager().mergePolledLoyalty(fetched, preferStored,
+                won -> playerLoyaltyPoints.put(won.playerId(), won.points())).size();
+    }
+
+    /** Single-viewer form of {@link #applyPolledLoyalty}; @return the values that won */
+    private LoyaltyUpdate persistLoyalty(UUID playerId, LoyaltyRow polled) {
+        final boolean preferStored = plugin.getConfig().getBoolean("streamlabs.prefer-stored", true);
+        final LoyaltyUpdate[] won = new LoyaltyUpdate[1];
+        plugin.getDataManager().mergePolledLoyalty(
+                List.of(new LoyaltyUpdate(playerId, polled.login(), polled.points(), polled.minutes())), preferStored,
+                merged -> {
+                    playerLoyaltyPoints.put(playerId, merged.points());
+                    won[0] = merged;
+                });
+        return won[0];
+    }
 
-            final int  finalPoints  = points;
-            final long finalMinutes = minutes;
+    /**
+     * Background poller path for a single viewer (used on link/join):
+     * - optionally keeps stored value if API returns lower (prefer-stored)
+     */
+    private void fetchLoyaltyPoints(String viewerLoginLower, UUID playerId) {
+        final String channel = plugin.getConfig().getString("streamlabs.channel", "").trim().toLowerCase();
+        if (channel.isEmpty()) {
+            log.warn("Set streamlabs.channel (your Twitch login) in config.yml.");
+            return;
+        }
 
-            // Do state updates on main thread; persistLoyalty should respect streamlabs.prefer-stored
+        client.fetchUserPoints(channel, viewerLoginLower, RateGovernor.Priority.BACKGROUND).whenComplete((up, error) -> {
+            if (error != null) {
+                if (log.isDebugMode()) log.debug("Streamlabs fetch error for " + viewerLoginLower + ": " + describe(error));
+                return;
+            }
+            // merge and write here like the poller does; only the permission update needs the main thread
+            final LoyaltyUpdate won = persistLoyalty(playerId, up);
             Bukkit.getScheduler().runTask(plugin, () -> {
-                persistLoyalty(playerId, finalPoints, finalMinutes);
+                applyTierIfChanged(playerId, won.points());
                 if (log.isDebugMode()) {
                     log.debug("SL points viewer=" + viewerLoginLower +
-                            " -> new=" + finalPoints + " (" + finalMinutes + " min)" +
+                            " -> new=" + up.points() + " (" + up.minutes() + " min)" +
                             " preferStored=" + plugin.getConfig().getBoolean("streamlabs.prefer-stored", true));
                 }
             });
-
-            if (log.isDebugMode()) {
-                log.debug("SL points viewer=" + viewerLoginLower + " -> " + points);
-            }
-        } catch (Exception e) {
-            if (log.isDebugMode()) log.debug("Streamlabs fetch error for " + viewerLoginLower + ": " + e.getMessage());
-        }
+        });
     }
 
     /**
      * One-shot fetch used by /streamlink points:
      * - writes points and minutes if present
+     * - goes through the shared client, so it never waits for a polling cycle to finish
      */
     public void fetchPointsOnce(Player player, String twitchViewerName) {
         if (!isApiSource()) {
@@ -249,117 +463,131 @@ public class StreamLabsManager extends ManagerBase {
 
         final String viewer = twitchViewerName.toLowerCase();
         final UUID playerId = player.getUniqueId();
-        final String url = String.format(
-                "https://streamlabs.com/api/v2.0/points/user_points?username=%s&channel=%s&platform=twitch",
-                URLEncoder.encode(viewer, StandardCharsets.UTF_8),
-                URLEncoder.encode(channel, StandardCharsets.UTF_8)
-        );
-
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                String token = tokenManager.getAccessToken();
-                if (log.isDebugMode()) {
-                    log.debug("fetchPointsOnce url=" + url);
-                    log.debug("token len=" + (token == null ? 0 : token.length()));
-                }
 
-                HttpRequest req = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .header("Authorization", "Bearer " + token)
-                        .header("Accept", "application/json")
-                        .header("User-Agent", "StreamLink-Plugin/1.0")
-                        .timeout(Duration.ofSeconds(10))
-                        .GET()
-                        .build();
-
-                HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
-                int code = resp.statusCode();
-                String body = resp.body();
-
-                if ((code == 401 || code == 302) && tokenManager.hasRefreshToken() && tokenManager.refreshIfNeeded()) {
-                    token = tokenManager.getAccessToken();
-                    req = HttpRequest.newBuilder()
-                            .uri(URI.create(url))
-                            .header("Authorization", "Bearer " + token)
-                            .header("Accept", "application/json")
-                            .header("User-Agent", "StreamLink-Plugin/1.0")
-                            .timeout(Duration.ofSeconds(10))
-                            .GET()
-                            .build();
-                    resp = http.send(req, HttpResponse.BodyHandlers.ofString());
-                    code = resp.statusCode();
-                    body = resp.body();
-                }
-
-                if (log.isDebugMode()) {
-                    log.debug("Streamlabs points HTTP=" + code + " body=" +
-                            (body == null ? "" : (body.length() > 200 ? body.substring(0, 200) + "..." : body)));
+        client.fetchUserPoints(channel, viewer, RateGovernor.Priority.INTERACTIVE).whenComplete((up, error) -> {
+            if (error != null) {
+                final String msg = describe(error);
+                Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage("§cStreamLabs request failed: " + msg));
+                Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                if (cause instanceof TwitchAPIException && msg != null && msg.startsWith("HTTP 302")) {
+                    log.warn("Got 302 from Streamlabs API. This usually means the Authorization header was not accepted.");
+                    log.warn("Double-check the token has 'points.read' scope and matches the one that works in curl/PowerShell.");
                 }
+                if (log.isDebugMode()) log.debug("StreamLabs fetch error for " + viewer + ": " + msg);
+                return;
+            }
 
-                if (code != 200) {
-                    final int fCode = code;
-                    final String fBody = (body == null) ? "" : (body.length() > 140 ? body.substring(0,140) + "..." : body);
-                    Bukkit.getScheduler().runTask(plugin, () ->
-                            player.sendMessage("§cStreamLabs error (" + fCode + "): " + fBody)
-                    );
-                    if (code == 302) {
-                        log.warn("Got 302 from Streamlabs API. This usually means the Authorization header was not accepted.");
-                        log.warn("Double-check the token has 'points.read' scope and matches the one that works in curl/PowerShell.");
-                    }
-                    return;
-                }
+            // Persist honoring prefer-stored; show the player what actually “won”
+            final LoyaltyUpdate won = persistLoyalty(playerId, up);
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                applyTierIfChanged(playerId, won.points());
 
-                // Parse body
-                JsonObject root = JsonParser.parseString(body).getAsJsonObject();
-                int points = 0;
-                long minutes = 0;
-
-                if (root.has("points") && root.get("points").isJsonObject()) {
-                    JsonObject wrapper = root.getAsJsonObject("points");
-                    if (wrapper.has("data") && wrapper.get("data").isJsonArray() && wrapper.getAsJsonArray().size() > 0) {
-                        JsonObject row = wrapper.getAsJsonArray("data").get(0).getAsJsonObject();
-                        if (row.has("points"))       points  = row.get("points").getAsInt();
-                        if (row.has("time_watched")) minutes = row.get("time_watched").getAsLong();
-                    }
-                } else if (root.has("data") && root.get("data").isJsonObject()) {
-                    JsonObject data = root.getAsJsonObject("data");
-                    if (data.has("points"))       points  = data.get("points").getAsInt();
-                    if (data.has("time_watched")) minutes = data.get("time_watched").getAsLong();
-                }
+                player.sendMessage("§6§lStreamLabs §7→ §ePoints: §a" + won.points() +
+                        " §7| §eWatch time: §a" + String.format("%.1f", won.minutes() / 60.0) + "h" +
+                        (plugin.getConfig().getBoolean("streamlabs.prefer-stored", true) ? " §7(Prefer stored)" : ""));
+            });
 
-                final int finalPoints = points;
-                final long finalMinutes = minutes;
+            if (log.isDebugMode()) {
+                log.debug("SL points viewer=" + viewer + " -> " + up.points() + " (" + up.minutes() + " min)");
+            }
+        });
+    }
 
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                    // Persist honoring prefer-stored
-                    persistLoyalty(playerId, finalPoints, finalMinutes);
+    /* ------------------------- Cloudbot bulk ------------------------- */
 
-                    // Read back what actually “won” and show that to the player
-                    var pd = plugin.getDataManager().getPlayerData(playerId);
-                    int effectivePoints = (pd != null) ? pd.getLoyaltyPoints() : finalPoints;
-                    long effectiveMinutes = (pd != null) ? pd.getWatchMinutes() : finalMinutes;
 
-                    player.sendMessage("§6§lStreamLabs §7→ §ePoints: §a" + effectivePoints +
-                            " §7| §eWatch time: §a" + String.format("%.1f", effectiveMinutes / 60.0) + "h" +
-                            (plugin.getConfig().getBoolean("streamlabs.prefer-stored", true) ? " §7(Prefer stored)" : ""));
-                });
+    /**
+     * Server-side replacement for the README bookmarklet: pulls every page of the
+     * Cloudbot loyalty list, a few pages at a time, and feeds each page into the
+     * same apply path as a CSV import as soon as it arrives. Viewers who are not
+     * linked yet are staged once the last page is in, exactly like CSV rows.
+     *
+     * @param progress receives a status line every few pages; may be null
+     * @return completes with a summary line; never completes exceptionally
+     */
+    public CompletableFuture<String> syncCloudbotLoyalty(boolean dryRun, Consumer<String> progress) {
+        if (!hasLoyaltyPointsAccess()) {
+            return CompletableFuture.completedFuture("Cloudbot sync needs streamlabs.access-token in config.yml.");
+        }
+        if (!cloudbotSyncRunning.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture("A Cloudbot sync is already running.");
+        }
 
-                if (log.isDebugMode()) {
-                    log.debug("SL points viewer=" + viewer + " -> " + points + " (" + minutes + " min)");
+        final var dm = plugin.getDataManager();
+        final long start = System.currentTimeMillis();
+
+        final List<LoyaltyUpdate> unlinked = new ArrayList<>();
+        final AtomicInteger rows = new AtomicInteger();
+        final AtomicInteger applied = new AtomicInteger();
+        final AtomicInteger tierChanges = new AtomicInteger();
+        final AtomicInteger pagesSeen = new AtomicInteger();
+
+        return newCloudbotFetcher().fetchAll((page, pageRows) -> {
+            List<LoyaltyUpdate> updates = new ArrayList<>(pageRows.size());
+            List<LoyaltyUpdate> pageUnlinked = new ArrayList<>();
+            for (LoyaltyRow row : pageRows) {
+                UUID playerId = dm.findPlayerByTwitchLogin(row.login());
+                if (playerId != null) {
+                    updates.add(new LoyaltyUpdate(playerId, row.login(), row.points(), row.minutes()));
+                } else {
+                    pageUnlinked.add(new LoyaltyUpdate(null, row.login(), row.points(), row.minutes()));
                 }
+            }
+            rows.addAndGet(pageRows.size());
+            synchronized (unlinked) {
+                unlinked.addAll(pageUnlinked);
+            }
+            if (!dryRun && !updates.isEmpty()) {
+                List<PointsChange> changes = dm.applyLoyaltyBatch(updates);
+                for (PointsChange change : changes) playerLoyaltyPoints.put(change.playerId(), change.newPoints());
+                tierChanges.addAndGet(dm.reapplyLoyaltyTiers(changes));
+            }
+            applied.addAndGet(updates.size());
 
-            } catch (Exception e) {
-                final String msg = e.getMessage();
-                Bukkit.getScheduler().runTask(plugin, () ->
-                        player.sendMessage("§cStreamLabs request failed: " + msg)
-                );
-                if (log.isDebugMode()) {
-                    log.debug("StreamLabs fetch error for " + viewer + ": " + msg);
-                }
+            int seen = pagesSeen.incrementAndGet();
+            if (progress != null && seen % 10 == 0) {
+                progress.accept("Cloudbot sync: " + seen + " pages, " + rows.get() + " viewers so far");
             }
+        }).handle((pages, error) -> {
+            // fetchAll completes only after every lane has stopped, so no page can still be applying
+            cloudbotSyncRunning.set(false);
+            long elapsed = System.currentTimeMillis() - start;
+            if (error != null) {
+                Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                log.warn("Cloudbot loyalty sync failed after " + pagesSeen.get() + " pages: " + cause.getMessage());
+                return "Cloudbot sync failed after " + pagesSeen.get() + " pages (" + applied.get()
+                        + " players updated): " + cause.getMessage();
+            }
+            // only a complete listing may replace the staged rows
+            if (!dryRun) dm.stagePendingLoyalty(unlinked);
+
+            String summary = (dryRun ? "[DRY-RUN] " : "") + "Cloudbot sync: " + pages + " pages, "
+                    + rows.get() + " viewers, " + applied.get() + " linked"
+                    + (dryRun ? "" : ", " + tierChanges.get() + " tier changes")
+                    + ", " + unlinked.size() + " not linked" + (dryRun ? "" : " (staged)")
+                    + " in " + elapsed + "ms";
+            log.info(summary);
+            return summary;
         });
     }
 
+    private CloudbotLoyaltyFetcher newCloudbotFetcher() {
+        return new CloudbotLoyaltyFetcher(http, plugin.getRateGovernor(), plugin.getCircuitBreaker(), cloudbotUrl(),
+                tokenManager::getAccessToken,
+                tokenManager::refresh,
+                plugin.getConfig().getInt("streamlabs.cloudbot.concurrency", 4),
+                Duration.ofSeconds(15));
+    }
+
+    private String cloudbotUrl() {
+        return plugin.getConfig().getString("streamlabs.cloudbot.url", "https://streamlabs.com/api/v5/cloudbot/loyalty");
+    }
+
+    /** Same check as {@link CloudbotLoyaltyFetcher#isAvailable()}, without building a fetcher every tick. */
+    private boolean isCloudbotAvailable() {
+        return plugin.getCircuitBreaker().isAvailable(CircuitBreaker.endpoint(URI.create(cloudbotUrl())));
+    }
+
     public boolean forceRefreshTokens() {
         if (tokenManager == null) return false;
         return tokenManager.refreshIfNeeded();
@@ -371,17 +599,59 @@ public class StreamLabsManager extends ManagerBase {
         Player player = Bukkit.getPlayer(playerId);
         if (player == null || !player.isOnline()) return;
 
-        int tier1 = plugin.getConfig().getInt("streamlabs.loyalty-tiers.tier1", 100);
-        int tier2 = plugin.getConfig().getInt("streamlabs.loyalty-tiers.tier2", 1000);
-        int tier3 = plugin.getConfig().getInt("streamlabs.loyalty-tiers.tier3", 5000);
-        int tier4 = plugin.getConfig().getInt("streamlabs.loyalty-tiers.tier4", 10000);
+        applyTier(player, tierFor(points, tierThresholds()));
+    }
 
-        int tier = 0;
-        if (points >= tier4) tier = 4;
-        else if (points >= tier3) tier = 3;
-        else if (points >= tier2) tier = 2;
-        else if (points >= tier1) tier = 1;
+    /**
+     * Bulk path used after a CSV import: works out which online players actually
+     * crossed a tier boundary and applies only those, a few per tick on the main
+     * thread, so a large import does not fire thousands of permission saves at once.
+     *
+     * @return number of tier changes queued
+     */
+    public int queueTierChanges(Collection<PointsChange> changes) {
+        int[] thresholds = tierThresholds();
+        int queued = 0;
+        for (PointsChange change : changes) {
+            int newTier = tierFor(change.newPoints(), thresholds);
+            if (tierFor(change.oldPoints(), thresholds) == newTier) continue;
+            if (Bukkit.getPlayer(change.playerId()) == null) continue;
+
+            if (pendingTiers.put(change.playerId(), newTier) == null) {
+                tierQueue.add(change.playerId());
+            }
+            queued++;
+        }
+        if (queued > 0) startTierDrain();
+        return queued;
+    }
 
+    private void startTierDrain() {
+        if (!tierDrainRunning.compareAndSet(false, true)) return;
+        final int perTick = Math.max(1, plugin.getConfig().getInt("streamlabs.tier-updates-per-tick", 10));
+
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < perTick; i++) {
+                    UUID playerId = tierQueue.poll();
+                    if (playerId == null) {
+                        cancel();
+                        tierDrainRunning.set(false);
+                        // something may have been queued between poll() and set(false)
+                        if (!tierQueue.isEmpty()) startTierDrain();
+                        return;
+                    }
+                    Integer tier = pendingTiers.remove(playerId);
+                    Player player = Bukkit.getPlayer(playerId);
+                    if (tier != null && player != null) applyTier(player, tier);
+                }
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    private void applyTier(Player player, int tier) {
+        UUID playerId = player.getUniqueId();
         Integer last = lastAppliedTier.get(playerId);
         if (last != null && last == tier) return; // no change
 
@@ -400,11 +670,29 @@ public class StreamLabsManager extends ManagerBase {
         lastAppliedTier.put(playerId, tier);
     }
 
+    private int[] tierThresholds() {
+        return new int[]{
+                plugin.getConfig().getInt("streamlabs.loyalty-tiers.tier1", 100),
+                plugin.getConfig().getInt("streamlabs.loyalty-tiers.tier2", 1000),
+                plugin.getConfig().getInt("streamlabs.loyalty-tiers.tier3", 5000),
+                plugin.getConfig().getInt("streamlabs.loyalty-tiers.tier4", 10000)
+        };
+    }
+
+    private static int tierFor(int points, int[] thresholds) {
+        for (int tier = thresholds.length; tier > 0; tier--) {
+            if (points >= thresholds[tier - 1]) return tier;
+        }
+        return 0;
+    }
+
     /* ---------------------------- utils ---------------------------- */
 
-    private static String truncate(String s, int max) {
-        if (s == null) return "";
-        return s.length() <= max ? s : s.substring(0, max) + "...";
+    /** Message of the root cause of a failed future. */
+    private static String describe(Throwable error) {
+        Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+        if (cause instanceof TimeoutException) return "request timed out";
+        return cause.getMessage();
     }
 }
 
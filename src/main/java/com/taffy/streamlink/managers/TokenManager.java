@@ -2,18 +2,30 @@ package com.taffy.streamlink.managers;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.taffy.streamlink.api.HttpTransport;
 import com.taffy.streamlink.streamlink;
+import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streamlabs OAuth tokens, refreshed through the OAuth helper.
+ *
+ * The expiry reported with each refresh ({@code expires_in}) is kept in
+ * {@code streamlabs.token-expires-at}, and {@link #startAutoRefresh} refreshes ahead of
+ * it. Refreshes never block: every caller that needs one at the same time gets the
+ * same future, and new tokens are written to config on the main thread.
+ */
 public class TokenManager {
-    private final HttpClient http;
+    private final HttpTransport http;
     private final FileConfiguration config;
     private final Runnable saveConfig; // pass plugin::saveConfig
     private final streamlink plugin;
@@ -21,15 +33,18 @@ public class TokenManager {
     private volatile String accessToken;
     private volatile String refreshToken;
     private volatile String oauthHelperBase; // e.g., https://your-worker.workers.dev
+    private volatile long expiresAtMs;       // 0 = unknown
 
-    // refresh backoff
+    // the refresh in progress, if any; everyone who needs one shares it
+    private final AtomicReference<CompletableFuture<Boolean>> inFlight = new AtomicReference<>();
+    private final AtomicBoolean saveQueued = new AtomicBoolean(false);
     private volatile long lastRefreshAttemptMs = 0L;
+    private volatile long lastRefreshOkMs = 0L;
+    // a failed refresh is not retried sooner than this
     private static final long MIN_REFRESH_INTERVAL_MS = 5_000L; // 5s
 
     public TokenManager(streamlink plugin, FileConfiguration config, Runnable saveConfig) {
-        this.http = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this.http = plugin.getHttpTransport();
         this.plugin = plugin;
         this.config = config;
         this.saveConfig = saveConfig;
@@ -58,23 +73,27 @@ public class TokenManager {
         return oauthHelperBase != null && !oauthHelperBase.isEmpty();
     }
 
+    /** Epoch millis the access token expires at, or 0 if unknown. */
+    public long getExpiresAt() {
+        return expiresAtMs;
+    }
+
     public void reloadFromConfig() {
         this.accessToken     = value("streamlabs.access-token");
         this.refreshToken    = value("streamlabs.refresh-token");
         this.oauthHelperBase = value("streamlabs.oauth-helper");
+        this.expiresAtMs     = config.getLong("streamlabs.token-expires-at", 0L);
     }
 
     /** Persist both tokens to config and memory. */
     public void setTokens(String newAccess, String newRefresh) {
-        if (newAccess != null && !newAccess.isEmpty()) {
-            this.accessToken = newAccess;
-            config.set("streamlabs.access-token", newAccess);
-        }
-        if (newRefresh != null && !newRefresh.isEmpty()) {
-            this.refreshToken = newRefresh;
-            config.set("streamlabs.refresh-token", newRefresh);
-        }
-        saveConfig.run();
+        updateTokens(newAccess, newRefresh, 0L);
+        persist();
+    }
+
+    /** Writes any tokens not yet saved; call on shutdown, from the main thread. */
+    public void flush() {
+        if (saveQueued.get()) persist();
     }
 
     private String value(String path) {
@@ -82,59 +101,133 @@ public class TokenManager {
         return (v == null) ? "" : v.trim();
     }
 
+    // memory first, so requests pick the new token up at once; config is written separately
+    private synchronized void updateTokens(String newAccess, String newRefresh, long newExpiresAt) {
+        if (newAccess != null && !newAccess.isEmpty()) this.accessToken = newAccess;
+        if (newRefresh != null && !newRefresh.isEmpty()) this.refreshToken = newRefresh;
+        this.expiresAtMs = newExpiresAt;
+    }
+
+    // guarded by the main thread (or the only thread during shutdown)
+    private void persist() {
+        saveQueued.set(false);
+        config.set("streamlabs.access-token", accessToken);
+        config.set("streamlabs.refresh-token", refreshToken);
+        config.set("streamlabs.token-expires-at", expiresAtMs > 0 ? expiresAtMs : null);
+        saveConfig.run();
+    }
+
+    private void persistLater() {
+        if (!saveQueued.compareAndSet(false, true)) return;
+        try {
+            Bukkit.getScheduler().runTask(plugin, this::persist);
+        } catch (IllegalStateException e) {
+            // plugin is disabling; flush() writes it
+        }
+    }
+
     /* ---------------- refresh flow ---------------- */
 
     /**
-     * Caller decides WHEN to refresh (e.g., after 401). This method:
-     * - debounces rapid calls
-     * - returns false if missing config/refresh token
-     * - updates access/refresh in memory + config if successful
+     * Checks once a minute whether the access token expires within
+     * {@code streamlabs.token-refresh-skew-secs} and refreshes it in the background if so.
+     * Does nothing until an expiry is known (i.e. after the first refresh).
+     */
+    public void startAutoRefresh() {
+        refreshIfExpiring();
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::refreshIfExpiring, 20L * 60, 20L * 60);
+    }
+
+    private void refreshIfExpiring() {
+        long expiresAt = expiresAtMs;
+        if (expiresAt <= 0 || !hasRefreshToken() || !isConfigured()) return;
+        long skewMs = 1000L * Math.max(30, plugin.getConfig().getLong("streamlabs.token-refresh-skew-secs", 300));
+        if (System.currentTimeMillis() < expiresAt - skewMs) return;
+        refresh().thenAccept(ok -> {
+            if (!ok) plugin.getLogger().warning("[StreamLink] Proactive Streamlabs token refresh failed; will retry.");
+        });
+    }
+
+    /**
+     * Refreshes the tokens, or joins the refresh already running. Completes with true when a
+     * newer token than the one the caller used is available, including one that arrived moments
+     * ago (the caller's request simply raced it). Never completes exceptionally.
      */
-    public synchronized boolean refreshIfNeeded() {
+    public CompletableFuture<Boolean> refresh() {
+        while (true) {
+            CompletableFuture<Boolean> running = inFlight.get();
+            if (running != null) return running;
+
+            long now = System.currentTimeMillis();
+            if (now - lastRefreshOkMs < MIN_REFRESH_INTERVAL_MS) return CompletableFuture.completedFuture(true);
+            if (now - lastRefreshAttemptMs < MIN_REFRESH_INTERVAL_MS) return CompletableFuture.completedFuture(false);
+
+            CompletableFuture<Boolean> mine = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, mine)) continue;
+            lastRefreshAttemptMs = now;
+            startRefresh().whenComplete((ok, error) -> {
+                boolean success = error == null && Boolean.TRUE.equals(ok);
+                if (error != null) {
+                    Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+                    plugin.getLogger().warning("[StreamLink] Refresh exception: " + cause.getMessage());
+                }
+                if (success) lastRefreshOkMs = System.currentTimeMillis();
+                inFlight.set(null);
+                mine.complete(success);
+            });
+            return mine;
+        }
+    }
+
+    /**
+     * Blocking form of {@link #refresh()} for callers that are already off the main thread
+     * (e.g. a command running async).
+     */
+    public boolean refreshIfNeeded() {
+        return refresh().join();
+    }
+
+    private CompletableFuture<Boolean> startRefresh() {
         // sanity checks
         if (!hasRefreshToken()) {
             plugin.getLogger().warning("[StreamLink] No refresh token; cannot refresh.");
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         if (!isConfigured()) {
             plugin.getLogger().warning("[StreamLink] Missing streamlabs.oauth-helper in config.yml");
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
-        // debounce multiple callers
-        long now = System.currentTimeMillis();
-        if (now - lastRefreshAttemptMs < MIN_REFRESH_INTERVAL_MS) {
-            return false;
-        }
-        lastRefreshAttemptMs = now;
+        String url = oauthHelperBase.endsWith("/")
+                ? oauthHelperBase + "token/refresh"
+                : oauthHelperBase + "/token/refresh";
 
-        try {
-            String url = oauthHelperBase.endsWith("/")
-                    ? oauthHelperBase + "token/refresh"
-                    : oauthHelperBase + "/token/refresh";
-
-            String body = "{\"refresh_token\":\"" + escapeJson(refreshToken) + "\"}";
-
-            HttpRequest req = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(15))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
-                    .build();
+        String body = "{\"refresh_token\":\"" + escapeJson(refreshToken) + "\"}";
 
-            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
+        HttpRequest req = http.request(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
 
+        return http.send(req).thenApply(resp -> {
             if (resp.statusCode() != 200) {
                 plugin.getLogger().warning("[StreamLink] Refresh failed: HTTP "
-                        + resp.statusCode() + " body=" + truncate(resp.body(), 300));
+                        + resp.statusCode() + " body=" + HttpTransport.snippet(resp, 300));
                 return false;
             }
 
-            JsonObject json = JsonParser.parseString(resp.body()).getAsJsonObject();
+            JsonObject json;
+            try {
+                json = JsonParser.parseString(HttpTransport.readString(resp)).getAsJsonObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
             String newAccess  = json.has("access_token")  && !json.get("access_token").isJsonNull()
                     ? json.get("access_token").getAsString() : null;
             String newRefresh = json.has("refresh_token") && !json.get("refresh_token").isJsonNull()
                     ? json.get("refresh_token").getAsString() : null;
+            long expiresIn = json.has("expires_in") && json.get("expires_in").isJsonPrimitive()
+                    ? json.get("expires_in").getAsLong() : 0L;
 
             if ((newAccess == null || newAccess.isEmpty()) &&
                     (newRefresh == null || newRefresh.isEmpty())) {
@@ -142,18 +235,12 @@ public class TokenManager {
                 return false;
             }
 
-            setTokens(newAccess, newRefresh);
-            plugin.getLogger().info("[StreamLink] Streamlabs token refresh: OK");
+            updateTokens(newAccess, newRefresh, expiresIn > 0 ? System.currentTimeMillis() + expiresIn * 1000L : 0L);
+            persistLater();
+            plugin.getLogger().info("[StreamLink] Streamlabs token refresh: OK"
+                    + (expiresIn > 0 ? " (expires in " + (expiresIn / 60) + " min)" : ""));
             return true;
-
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            plugin.getLogger().warning("[StreamLink] Refresh interrupted.");
-            return false;
-        } catch (Exception e) {
-            plugin.getLogger().warning("[StreamLink] Refresh exception: " + e.getMessage());
-            return false;
-        }
+        });
     }
 
     /* ---------------- utils ---------------- */
@@ -162,9 +249,4 @@ public class TokenManager {
         if (s == null) return "";
         return s.replace("\\", "\\\\").replace("\"", "\\\"");
     }
-
-    private static String truncate(String s, int max) {
-        if (s == null) return "";
-        return s.length() <= max ? s : s.substring(0, max) + "...";
-    }
 }
\ No newline at end of file
@@ -44,9 +44,10 @@ public class UniversalPermissionManager extends ManagerBase {
         }
     }
 
-    public void applyTwitchRank(Player player, String accessToken) {
+    public void applyTwitchRank(Player player, String twitchId) {
         try {
-            String broadcasterType = plugin.getTwitchAPI().getBroadcasterType(accessToken);
+            // public user info, read with the app token
+            String broadcasterType = plugin.getTwitchAPI().getCachedUserInfo(twitchId).broadcasterType();
 
             // Remove any previous Twitch permissions first
             removeSecondaryGroupsOnly(player);
@@ -70,10 +71,10 @@ public class UniversalPermissionManager extends ManagerBase {
         }
     }
 
-    public void applyTwitchRankAsync(Player player, String accessToken) {
+    public void applyTwitchRankAsync(Player player, String twitchId) {
         Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
             try {
-                applyTwitchRank(player, accessToken);
+                applyTwitchRank(player, twitchId);
             } catch (Exception e) {
                 log.warn("Async permission error: " + e.getMessage());
             }
@@ -11,6 +11,7 @@ public class PlayerData {
     private boolean isLive;
     private int loyaltyPoints;
     private long watchMinutes;
+    private long linkedAt;
 
     public PlayerData(UUID playerId) {
         this.playerId = playerId;
@@ -31,6 +32,9 @@ public class PlayerData {
     public void setLoyaltyPoints(int loyaltyPoints) { this.loyaltyPoints = loyaltyPoints; }
     public long getWatchMinutes() { return watchMinutes; }
     public void setWatchMinutes(long minutes) { this.watchMinutes = minutes; }
+    /** Epoch millis when the current Twitch account was linked; 0 if unknown (linked before this was tracked). */
+    public long getLinkedAt() { return linkedAt; }
+    public void setLinkedAt(long linkedAt) { this.linkedAt = linkedAt; }
 
     public boolean isLinked() {
         return twitchId != null && !twitchId.isEmpty()
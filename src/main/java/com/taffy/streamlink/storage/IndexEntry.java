@@ -0,0 +1,7 @@
+package com.taffy.streamlink.storage;
+
+import java.util.UUID;
+
+/** Resident, token-free view of a stored player: enough to find the record and match it to Twitch. */
+public record IndexEntry(UUID playerId, String twitchId, String twitchUsername) {
+}
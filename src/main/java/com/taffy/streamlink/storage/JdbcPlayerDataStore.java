@@ -0,0 +1,318 @@
+package com.taffy.streamlink.storage;
+
+import com.taffy.streamlink.exceptions.StorageException;
+import com.taffy.streamlink.managers.LogManager;
+import com.taffy.streamlink.models.PlayerData;
+
+import java.io.File;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Embedded database store. Uses the SQLite driver bundled with Paper/Spigot by
+ * default; an H2 URL also works if the H2 driver is added to the server. The
+ * upsert is written in each of those dialects, so other databases are refused.
+ *
+ * One connection is held open for the plugin lifetime and every statement is
+ * prepared once and reused. Flushes are written as a single batched transaction.
+ */
+public class JdbcPlayerDataStore implements PlayerDataStore {
+    private static final String TABLE = "streamlink_players";
+    // rows per page when scanning the whole table; the lock is released between pages
+    private static final int PAGE_SIZE = 500;
+
+    private final String name;
+    private final String url;
+    private final File dataFile;
+    private final LogManager log;
+
+    // guarded by this
+    private Connection connection;
+    private PreparedStatement upsertStmt;
+    private PreparedStatement deleteStmt;
+    private PreparedStatement selectOneStmt;
+    private PreparedStatement selectPageStmt;
+
+    /** @param dataFile the database file for sqlite/h2 (used for backups); may be null for other URLs */
+    public JdbcPlayerDataStore(String name, String url, File dataFile, LogManager log) {
+        this.name = name;
+        this.url = url;
+        this.dataFile = dataFile;
+        this.log = log;
+    }
+
+    public static JdbcPlayerDataStore sqlite(File dataFolder, LogManager log) {
+        File db = new File(dataFolder, "playerdata.db");
+        return new JdbcPlayerDataStore("sqlite", "jdbc:sqlite:" + db.getAbsolutePath(), db, log);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public synchronized void open() throws StorageException {
+        try {
+            connection = DriverManager.getConnection(url);
+            String product = connection.getMetaData().getDatabaseProductName().toLowerCase();
+            boolean sqlite = product.contains("sqlite");
+            if (!sqlite && !product.contains("h2")) {
+                throw new SQLException("unsupported database '" + product + "' (sqlite or h2 only)");
+            }
+
+            try (Statement st = connection.createStatement()) {
+                if (sqlite) {
+                    st.execute("PRAGMA journal_mode=WAL");
+                    st.execute("PRAGMA synchronous=NORMAL");
+                }
+                st.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                        + "uuid CHAR(36) NOT NULL PRIMARY KEY, "
+                        + "twitch_id VARCHAR(32), "
+                        + "twitch_username VARCHAR(64), "
+                        + "access_token VARCHAR(512), "
+                        + "refresh_token VARCHAR(512), "
+                        + "is_live BOOLEAN NOT NULL DEFAULT FALSE, "
+                        + "loyalty_points INT NOT NULL DEFAULT 0, "
+                        + "watch_minutes BIGINT NOT NULL DEFAULT 0, "
+                        + "linked_at BIGINT NOT NULL DEFAULT 0)");
+                if (!hasColumn("linked_at")) {
+                    st.execute("ALTER TABLE " + TABLE + " ADD COLUMN linked_at BIGINT NOT NULL DEFAULT 0");
+                }
+                st.execute("CREATE INDEX IF NOT EXISTS idx_" + TABLE + "_twitch_id ON " + TABLE + " (twitch_id)");
+                st.execute("CREATE INDEX IF NOT EXISTS idx_" + TABLE + "_twitch_username ON " + TABLE + " (twitch_username)");
+            }
+
+            String columns = "uuid, twitch_id, twitch_username, access_token, refresh_token, is_live, loyalty_points, watch_minutes, linked_at";
+            upsertStmt = connection.prepareStatement(sqlite
+                    ? "INSERT INTO " + TABLE + " (" + columns + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                        + "ON CONFLICT(uuid) DO UPDATE SET twitch_id = excluded.twitch_id, "
+                        + "twitch_username = excluded.twitch_username, access_token = excluded.access_token, "
+                        + "refresh_token = excluded.refresh_token, is_live = excluded.is_live, "
+                        + "loyalty_points = excluded.loyalty_points, watch_minutes = excluded.watch_minutes, "
+                        + "linked_at = excluded.linked_at"
+                    : "MERGE INTO " + TABLE + " (" + columns + ") KEY (uuid) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            deleteStmt = connection.prepareStatement("DELETE FROM " + TABLE + " WHERE uuid = ?");
+            selectOneStmt = connection.prepareStatement("SELECT " + columns + " FROM " + TABLE + " WHERE uuid = ?");
+            selectPageStmt = connection.prepareStatement("SELECT " + columns + " FROM " + TABLE
+                    + " WHERE uuid > ? ORDER BY uuid LIMIT " + PAGE_SIZE);
+
+            connection.setAutoCommit(false);
+            log.info("Player data store opened: " + product + " (" + url + ")");
+        } catch (SQLException e) {
+            close();
+            throw new StorageException("Could not open database " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized boolean isEmpty() throws StorageException {
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT 1 FROM " + TABLE + " LIMIT 1")) {
+            return !rs.next();
+        } catch (SQLException e) {
+            throw new StorageException("Query failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized Map<UUID, PlayerData> loadAll() throws StorageException {
+        Map<UUID, PlayerData> out = new HashMap<>();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT uuid, twitch_id, twitch_username, access_token, refresh_token, "
+                     + "is_live, loyalty_points, watch_minutes, linked_at FROM " + TABLE)) {
+            while (rs.next()) {
+                PlayerData data = read(rs);
+                if (data != null) out.put(data.getPlayerId(), data);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new StorageException("Could not load players: " + e.getMessage(), e);
+        }
+        return out;
+    }
+
+    /**
+     * Keyset-paged scan: each page is read under the lock, but {@code action} runs without it,
+     * so flushes and {@link #load(UUID)} are not held up for the length of the scan.
+     */
+    @Override
+    public void forEach(Consumer<PlayerData> action) throws StorageException {
+        List<PlayerData> page = new ArrayList<>(PAGE_SIZE);
+        String after = "";
+        while (after != null) {
+            page.clear();
+            after = readPage(after, page);
+            page.forEach(action);
+        }
+    }
+
+    /** @return the last key read, or null if this was the last page */
+    private synchronized String readPage(String after, List<PlayerData> out) throws StorageException {
+        try {
+            selectPageStmt.setString(1, after);
+            String last = null;
+            int rows = 0;
+            try (ResultSet rs = selectPageStmt.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                    last = rs.getString(1);
+                    PlayerData data = read(rs);
+                    if (data != null) out.add(data);
+                }
+            }
+            connection.commit();
+            return rows < PAGE_SIZE ? null : last;
+        } catch (SQLException e) {
+            throw new StorageException("Could not scan players: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized Collection<IndexEntry> loadIndex() throws StorageException {
+        List<IndexEntry> out = new ArrayList<>();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT uuid, twitch_id, twitch_username FROM " + TABLE)) {
+            while (rs.next()) {
+                try {
+                    out.add(new IndexEntry(UUID.fromString(rs.getString(1)), rs.getString(2), rs.getString(3)));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Invalid UUID in " + TABLE + ": " + rs.getString(1));
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new StorageException("Could not load player index: " + e.getMessage(), e);
+        }
+        return out;
+    }
+
+    @Override
+    public boolean loadsOnDemand() {
+        return true;
+    }
+
+    @Override
+    public synchronized PlayerData load(UUID playerId) throws StorageException {
+        try {
+            selectOneStmt.setString(1, playerId.toString());
+            try (ResultSet rs = selectOneStmt.executeQuery()) {
+                PlayerData data = rs.next() ? read(rs) : null;
+                connection.commit();
+                return data;
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Could not load player " + playerId + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void write(Collection<PendingWrite> upserts, Collection<UUID> deletes) throws StorageException {
+        try {
+            for (PendingWrite pending : upserts) {
+                bindUpsert(pending.getData());
+                upsertStmt.addBatch();
+            }
+            for (UUID id : deletes) {
+                deleteStmt.setString(1, id.toString());
+                deleteStmt.addBatch();
+            }
+            if (!upserts.isEmpty()) upsertStmt.executeBatch();
+            if (!deletes.isEmpty()) deleteStmt.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            try {
+                upsertStmt.clearBatch();
+                deleteStmt.clearBatch();
+                connection.rollback();
+            } catch (SQLException ignored) {
+                // the original failure is more useful
+            }
+            throw new StorageException("Batch write failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public File getDataFile() {
+        return dataFile;
+    }
+
+    @Override
+    public synchronized void close() {
+        closeQuietly(upsertStmt);
+        closeQuietly(deleteStmt);
+        closeQuietly(selectOneStmt);
+        closeQuietly(selectPageStmt);
+        upsertStmt = deleteStmt = selectOneStmt = selectPageStmt = null;
+        if (connection != null) {
+            try {
+                if (!connection.getAutoCommit()) connection.commit();
+                connection.close();
+            } catch (SQLException e) {
+                log.warn("Error closing database: " + e.getMessage());
+            }
+            connection = null;
+        }
+    }
+
+    // tables created before linked_at existed need the column added; H2 reports unquoted names upper-cased
+    private boolean hasColumn(String column) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        String table = meta.storesUpperCaseIdentifiers() ? TABLE.toUpperCase(Locale.ROOT)
+                : meta.storesLowerCaseIdentifiers() ? TABLE.toLowerCase(Locale.ROOT) : TABLE;
+        try (ResultSet rs = meta.getColumns(null, null, table, null)) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) return true;
+            }
+        }
+        return false;
+    }
+
+    private void bindUpsert(PlayerData data) throws SQLException {
+        upsertStmt.setString(1, data.getPlayerId().toString());
+        upsertStmt.setString(2, data.getTwitchId());
+        upsertStmt.setString(3, data.getTwitchUsername());
+        upsertStmt.setString(4, data.getAccessToken());
+        upsertStmt.setString(5, data.getRefreshToken());
+        upsertStmt.setBoolean(6, data.isLive());
+        upsertStmt.setInt(7, data.getLoyaltyPoints());
+        upsertStmt.setLong(8, data.getWatchMinutes());
+        upsertStmt.setLong(9, data.getLinkedAt());
+    }
+
+    private PlayerData read(ResultSet rs) throws SQLException {
+        UUID playerId;
+        try {
+            playerId = UUID.fromString(rs.getString(1));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid UUID in " + TABLE + ": " + rs.getString(1));
+            return null;
+        }
+        PlayerData data = new PlayerData(playerId);
+        data.setTwitchId(rs.getString(2));
+        data.setTwitchUsername(rs.getString(3));
+        data.setAccessToken(rs.getString(4));
+        data.setRefreshToken(rs.getString(5));
+        data.setLive(rs.getBoolean(6));
+        data.setLoyaltyPoints(rs.getInt(7));
+        data.setWatchMinutes(rs.getLong(8));
+        data.setLinkedAt(rs.getLong(9));
+        return data;
+    }
+
+    private static void closeQuietly(Statement st) {
+        if (st == null) return;
+        try {
+            st.close();
+        } catch (SQLException ignored) {
+            // closing anyway
+        }
+    }
+}
@@ -0,0 +1,526 @@
+package com.taffy.streamlink.storage;
+
+import com.taffy.streamlink.exceptions.StorageException;
+import com.taffy.streamlink.managers.LogManager;
+import com.taffy.streamlink.models.PlayerData;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Append-only journal plus periodic snapshot for player links.
+ *
+ * Every flushed mutation is appended to the active journal segment as a small
+ * CRC-protected record. Once the segment grows past the configured size it is
+ * folded into a checksummed snapshot on a background thread. Startup loads the
+ * snapshot and replays every segment written after it.
+ *
+ * Layout (inside the storage folder):
+ *   playerdata.snapshot      current snapshot (covers segments up to its seq)
+ *   playerdata.snapshot.bak  previous snapshot, used if the current one is damaged
+ *   journal-NNNNNN.log       journal segments, oldest first
+ */
+public class JournalPlayerDataStore implements PlayerDataStore {
+    private static final int SNAPSHOT_MAGIC = 0x534C5331; // "SLS1"
+    private static final int JOURNAL_MAGIC  = 0x534C4A31; // "SLJ1"
+    private static final int FORMAT_VERSION = 2;     // 2: LINK records and snapshots carry linkedAt
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d+)\\.log");
+
+    private static final byte REC_LINK    = 1;
+    private static final byte REC_UNLINK  = 2;
+    private static final byte REC_TOKEN   = 3;
+    private static final byte REC_POINTS  = 4;
+    private static final byte REC_MINUTES = 5;
+    private static final byte REC_LIVE    = 6;
+
+    private final File dir;
+    private final File snapshotFile;
+    private final File backupSnapshotFile;
+    private final LogManager log;
+    private final long compactAfterBytes;
+
+    // guarded by this
+    private final Map<UUID, PlayerData> state = new HashMap<>();
+    private long snapshotSeq = 0L;
+    private long activeSeq = 0L;
+    private FileOutputStream segmentFile;
+    private DataOutputStream segmentOut;
+    private long segmentBytes = 0L;
+
+    private final Object compactLock = new Object();
+    private final AtomicBoolean compacting = new AtomicBoolean(false);
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "StreamLink-Compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public JournalPlayerDataStore(File dir, LogManager log, long compactAfterBytes) {
+        this.dir = dir;
+        this.snapshotFile = new File(dir, "playerdata.snapshot");
+        this.backupSnapshotFile = new File(dir, "playerdata.snapshot.bak");
+        this.log = log;
+        this.compactAfterBytes = Math.max(64 * 1024L, compactAfterBytes);
+    }
+
+    @Override
+    public String getName() {
+        return "journal";
+    }
+
+    /** Load snapshot + journal tail and open a fresh segment for appends. */
+    @Override
+    public synchronized void open() throws StorageException {
+        try {
+            ensureDir();
+            state.clear();
+            snapshotSeq = loadSnapshot();
+
+            long lastSeq = snapshotSeq;
+            int replayed = 0;
+            for (Map.Entry<Long, File> segment : listSegments().entrySet()) {
+                lastSeq = Math.max(lastSeq, segment.getKey());
+                if (segment.getKey() <= snapshotSeq) continue;
+                replayed += replaySegment(segment.getValue());
+            }
+
+            openSegment(lastSeq + 1);
+            log.info("Journal storage loaded " + state.size() + " players (" + replayed + " journal records replayed)");
+        } catch (IOException e) {
+            throw new StorageException("Could not open journal storage: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return state.isEmpty();
+    }
+
+    @Override
+    public synchronized Map<UUID, PlayerData> loadAll() {
+        Map<UUID, PlayerData> out = new HashMap<>(state.size() * 2);
+        for (PlayerData data : state.values()) out.put(data.getPlayerId(), copyOf(data));
+        return out;
+    }
+
+    @Override
+    public synchronized void forEach(Consumer<PlayerData> action) {
+        for (PlayerData data : state.values()) action.accept(copyOf(data));
+    }
+
+    @Override
+    public synchronized Collection<IndexEntry> loadIndex() {
+        List<IndexEntry> out = new ArrayList<>(state.size());
+        for (PlayerData data : state.values()) {
+            out.add(new IndexEntry(data.getPlayerId(), data.getTwitchId(), data.getTwitchUsername()));
+        }
+        return out;
+    }
+
+    @Override
+    public synchronized PlayerData load(UUID playerId) {
+        PlayerData data = state.get(playerId);
+        return data != null ? copyOf(data) : null;
+    }
+
+    /** Append one coalesced batch, fsync, and schedule compaction if the segment is large enough. */
+    @Override
+    public void write(Collection<PendingWrite> upserts, Collection<UUID> deletes) throws StorageException {
+        try {
+            append(upserts, deletes);
+        } catch (IOException e) {
+            throw new StorageException("Journal append failed: " + e.getMessage(), e);
+        }
+        maybeCompact();
+    }
+
+    private void append(Collection<PendingWrite> upserts, Collection<UUID> deletes) throws IOException {
+        synchronized (this) {
+            for (PendingWrite pending : upserts) {
+                PlayerData data = pending.getData();
+                UUID id = data.getPlayerId();
+                if (pending.has(PlayerChange.LINK) || !state.containsKey(id)) {
+                    appendAndApply(REC_LINK, id, out -> writeFull(out, data));
+                    continue;
+                }
+                if (pending.has(PlayerChange.TOKEN)) {
+                    appendAndApply(REC_TOKEN, id, out -> {
+                        writeString(out, data.getAccessToken());
+                        writeString(out, data.getRefreshToken());
+                    });
+                }
+                if (pending.has(PlayerChange.POINTS)) {
+                    appendAndApply(REC_POINTS, id, out -> out.writeInt(data.getLoyaltyPoints()));
+                }
+                if (pending.has(PlayerChange.MINUTES)) {
+                    appendAndApply(REC_MINUTES, id, out -> out.writeLong(data.getWatchMinutes()));
+                }
+                if (pending.has(PlayerChange.LIVE)) {
+                    appendAndApply(REC_LIVE, id, out -> out.writeBoolean(data.isLive()));
+                }
+            }
+            for (UUID id : deletes) {
+                appendAndApply(REC_UNLINK, id, out -> { });
+            }
+            segmentOut.flush();
+            segmentFile.getFD().sync();
+        }
+    }
+
+    /** Seed the store with existing records (used by the YAML migrator) and snapshot them immediately. */
+    @Override
+    public void importAll(Collection<PlayerData> players) throws StorageException {
+        synchronized (this) {
+            for (PlayerData data : players) state.put(data.getPlayerId(), copyOf(data));
+        }
+        try {
+            compact();
+        } catch (IOException e) {
+            throw new StorageException("Snapshot after import failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public File getDataFile() {
+        return snapshotFile;
+    }
+
+    /** Stop the compactor and fold the journal into a final snapshot so the next start replays nothing. */
+    @Override
+    public void close() {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            compact();
+        } catch (IOException e) {
+            log.severe("Final journal compaction failed: " + e.getMessage(), e);
+        }
+        synchronized (this) {
+            closeSegment();
+        }
+    }
+
+    /* ----------------------------- compaction ----------------------------- */
+
+    private void maybeCompact() {
+        long bytes;
+        synchronized (this) {
+            bytes = segmentBytes;
+        }
+        if (bytes < compactAfterBytes || compactor.isShutdown()) return;
+        if (!compacting.compareAndSet(false, true)) return;
+
+        compactor.execute(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                log.severe("Journal compaction failed: " + e.getMessage(), e);
+            } finally {
+                compacting.set(false);
+            }
+        });
+    }
+
+    /**
+     * Fold everything written so far into a new snapshot. Appends continue into a
+     * fresh segment while the snapshot is written; segments are only deleted once
+     * they are covered by the previous snapshot too, so the .bak stays replayable.
+     */
+    public void compact() throws IOException {
+        synchronized (compactLock) {
+            List<PlayerData> copy;
+            long foldedSeq;
+            synchronized (this) {
+                copy = new ArrayList<>(state.size());
+                for (PlayerData data : state.values()) copy.add(copyOf(data));
+                foldedSeq = activeSeq;
+                openSegment(activeSeq + 1);
+            }
+
+            long start = System.nanoTime();
+            writeSnapshot(copy, foldedSeq);
+
+            long previousSeq;
+            synchronized (this) {
+                previousSeq = snapshotSeq;
+                snapshotSeq = foldedSeq;
+            }
+            for (Map.Entry<Long, File> segment : listSegments().entrySet()) {
+                if (segment.getKey() <= previousSeq) Files.deleteIfExists(segment.getValue().toPath());
+            }
+            log.debug("Compacted " + copy.size() + " players into snapshot #" + foldedSeq + " in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+        }
+    }
+
+    private void writeSnapshot(List<PlayerData> players, long seq) throws IOException {
+        File tmp = new File(dir, "playerdata.snapshot.tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp)) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fos, 64 * 1024), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(seq);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(players.size());
+            for (PlayerData data : players) {
+                writeUuid(out, data.getPlayerId());
+                writeFull(out, data);
+            }
+            out.flush();
+            long crc = checked.getChecksum().getValue();
+            out.writeLong(crc);
+            out.flush();
+            fos.getFD().sync();
+        }
+
+        if (snapshotFile.exists()) {
+            Files.move(snapshotFile.toPath(), backupSnapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.move(tmp.toPath(), snapshotFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Returns the journal seq the loaded snapshot covers (0 if none). */
+    private long loadSnapshot() throws IOException {
+        File source = snapshotFile.exists() ? snapshotFile : null;
+        if (source != null) {
+            try {
+                return readSnapshot(source);
+            } catch (IOException e) {
+                log.severe("Snapshot " + source.getName() + " is damaged (" + e.getMessage() + "); trying backup");
+                state.clear();
+            }
+        }
+        if (backupSnapshotFile.exists()) {
+            long seq = readSnapshot(backupSnapshotFile);
+            log.warn("Recovered player data from " + backupSnapshotFile.getName());
+            return seq;
+        }
+        return 0L;
+    }
+
+    private long readSnapshot(File file) throws IOException {
+        try (InputStream raw = new BufferedInputStream(new FileInputStream(file), 64 * 1024)) {
+            CheckedInputStream checked = new CheckedInputStream(raw, new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("bad magic");
+            int version = in.readInt();
+            if (version < 1 || version > FORMAT_VERSION) throw new IOException("unsupported version " + version);
+            long seq = in.readLong();
+            in.readLong(); // createdAt
+            int count = in.readInt();
+
+            Map<UUID, PlayerData> loaded = new HashMap<>(Math.max(16, count * 2));
+            for (int i = 0; i < count; i++) {
+                PlayerData data = readFull(in, readUuid(in), version);
+                loaded.put(data.getPlayerId(), data);
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) throw new IOException("checksum mismatch");
+
+            state.putAll(loaded);
+            return seq;
+        } catch (EOFException e) {
+            throw new IOException("truncated file", e);
+        }
+    }
+
+    /* ------------------------------ journal ------------------------------ */
+
+    private interface Payload {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private void appendAndApply(byte type, UUID id, Payload payload) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(64);
+        DataOutputStream rec = new DataOutputStream(buf);
+        rec.writeByte(type);
+        writeUuid(rec, id);
+        payload.write(rec);
+        rec.flush();
+        byte[] bytes = buf.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        segmentOut.writeInt(bytes.length);
+        segmentOut.write(bytes);
+        segmentOut.writeInt((int) crc.getValue());
+        segmentBytes += bytes.length + 8;
+
+        apply(new DataInputStream(new ByteArrayInputStream(bytes)), FORMAT_VERSION);
+    }
+
+    private int replaySegment(File file) throws IOException {
+        int records = 0;
+        long goodBytes = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            int version = in.readInt() == JOURNAL_MAGIC ? in.readInt() : -1;
+            if (version < 1 || version > FORMAT_VERSION) {
+                log.warn("Skipping unrecognised journal segment " + file.getName());
+                return 0;
+            }
+            in.readLong(); // seq
+            goodBytes = 16;
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException end) {
+                    break;
+                }
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    throw new IOException("invalid record length " + length);
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                int storedCrc = in.readInt();
+                CRC32 crc = new CRC32();
+                crc.update(bytes, 0, length);
+                if ((int) crc.getValue() != storedCrc) {
+                    throw new IOException("record checksum mismatch");
+                }
+                apply(new DataInputStream(new ByteArrayInputStream(bytes)), version);
+                records++;
+                goodBytes += length + 8;
+            }
+        } catch (IOException e) {
+            // a torn tail is expected after a crash mid-append; everything before it is intact
+            log.warn("Journal " + file.getName() + " ends with an incomplete record after " + goodBytes
+                    + " bytes (" + e.getMessage() + "); " + records + " records recovered");
+        }
+        return records;
+    }
+
+    private void apply(DataInputStream in, int version) throws IOException {
+        byte type = in.readByte();
+        UUID id = readUuid(in);
+        switch (type) {
+            case REC_LINK -> state.put(id, readFull(in, id, version));
+            case REC_UNLINK -> state.remove(id);
+            case REC_TOKEN -> {
+                PlayerData data = state.computeIfAbsent(id, PlayerData::new);
+                data.setAccessToken(readString(in));
+                data.setRefreshToken(readString(in));
+            }
+            case REC_POINTS -> state.computeIfAbsent(id, PlayerData::new).setLoyaltyPoints(in.readInt());
+            case REC_MINUTES -> state.computeIfAbsent(id, PlayerData::new).setWatchMinutes(in.readLong());
+            case REC_LIVE -> state.computeIfAbsent(id, PlayerData::new).setLive(in.readBoolean());
+            default -> throw new IOException("unknown record type " + type);
+        }
+    }
+
+    private void openSegment(long seq) throws IOException {
+        closeSegment();
+        File file = new File(dir, String.format("journal-%06d.log", seq));
+        segmentFile = new FileOutputStream(file, false);
+        segmentOut = new DataOutputStream(new BufferedOutputStream(segmentFile, 16 * 1024));
+        segmentOut.writeInt(JOURNAL_MAGIC);
+        segmentOut.writeInt(FORMAT_VERSION);
+        segmentOut.writeLong(seq);
+        segmentOut.flush();
+        segmentBytes = 0L;
+        activeSeq = seq;
+    }
+
+    private void closeSegment() {
+        if (segmentOut == null) return;
+        try {
+            segmentOut.close();
+        } catch (IOException e) {
+            log.warn("Failed to close journal segment: " + e.getMessage());
+        }
+        segmentOut = null;
+        segmentFile = null;
+    }
+
+    private void ensureDir() throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Could not create storage folder " + dir.getAbsolutePath());
+        }
+    }
+
+    private SortedMap<Long, File> listSegments() {
+        SortedMap<Long, File> out = new TreeMap<>();
+        File[] files = dir.listFiles();
+        if (files == null) return out;
+        for (File f : files) {
+            Matcher m = SEGMENT_NAME.matcher(f.getName());
+            if (m.matches()) out.put(Long.parseLong(m.group(1)), f);
+        }
+        return out;
+    }
+
+    /* ------------------------------ encoding ------------------------------ */
+
+    private static void writeFull(DataOutputStream out, PlayerData data) throws IOException {
+        writeString(out, data.getTwitchId());
+        writeString(out, data.getTwitchUsername());
+        writeString(out, data.getAccessToken());
+        writeString(out, data.getRefreshToken());
+        out.writeBoolean(data.isLive());
+        out.writeInt(data.getLoyaltyPoints());
+        out.writeLong(data.getWatchMinutes());
+        out.writeLong(data.getLinkedAt());
+    }
+
+    private static PlayerData readFull(DataInputStream in, UUID id, int version) throws IOException {
+        PlayerData data = new PlayerData(id);
+        data.setTwitchId(readString(in));
+        data.setTwitchUsername(readString(in));
+        data.setAccessToken(readString(in));
+        data.setRefreshToken(readString(in));
+        data.setLive(in.readBoolean());
+        data.setLoyaltyPoints(in.readInt());
+        data.setWatchMinutes(in.readLong());
+        if (version >= 2) data.setLinkedAt(in.readLong());
+        return data;
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    static PlayerData copyOf(PlayerData src) {
+        PlayerData copy = new PlayerData(src.getPlayerId());
+        copy.setTwitchId(src.getTwitchId());
+        copy.setTwitchUsername(src.getTwitchUsername());
+        copy.setAccessToken(src.getAccessToken());
+        copy.setRefreshToken(src.getRefreshToken());
+        copy.setLive(src.isLive());
+        copy.setLoyaltyPoints(src.getLoyaltyPoints());
+        copy.setWatchMinutes(src.getWatchMinutes());
+        copy.setLinkedAt(src.getLinkedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,33 @@
+package com.taffy.streamlink.storage;
+
+import com.taffy.streamlink.models.PlayerData;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/** A dirty player plus the set of changes accumulated since the last flush. */
+public final class PendingWrite {
+    private final PlayerData data;
+    private final Set<PlayerChange> changes;
+
+    PendingWrite(PlayerData data, PlayerChange change) {
+        this(data, EnumSet.of(change));
+    }
+
+    private PendingWrite(PlayerData data, Set<PlayerChange> changes) {
+        this.data = data;
+        this.changes = Collections.unmodifiableSet(changes);
+    }
+
+    PendingWrite merge(PlayerData newer, PlayerChange change) {
+        if (changes.contains(change) && data == newer) return this;
+        EnumSet<PlayerChange> merged = EnumSet.copyOf(changes);
+        merged.add(change);
+        return new PendingWrite(newer, merged);
+    }
+
+    public PlayerData getData() { return data; }
+    public Set<PlayerChange> getChanges() { return changes; }
+    public boolean has(PlayerChange change) { return changes.contains(change); }
+}
@@ -0,0 +1,114 @@
+package com.taffy.streamlink.storage;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.taffy.streamlink.models.PlayerData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Player data cache split in two tiers: online players are pinned and never
+ * evicted; everyone else lives in an LRU tier that can be size-bounded.
+ */
+public class PlayerCache {
+    private final Map<UUID, PlayerData> pinned = new ConcurrentHashMap<>();
+    private final Cache<UUID, PlayerData> offline;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /** @param maxOffline max offline entries kept; {@code <= 0} means unbounded */
+    public PlayerCache(long maxOffline) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+        if (maxOffline > 0) builder.maximumSize(maxOffline);
+        this.offline = builder
+                .removalListener(notification -> {
+                    if (notification.wasEvicted()) evictions.incrementAndGet();
+                })
+                .build();
+    }
+
+    /** Lookup without touching the hit/miss counters. */
+    public PlayerData peek(UUID playerId) {
+        PlayerData data = pinned.get(playerId);
+        return data != null ? data : offline.getIfPresent(playerId);
+    }
+
+    /** Lookup that falls back to {@code loader} on a miss; a null load is not cached. */
+    public PlayerData get(UUID playerId, Function<UUID, PlayerData> loader) {
+        PlayerData data = peek(playerId);
+        if (data != null) {
+            hits.incrementAndGet();
+            return data;
+        }
+        misses.incrementAndGet();
+        PlayerData loaded = loader.apply(playerId);
+        if (loaded == null) return null;
+        PlayerData raced = offline.asMap().putIfAbsent(playerId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    public void put(PlayerData data) {
+        UUID id = data.getPlayerId();
+        if (pinned.containsKey(id)) {
+            pinned.put(id, data);
+        } else {
+            offline.put(id, data);
+        }
+    }
+
+    public PlayerData putIfAbsent(PlayerData data) {
+        PlayerData existing = peek(data.getPlayerId());
+        if (existing != null) return existing;
+        PlayerData raced = offline.asMap().putIfAbsent(data.getPlayerId(), data);
+        return raced != null ? raced : data;
+    }
+
+    /** Keep an online player's record resident until {@link #unpin(UUID)}. */
+    public void pin(PlayerData data) {
+        pinned.put(data.getPlayerId(), data);
+        offline.invalidate(data.getPlayerId());
+    }
+
+    /** Player left: move their record into the evictable tier. */
+    public void unpin(UUID playerId) {
+        PlayerData data = pinned.remove(playerId);
+        if (data != null) offline.put(playerId, data);
+    }
+
+    public void remove(UUID playerId) {
+        pinned.remove(playerId);
+        offline.invalidate(playerId);
+    }
+
+    public Collection<PlayerData> values() {
+        List<PlayerData> out = new ArrayList<>(pinned.values());
+        out.addAll(offline.asMap().values());
+        return out;
+    }
+
+    public long size() {
+        return pinned.size() + offline.size();
+    }
+
+    public String describeStats() {
+        long h = hits.get();
+        long m = misses.get();
+        long total = h + m;
+        String ratio = total == 0 ? "n/a" : String.format("%.1f%%", 100.0 * h / total);
+        return "pinned=" + pinned.size() + ", offline=" + offline.size()
+                + ", hits=" + h + ", misses=" + m + " (hit rate " + ratio + ")"
+                + ", evictions=" + evictions.get();
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+}
@@ -0,0 +1,10 @@
+package com.taffy.streamlink.storage;
+
+/** Which part of a {@link com.taffy.streamlink.models.PlayerData} a mutation touched. */
+public enum PlayerChange {
+    LINK,
+    TOKEN,
+    POINTS,
+    MINUTES,
+    LIVE
+}
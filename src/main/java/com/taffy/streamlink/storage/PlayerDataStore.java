@@ -0,0 +1,73 @@
+package com.taffy.streamlink.storage;
+
+import com.taffy.streamlink.exceptions.StorageException;
+import com.taffy.streamlink.models.PlayerData;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Persistence SPI behind {@link com.taffy.streamlink.managers.PlayerDataManager}.
+ * Implementations are only ever written from the single write-behind thread,
+ * but {@link #load(UUID)} may be called from any thread.
+ */
+public interface PlayerDataStore {
+
+    /** Short name used in logs and config ("yaml", "journal", "sqlite"). */
+    String getName();
+
+    void open() throws StorageException;
+
+    /** @return true if the store holds no player records */
+    boolean isEmpty() throws StorageException;
+
+    Map<UUID, PlayerData> loadAll() throws StorageException;
+
+    /**
+     * Hands every stored record to {@code action} one at a time, for full scans that
+     * should not hold the whole store in memory. Runs on the caller's thread.
+     */
+    default void forEach(Consumer<PlayerData> action) throws StorageException {
+        loadAll().values().forEach(action);
+    }
+
+    /** Key-only view of every stored player, used to build the resident {@link PlayerIndex}. */
+    default Collection<IndexEntry> loadIndex() throws StorageException {
+        List<IndexEntry> out = new ArrayList<>();
+        for (PlayerData data : loadAll().values()) {
+            out.add(new IndexEntry(data.getPlayerId(), data.getTwitchId(), data.getTwitchUsername()));
+        }
+        return out;
+    }
+
+    /**
+     * @return true if {@link #load(UUID)} reads a single record from disk rather than from a
+     *         copy of the whole store kept in memory; lazy caching only saves memory on such stores
+     */
+    default boolean loadsOnDemand() {
+        return false;
+    }
+
+    /** @return the stored record, or null if the player is unknown */
+    PlayerData load(UUID playerId) throws StorageException;
+
+    /** Persist one coalesced batch from the write-behind queue. */
+    void write(Collection<PendingWrite> upserts, Collection<UUID> deletes) throws StorageException;
+
+    /** Bulk insert, e.g. when migrating from another store. */
+    default void importAll(Collection<PlayerData> players) throws StorageException {
+        List<PendingWrite> batch = new ArrayList<>(players.size());
+        for (PlayerData data : players) batch.add(new PendingWrite(data, PlayerChange.LINK));
+        write(batch, List.of());
+    }
+
+    /** File copied by {@code backupPlayerData()}; only read after {@link #close()}. */
+    File getDataFile();
+
+    void close();
+}
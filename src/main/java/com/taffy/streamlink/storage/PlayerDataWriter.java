@@ -0,0 +1,192 @@
+package com.taffy.streamlink.storage;
+
+import com.taffy.streamlink.managers.LogManager;
+import com.taffy.streamlink.managers.MetricsManager;
+import com.taffy.streamlink.models.PlayerData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind buffer for player data.
+ * Mutations only mark a player dirty; a single background thread coalesces
+ * them and hands one batch to the sink per flush.
+ */
+public class PlayerDataWriter {
+
+    /** Destination for a flushed batch (e.g. playerdata.yml). */
+    public interface Sink {
+        void write(Collection<PendingWrite> upserts, Collection<UUID> deletes) throws Exception;
+    }
+
+    private final LogManager log;
+    private final MetricsManager metrics;
+    private final Sink sink;
+    private final int maxDirty;
+
+    private final Map<UUID, PendingWrite> dirty = new ConcurrentHashMap<>();
+    private final Set<UUID> deleted = ConcurrentHashMap.newKeySet();
+    // batch currently being written; readers must still see it until the sink returns
+    private final Map<UUID, PlayerData> inFlight = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushQueued = new AtomicBoolean(false);
+    private final ScheduledExecutorService executor;
+
+    public PlayerDataWriter(LogManager log, MetricsManager metrics, Sink sink, long flushIntervalMs, int maxDirty) {
+        this.log = log;
+        this.metrics = metrics;
+        this.sink = sink;
+        this.maxDirty = Math.max(1, maxDirty);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "StreamLink-DataWriter");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(250L, flushIntervalMs);
+        executor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Queue a player for the next flush. Repeated calls before a flush coalesce into one write. */
+    public void markDirty(PlayerData data, PlayerChange change) {
+        if (data == null) return;
+        deleted.remove(data.getPlayerId());
+        boolean[] coalesced = {false};
+        dirty.compute(data.getPlayerId(), (id, pending) -> {
+            if (pending == null) return new PendingWrite(data, change);
+            coalesced[0] = true;
+            return pending.merge(data, change);
+        });
+        if (coalesced[0] && metrics != null) {
+            metrics.incrementCoalescedWrite();
+        }
+        if (dirty.size() >= maxDirty) {
+            requestFlush();
+        }
+    }
+
+    /** Queue removal of a player's record; cancels any pending write for them. */
+    public void markDeleted(UUID playerId) {
+        dirty.remove(playerId);
+        deleted.add(playerId);
+        requestFlush();
+    }
+
+    /** Schedule a flush as soon as the writer thread is free. */
+    public void requestFlush() {
+        if (executor.isShutdown()) return;
+        if (flushQueued.compareAndSet(false, true)) {
+            executor.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Flush, then run {@code task} on the writer thread, e.g. to persist something
+     * that must not reach disk before the player data it depends on.
+     */
+    public void runAfterFlush(Runnable task) {
+        if (executor.isShutdown()) return;
+        requestFlush();
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.warn("Post-flush task failed: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Newest unflushed copy of a player, or null if nothing is queued or being written.
+     * Lazy loads consult this first so an evicted-but-dirty record never loses to the store.
+     */
+    public PlayerData getPending(UUID playerId) {
+        PendingWrite pending = dirty.get(playerId);
+        if (pending != null) return pending.getData();
+        return inFlight.get(playerId);
+    }
+
+    public int getPendingCount() {
+        return dirty.size() + deleted.size();
+    }
+
+    /**
+     * Final flush for onDisable. Waits at most {@code timeoutMs} for the writer
+     * to drain; anything still pending after that is reported and dropped.
+     */
+    public void shutdown(long timeoutMs) {
+        if (executor.isShutdown()) return;
+        executor.execute(this::flushQuietly);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Player data writer did not finish within " + timeoutMs + "ms; "
+                        + getPendingCount() + " pending writes were not flushed.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    private void flushQuietly() {
+        flushQueued.set(false);
+        try {
+            flush();
+        } catch (Exception e) {
+            log.severe("Player data flush failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void flush() throws Exception {
+        if (dirty.isEmpty() && deleted.isEmpty()) return;
+
+        List<PendingWrite> upserts = new ArrayList<>(dirty.size());
+        for (UUID id : dirty.keySet()) {
+            PendingWrite pending = dirty.remove(id);
+            if (pending != null) {
+                upserts.add(pending);
+                inFlight.put(id, pending.getData());
+            }
+        }
+        List<UUID> deletes = new ArrayList<>(deleted.size());
+        for (UUID id : deleted) {
+            if (deleted.remove(id)) deletes.add(id);
+        }
+
+        long start = System.nanoTime();
+        try {
+            sink.write(upserts, deletes);
+        } catch (Exception e) {
+            // put the batch back so the next flush retries it; newer marks win
+            for (PendingWrite pending : upserts) {
+                dirty.merge(pending.getData().getPlayerId(), pending, (newer, failed) -> {
+                    PendingWrite merged = newer;
+                    for (PlayerChange change : failed.getChanges()) merged = merged.merge(newer.getData(), change);
+                    return merged;
+                });
+            }
+            for (UUID id : deletes) {
+                if (!dirty.containsKey(id)) deleted.add(id);
+            }
+            throw e;
+        } finally {
+            inFlight.clear();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        if (metrics != null) {
+            metrics.recordFlush(upserts.size() + deletes.size(), elapsedNanos);
+        }
+        log.debug("Flushed " + upserts.size() + " player records (" + deletes.size() + " removed) in "
+                + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "ms");
+    }
+}
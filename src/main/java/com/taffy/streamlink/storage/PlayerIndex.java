@@ -0,0 +1,89 @@
+package com.taffy.streamlink.storage;
+
+import com.taffy.streamlink.models.PlayerData;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Always-resident index of every player the store knows about, keyed by the
+ * store's primary key (the Minecraft UUID). Lets lazy mode answer "is this
+ * player stored?" and "who is linked?" without loading full records.
+ *
+ * Also maintains the secondary lookups lower-cased login -> UUID and
+ * Twitch user id -> UUID. Writers are serialized; reads never lock.
+ */
+public class PlayerIndex {
+    private final Map<UUID, IndexEntry> entries = new ConcurrentHashMap<>();
+    private final Map<String, UUID> byLogin = new ConcurrentHashMap<>();
+    private final Map<String, UUID> byTwitchId = new ConcurrentHashMap<>();
+
+    public void putAll(Collection<IndexEntry> loaded) {
+        for (IndexEntry entry : loaded) put(entry);
+    }
+
+    public void put(PlayerData data) {
+        put(new IndexEntry(data.getPlayerId(), data.getTwitchId(), data.getTwitchUsername()));
+    }
+
+    public synchronized void put(IndexEntry entry) {
+        IndexEntry previous = entries.put(entry.playerId(), entry);
+        if (previous != null) unlinkSecondary(previous);
+        String login = normalizeLogin(entry.twitchUsername());
+        if (login != null) byLogin.put(login, entry.playerId());
+        if (entry.twitchId() != null && !entry.twitchId().isEmpty()) byTwitchId.put(entry.twitchId(), entry.playerId());
+    }
+
+    public synchronized void remove(UUID playerId) {
+        IndexEntry previous = entries.remove(playerId);
+        if (previous != null) unlinkSecondary(previous);
+    }
+
+    public boolean contains(UUID playerId) {
+        return entries.containsKey(playerId);
+    }
+
+    public IndexEntry get(UUID playerId) {
+        return entries.get(playerId);
+    }
+
+    /** @param login Twitch login in any case */
+    public UUID findByLogin(String login) {
+        String key = normalizeLogin(login);
+        return key == null ? null : byLogin.get(key);
+    }
+
+    public UUID findByTwitchId(String twitchId) {
+        return twitchId == null || twitchId.isEmpty() ? null : byTwitchId.get(twitchId);
+    }
+
+    public Set<UUID> playerIds() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    public Collection<IndexEntry> entries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public static String normalizeLogin(String login) {
+        if (login == null) return null;
+        String trimmed = login.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    // only drop secondary keys that still point at this player; a newer link may own them now
+    private void unlinkSecondary(IndexEntry entry) {
+        String login = normalizeLogin(entry.twitchUsername());
+        if (login != null) byLogin.remove(login, entry.playerId());
+        if (entry.twitchId() != null) byTwitchId.remove(entry.twitchId(), entry.playerId());
+    }
+}
@@ -0,0 +1,45 @@
+package com.taffy.streamlink.storage;
+
+import com.taffy.streamlink.exceptions.StorageException;
+import com.taffy.streamlink.managers.LogManager;
+import com.taffy.streamlink.models.PlayerData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One-shot migration of the legacy {@code links.<uuid>} layout in playerdata.yml
+ * into another {@link PlayerDataStore}. The YAML file is renamed afterwards so it
+ * is never imported twice.
+ */
+public final class YamlMigrator {
+
+    private YamlMigrator() {
+        // Utility class - prevent instantiation
+    }
+
+    /** @return number of players migrated, or -1 if there was nothing to migrate */
+    public static int migrate(File yamlFile, PlayerDataStore target, LogManager log) throws StorageException {
+        if (!yamlFile.exists()) return -1;
+
+        YamlPlayerDataStore source = new YamlPlayerDataStore(yamlFile, log);
+        source.open();
+        Map<UUID, PlayerData> players = source.loadAll();
+        if (players.isEmpty()) return -1;
+
+        target.importAll(players.values());
+
+        File migrated = new File(yamlFile.getParentFile(), yamlFile.getName() + ".migrated");
+        try {
+            Files.move(yamlFile.toPath(), migrated.toPath());
+        } catch (IOException e) {
+            throw new StorageException("Migrated data but could not rename " + yamlFile.getName() + ": " + e.getMessage(), e);
+        }
+        log.info("Migrated " + players.size() + " players from " + yamlFile.getName()
+                + " to " + target.getName() + " storage (original kept as " + migrated.getName() + ")");
+        return players.size();
+    }
+}
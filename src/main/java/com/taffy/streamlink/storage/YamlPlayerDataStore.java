@@ -0,0 +1,137 @@
+package com.taffy.streamlink.storage;
+
+import com.taffy.streamlink.exceptions.StorageException;
+import com.taffy.streamlink.managers.LogManager;
+import com.taffy.streamlink.models.PlayerData;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/** Default store: the whole {@code links.<uuid>} tree in playerdata.yml, saved once per flush. */
+public class YamlPlayerDataStore implements PlayerDataStore {
+    private final File file;
+    private final LogManager log;
+    private FileConfiguration config;
+
+    public YamlPlayerDataStore(File file, LogManager log) {
+        this.file = file;
+        this.log = log;
+    }
+
+    @Override
+    public String getName() {
+        return "yaml";
+    }
+
+    @Override
+    public synchronized void open() {
+        config = YamlConfiguration.loadConfiguration(file);
+        log.info("Player data loaded successfully");
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        ConfigurationSection links = config.getConfigurationSection("links");
+        return links == null || links.getKeys(false).isEmpty();
+    }
+
+    @Override
+    public synchronized Map<UUID, PlayerData> loadAll() {
+        Map<UUID, PlayerData> out = new HashMap<>();
+        ConfigurationSection linksSection = config.getConfigurationSection("links");
+        if (linksSection == null) return out;
+
+        for (String uuidString : linksSection.getKeys(false)) {
+            try {
+                UUID playerId = UUID.fromString(uuidString);
+                out.put(playerId, read(playerId));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid UUID in playerdata: " + uuidString);
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public synchronized void forEach(Consumer<PlayerData> action) {
+        ConfigurationSection linksSection = config.getConfigurationSection("links");
+        if (linksSection == null) return;
+
+        for (String uuidString : linksSection.getKeys(false)) {
+            try {
+                action.accept(read(UUID.fromString(uuidString)));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid UUID in playerdata: " + uuidString);
+            }
+        }
+    }
+
+    @Override
+    public synchronized PlayerData load(UUID playerId) {
+        return read(playerId);
+    }
+
+    @Override
+    public synchronized void write(Collection<PendingWrite> upserts, Collection<UUID> deletes) throws StorageException {
+        for (PendingWrite pending : upserts) {
+            writePlayerData(pending.getData());
+        }
+        for (UUID playerId : deletes) {
+            config.set("links." + playerId.toString(), null);
+        }
+        try {
+            config.save(file);
+        } catch (IOException e) {
+            throw new StorageException("Could not save " + file.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public File getDataFile() {
+        return file;
+    }
+
+    @Override
+    public void close() {
+        // every flush already saved the file
+    }
+
+    private PlayerData read(UUID playerId) {
+        String basePath = "links." + playerId.toString();
+        if (!config.contains(basePath)) {
+            return null;
+        }
+
+        PlayerData playerData = new PlayerData(playerId);
+        playerData.setTwitchId(config.getString(basePath + ".twitchId"));
+        playerData.setTwitchUsername(config.getString(basePath + ".twitchUsername"));
+        playerData.setAccessToken(config.getString(basePath + ".accessToken"));
+        playerData.setRefreshToken(config.getString(basePath + ".refreshToken"));
+        playerData.setLive(config.getBoolean(basePath + ".isLive", false));
+        playerData.setLoyaltyPoints(config.getInt(basePath + ".loyaltyPoints", 0));
+        playerData.setWatchMinutes(config.getLong(basePath + ".watchMinutes", 0L));
+        playerData.setLinkedAt(config.getLong(basePath + ".linkedAt", 0L));
+
+        return playerData;
+    }
+
+    private void writePlayerData(PlayerData playerData) {
+        String basePath = "links." + playerData.getPlayerId().toString();
+        config.set(basePath + ".twitchId", playerData.getTwitchId());
+        config.set(basePath + ".twitchUsername", playerData.getTwitchUsername());
+        config.set(basePath + ".accessToken", playerData.getAccessToken());
+        config.set(basePath + ".refreshToken", playerData.getRefreshToken());
+        config.set(basePath + ".isLive", playerData.isLive());
+        config.set(basePath + ".loyaltyPoints", playerData.getLoyaltyPoints());
+        config.set(basePath + ".watchMinutes", playerData.getWatchMinutes());
+        config.set(basePath + ".linkedAt", playerData.getLinkedAt());
+    }
+}
@@ -1,5 +1,8 @@
 package com.taffy.streamlink;
 
+import com.taffy.streamlink.api.CircuitBreaker;
+import com.taffy.streamlink.api.HttpTransport;
+import com.taffy.streamlink.api.RateGovernor;
 import com.taffy.streamlink.api.TwitchAPI;
 import com.taffy.streamlink.commands.StreamLinkCommand;
 import com.taffy.streamlink.commands.StreamLinkTab;
@@ -13,7 +16,9 @@ import org.bukkit.Bukkit;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.io.File;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.UUID;
 
@@ -26,6 +31,9 @@ public final class streamlink extends JavaPlugin implements Listener {
     private LogManager logManager;
     private ConfigManager configManager;
     private StreamLabsManager streamLabsManager;
+    private RateGovernor rateGovernor;
+    private CircuitBreaker circuitBreaker;
+    private HttpTransport httpTransport;
     private final ConcurrentHashMap<UUID, DeviceFlowTask> activeTasks = new ConcurrentHashMap<>();
 
     @Override
@@ -48,6 +56,14 @@ public final class streamlink extends JavaPlugin implements Listener {
         }
         // Initialize metrics after config
         this.metricsManager = new MetricsManager(this);
+        this.rateGovernor = createRateGovernor();
+        this.circuitBreaker = new CircuitBreaker(
+                getConfig().getInt("http.circuit-breaker.failure-threshold", 5),
+                1000L * getConfig().getLong("http.circuit-breaker.open-secs", 30));
+        // one connection pool for Twitch, Streamlabs and the OAuth helper
+        this.httpTransport = new HttpTransport(
+                Duration.ofMillis(getConfig().getLong("http.connect-timeout-ms", 10000L)),
+                Duration.ofMillis(getConfig().getLong("http.read-timeout-ms", 15000L)));
 
         // Check for both configurations
         String clientId = getConfig().getString("twitch.client-id");
@@ -99,26 +115,6 @@ public final class streamlink extends JavaPlugin implements Listener {
         } else {
             logManager.info("Twitch integration is configured and ready!");
         }
-
-        scheduleCsvAutoSync();
-    }
-
-    private void scheduleCsvAutoSync() {
-        boolean auto = getConfig().getBoolean("loyalty.csv.auto-sync", false);
-        int mins = getConfig().getInt("loyalty.csv.interval-mins", 60);
-        if (!"csv".equalsIgnoreCase(getConfig().getString("loyalty.source", "csv")) || !auto || mins <= 0) {
-            return;
-        }
-
-        File file = new File(getDataFolder(), getConfig().getString("loyalty.csv.path", "loyalty.csv"));
-        Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
-            try {
-                String summary = getDataManager().importLoyaltyCsv(file, /*dryRun=*/false);
-                if (getLogManager().isDebugMode()) getLogManager().debug("[AutoSync] " + summary);
-            } catch (Exception e) {
-                getLogManager().warn("[AutoSync] CSV sync failed: " + e.getMessage(), e);
-            }
-        }, 0L, mins * 60L * 20L);
     }
 
     @Override
@@ -141,11 +137,25 @@ public final class streamlink extends JavaPlugin implements Listener {
         }
         activeTasks.clear();
 
-        // Backup player data if dataManager is initialized
+        // Close the Streamlabs socket before the data it writes to is flushed
+        if (streamLabsManager != null) {
+            streamLabsManager.shutdown();
+        }
+
+        // Flush pending player data, then back it up
         if (dataManager != null) {
+            dataManager.shutdown();
             dataManager.backupPlayerData();
         }
 
+        if (rateGovernor != null) {
+            rateGovernor.shutdown();
+        }
+
+        if (httpTransport != null) {
+            httpTransport.shutdown();
+        }
+
         if (logManager != null) {
             logManager.info("StreamLink disabled. Goodbye!");
         } else {
@@ -153,6 +163,20 @@ public final class streamlink extends JavaPlugin implements Listener {
         }
     }
 
+    /** Budgets from http.rate-limit.hosts ("host:requests-per-minute"); other hosts are learned from responses. */
+    private RateGovernor createRateGovernor() {
+        Map<String, Integer> limits = new HashMap<>();
+        for (String entry : getConfig().getStringList("http.rate-limit.hosts")) {
+            int colon = entry.lastIndexOf(':');
+            try {
+                limits.put(entry.substring(0, colon).trim().toLowerCase(), Integer.parseInt(entry.substring(colon + 1).trim()));
+            } catch (RuntimeException e) {
+                logManager.warn("Ignoring http.rate-limit.hosts entry '" + entry + "' (expected host:requests-per-minute)");
+            }
+        }
+        return new RateGovernor(limits, getConfig().getDouble("http.rate-limit.interactive-reserve", 0.2));
+    }
+
     // Getters with null checks
     public LiveStatusManager getLiveStatusManager() {
         return liveStatusManager;
@@ -189,4 +213,16 @@ public final class streamlink extends JavaPlugin implements Listener {
     public StreamLabsManager getStreamLabsManager() {
         return streamLabsManager;
     }
+
+    public RateGovernor getRateGovernor() {
+        return rateGovernor;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public HttpTransport getHttpTransport() {
+        return httpTransport;
+    }
 }
\ No newline at end of file
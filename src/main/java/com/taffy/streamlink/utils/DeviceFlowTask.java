@@ -1,5 +1,7 @@
 package com.taffy.streamlink.utils;
 
+import com.taffy.streamlink.api.TwitchUser;
+import com.taffy.streamlink.exceptions.TwitchAPIException;
 import com.taffy.streamlink.managers.LogManager;
 import com.taffy.streamlink.managers.MetricsManager;
 import com.taffy.streamlink.streamlink;
@@ -54,9 +56,10 @@ public class DeviceFlowTask extends BukkitRunnable {
             String accessToken = tokens[0];
             String refreshToken = tokens.length > 1 ? tokens[1] : "refresh_token_placeholder";
 
-            String twitchId = plugin.getTwitchAPI().getTwitchUserId(accessToken);
-            String displayName = plugin.getTwitchAPI().getTwitchDisplayName(accessToken);
-            String twitchUsername = plugin.getTwitchAPI().getTwitchUsername(accessToken);
+            TwitchUser user = plugin.getTwitchAPI().getUserInfo(accessToken);
+            String twitchId = user.id();
+            String displayName = user.displayName();
+            String twitchUsername = user.login();
 
             if (!plugin.getDataManager().isLinked(player.getUniqueId())) {
                 plugin.getDataManager().linkPlayer(player.getUniqueId(), twitchId, accessToken, refreshToken, twitchUsername);
@@ -64,7 +67,7 @@ public class DeviceFlowTask extends BukkitRunnable {
                 log.info("Successfully linked " + player.getName() + " to Twitch: " + displayName);
 
                 // Apply permissions based on Twitch status
-                plugin.getPermissionManager().applyTwitchRank(player, accessToken);
+                plugin.getPermissionManager().applyTwitchRank(player, twitchId);
 
                 // Immediately check live status
                 plugin.getLiveStatusManager().checkPlayerLiveStatus(player);
@@ -80,7 +83,8 @@ public class DeviceFlowTask extends BukkitRunnable {
             metrics.incrementFailedLink();
 
             String errorMsg = e.getMessage();
-            if (errorMsg != null && errorMsg.contains("400")) {
+            // 400 means authorization_pending while the player has not approved yet
+            if (e instanceof TwitchAPIException api && api.getStatusCode() == 400) {
                 log.debug("Device flow polling (expected): " + errorMsg); // Change to debug level
             } else {
                 log.warn("Linking error for " + player.getName() + ": " + errorMsg);
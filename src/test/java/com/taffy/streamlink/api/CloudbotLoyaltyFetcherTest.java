@@ -0,0 +1,175 @@
+package com.taffy.streamlink.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.taffy.streamlink.exceptions.TwitchAPIException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CloudbotLoyaltyFetcherTest {
+    private static final int LAST_PAGE = 40;
+
+    private HttpServer server;
+    private HttpTransport http;
+    private RateGovernor governor;
+    private final AtomicInteger hits = new AtomicInteger();
+    // page number -> how the stub answers it; default is a normal page
+    private volatile IntFunction<Integer> statusFor = page -> 200;
+    private volatile long delayMs;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/loyalty", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        http = new HttpTransport(Duration.ofSeconds(2), Duration.ofSeconds(5));
+        governor = new RateGovernor(Map.of(), 0.0);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        http.shutdown();
+        governor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        int page = Integer.parseInt(exchange.getRequestURI().getQuery().replaceAll(".*page=(\\d+).*", "$1"));
+        try {
+            if (delayMs > 0) Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int status = statusFor.apply(page);
+        String body = status != 200 ? "{}"
+                : page > LAST_PAGE ? "{\"data\":{\"last_page\":" + LAST_PAGE + ",\"data\":[]}}"
+                : "{\"data\":{\"current_page\":" + page + ",\"last_page\":" + LAST_PAGE + ",\"data\":["
+                        + "{\"viewer\":{\"name\":\"Viewer" + page + "\"},\"points\":" + page * 10 + ",\"time\":5}]}}";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private CloudbotLoyaltyFetcher fetcher(CircuitBreaker breaker, CompletableFuture<Boolean> refreshed, int lanes) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/loyalty";
+        return new CloudbotLoyaltyFetcher(http, governor, breaker, url, () -> "token",
+                () -> refreshed, lanes, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void fetchesEveryPageUpToLastPage() throws Exception {
+        Set<Integer> pages = ConcurrentHashMap.newKeySet();
+        Map<String, Integer> points = new ConcurrentHashMap<>();
+        CloudbotLoyaltyFetcher fetcher = fetcher(new CircuitBreaker(5, 30_000L), CompletableFuture.completedFuture(false), 4);
+
+        int fetched = fetcher.fetchAll((page, rows) -> {
+            pages.add(page);
+            rows.forEach(r -> points.put(r.login(), r.points()));
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(LAST_PAGE, fetched);
+        assertEquals(LAST_PAGE, pages.size());
+        assertEquals(70, points.get("viewer7"));
+        // lanes never claim past last_page once it is known
+        assertTrue(fetcher.getRequestCount() <= LAST_PAGE + 4, "requests: " + fetcher.getRequestCount());
+    }
+
+    @Test
+    void firstFailureStopsTheOtherLanes() throws Exception {
+        statusFor = page -> page == 3 ? 404 : 200;
+        delayMs = 20;
+        AtomicInteger delivered = new AtomicInteger();
+        CloudbotLoyaltyFetcher fetcher = fetcher(new CircuitBreaker(5, 30_000L), CompletableFuture.completedFuture(false), 4);
+
+        CompletableFuture<Integer> job = fetcher.fetchAll((page, rows) -> delivered.incrementAndGet());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> job.get(10, TimeUnit.SECONDS));
+        TwitchAPIException cause = assertInstanceOf(TwitchAPIException.class, e.getCause());
+        assertEquals(404, cause.getStatusCode());
+
+        int requestsAtFailure = fetcher.getRequestCount();
+        assertTrue(requestsAtFailure < LAST_PAGE / 2, "requests: " + requestsAtFailure);
+        // the job is only reported done once nothing else is running
+        Thread.sleep(200);
+        assertEquals(requestsAtFailure, fetcher.getRequestCount());
+        assertTrue(delivered.get() < LAST_PAGE / 2);
+    }
+
+    @Test
+    void refreshesTheTokenOnceAfter401() throws Exception {
+        AtomicInteger rejected = new AtomicInteger();
+        statusFor = page -> page == 1 && rejected.getAndIncrement() == 0 ? 401 : 200;
+        CloudbotLoyaltyFetcher fetcher = fetcher(new CircuitBreaker(5, 30_000L), CompletableFuture.completedFuture(true), 1);
+
+        assertEquals(LAST_PAGE, fetcher.fetchAll((page, rows) -> { }).get(10, TimeUnit.SECONDS));
+        assertEquals(2, rejected.get(), "page 1 is asked for twice");
+        assertEquals(LAST_PAGE + 1, fetcher.getRequestCount());
+    }
+
+    @Test
+    void failsWhenTheRefreshFails() {
+        statusFor = page -> 401;
+        CloudbotLoyaltyFetcher fetcher = fetcher(new CircuitBreaker(5, 30_000L), CompletableFuture.completedFuture(false), 2);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> fetcher.fetchAll((page, rows) -> { }).get(10, TimeUnit.SECONDS));
+        assertEquals(401, assertInstanceOf(TwitchAPIException.class, e.getCause()).getStatusCode());
+    }
+
+    @Test
+    void serverErrorsOpenTheCircuit() {
+        statusFor = page -> 503;
+        CircuitBreaker breaker = new CircuitBreaker(1, 30_000L);
+        CloudbotLoyaltyFetcher fetcher = fetcher(breaker, CompletableFuture.completedFuture(false), 1);
+
+        assertThrows(ExecutionException.class, () -> fetcher.fetchAll((page, rows) -> { }).get(10, TimeUnit.SECONDS));
+        assertFalse(fetcher.isAvailable());
+        int before = hits.get();
+        assertThrows(ExecutionException.class, () -> fetcher.fetchAll((page, rows) -> { }).get(10, TimeUnit.SECONDS));
+        assertEquals(before, hits.get(), "an open circuit sends nothing");
+    }
+
+    @Test
+    void emptyPageEndsAListingWithoutLastPage() throws Exception {
+        // a stub that never reports last_page: page 6 onwards is empty
+        server.removeContext("/loyalty");
+        server.createContext("/loyalty", exchange -> {
+            int page = Integer.parseInt(exchange.getRequestURI().getQuery().replaceAll(".*page=(\\d+).*", "$1"));
+            String rows = page <= 5 ? "{\"viewer\":{\"name\":\"v" + page + "\"},\"points\":1}" : "";
+            byte[] bytes = ("{\"data\":[" + rows + "]}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        List<Integer> pages = new CopyOnWriteArrayList<>();
+        CloudbotLoyaltyFetcher fetcher = fetcher(new CircuitBreaker(5, 30_000L), CompletableFuture.completedFuture(false), 3);
+
+        assertEquals(5, fetcher.fetchAll((page, rows) -> pages.add(page)).get(10, TimeUnit.SECONDS));
+        assertEquals(5, pages.size());
+    }
+}
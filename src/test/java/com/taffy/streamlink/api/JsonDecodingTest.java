@@ -0,0 +1,129 @@
+package com.taffy.streamlink.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonDecodingTest {
+
+    private static <T> T decode(String json, JsonDecoding.Decoder<T> decoder) throws IOException {
+        // single quotes keep the fixtures readable
+        byte[] bytes = json.replace('\'', '"').getBytes(StandardCharsets.UTF_8);
+        return JsonDecoding.decode(new ByteArrayInputStream(bytes), decoder);
+    }
+
+    @Test
+    void streamSkipsUnknownFieldsOfEveryShape() throws IOException {
+        StreamInfo s = decode("{'id':'9','user_id':'42','tags':['a',{'x':1}],'type':'live','extra':{'n':null},"
+                + "'title':'Hi','game_name':'Chess','viewer_count':12,'is_mature':false}", StreamInfo::read);
+        assertEquals(new StreamInfo("42", "live", "Hi", "Chess", 12), s);
+        assertTrue(s.isLive());
+    }
+
+    @Test
+    void streamNullsAndMissingKeysFallBack() throws IOException {
+        StreamInfo s = decode("{'user_id':null,'type':null,'title':null,'viewer_count':null}", StreamInfo::read);
+        assertEquals(new StreamInfo(null, null, "", "", 0), s);
+        assertFalse(s.isLive());
+
+        assertEquals(new StreamInfo(null, null, "", "", 0), decode("{}", StreamInfo::read));
+        assertFalse(decode("{'type':''}", StreamInfo::read).isLive());
+    }
+
+    @Test
+    void streamAcceptsNumbersAsTextAndTextAsNumbers() throws IOException {
+        StreamInfo s = decode("{'user_id':42,'type':'live','viewer_count':'7'}", StreamInfo::read);
+        assertEquals("42", s.userId());
+        assertEquals(7, s.viewerCount());
+    }
+
+    @Test
+    void userDecodesAndDefaultsBroadcasterType() throws IOException {
+        assertEquals(new TwitchUser("1", "alice", "Alice", "affiliate"),
+                decode("{'id':'1','login':'alice','display_name':'Alice','broadcaster_type':'affiliate',"
+                        + "'profile_image_url':'u','created_at':'2020'}", TwitchUser::read));
+        assertEquals(new TwitchUser(null, "bob", null, ""),
+                decode("{'login':'bob','display_name':null,'broadcaster_type':null}", TwitchUser::read));
+    }
+
+    @Test
+    void firstOfDataTakesOnlyTheFirstObject() throws IOException {
+        TwitchUser u = decode("{'pagination':{},'data':[7,{'id':'1','login':'a'},{'id':'2','login':'b'}],'total':2}",
+                in -> JsonDecoding.firstOfData(in, TwitchUser::read));
+        assertEquals("1", u.id());
+        assertNull(decode("{'data':[]}", in -> JsonDecoding.firstOfData(in, TwitchUser::read)));
+        assertNull(decode("{'error':'x'}", in -> JsonDecoding.firstOfData(in, TwitchUser::read)));
+        assertNull(decode("{'data':null}", in -> JsonDecoding.firstOfData(in, TwitchUser::read)));
+    }
+
+    @Test
+    void allOfDataKeepsEveryObjectAndSkipsOtherValues() throws IOException {
+        List<StreamInfo> all = decode("{'data':[{'user_id':'1','type':'live'},null,'x',{'user_id':'2','type':'live'}],"
+                + "'pagination':{'cursor':'c'}}", in -> JsonDecoding.allOfData(in, StreamInfo::read));
+        assertEquals(List.of("1", "2"), all.stream().map(StreamInfo::userId).toList());
+        assertTrue(decode("{}", in -> JsonDecoding.allOfData(in, StreamInfo::read)).isEmpty());
+    }
+
+    @Test
+    void userPointsPrefersTheWrappedShape() throws IOException {
+        assertEquals(new LoyaltyRow("alice", 150, 30),
+                decode("{'data':{'points':1,'time_watched':2},'points':{'data':[{'points':150,'time_watched':30,"
+                        + "'username':'alice'},{'points':9}]}}", in -> LoyaltyRow.readUserPoints("alice", in)));
+        assertEquals(new LoyaltyRow("alice", 5, 6),
+                decode("{'data':{'points':5,'time_watched':6,'rank':3}}", in -> LoyaltyRow.readUserPoints("alice", in)));
+    }
+
+    @Test
+    void userPointsMissingOrNullValuesAreZero() throws IOException {
+        assertEquals(new LoyaltyRow("a", 0, 0), decode("{}", in -> LoyaltyRow.readUserPoints("a", in)));
+        assertEquals(new LoyaltyRow("a", 0, 0), decode("{'points':{'data':[]}}", in -> LoyaltyRow.readUserPoints("a", in)));
+        assertEquals(new LoyaltyRow("a", 0, 0),
+                decode("{'data':{'points':null,'time_watched':null}}", in -> LoyaltyRow.readUserPoints("a", in)));
+        assertEquals(new LoyaltyRow("a", 12, 0),
+                decode("{'data':{'points':12.9}}", in -> LoyaltyRow.readUserPoints("a", in)));
+    }
+
+    @Test
+    void cloudbotEntryLowerCasesAndDefaultsMinutes() throws IOException {
+        assertEquals(new LoyaltyRow("viewer", 40, -1),
+                decode("{'id':3,'viewer':{'name':'Viewer','id':'x'},'points':40,'created_at':'t'}", LoyaltyRow::readCloudbotEntry));
+        assertEquals(new LoyaltyRow("viewer", 0, 15),
+                decode("{'viewer':{'name':'viewer'},'points':null,'time':15}", LoyaltyRow::readCloudbotEntry));
+    }
+
+    @Test
+    void cloudbotEntryWithoutAViewerIsNull() throws IOException {
+        assertNull(decode("{'points':40}", LoyaltyRow::readCloudbotEntry));
+        assertNull(decode("{'viewer':null,'points':40}", LoyaltyRow::readCloudbotEntry));
+        assertNull(decode("{'viewer':{'name':null}}", LoyaltyRow::readCloudbotEntry));
+    }
+
+    @Test
+    void scalarReadersSkipValuesOfTheWrongShape() throws IOException {
+        String json = "[true,{'a':1},[1,2],null,'x']";
+        List<String> strings = decode(json, in -> {
+            in.beginArray();
+            List<String> out = new ArrayList<>();
+            while (in.hasNext()) out.add(JsonDecoding.nextString(in));
+            in.endArray();
+            return out;
+        });
+        assertEquals(Arrays.asList("true", null, null, null, "x"), strings);
+
+        long[] longs = decode("[{'a':1},null,'12',3.7,-2]", in -> {
+            in.beginArray();
+            long[] out = new long[5];
+            for (int i = 0; i < out.length; i++) out[i] = JsonDecoding.nextLong(in, -9L);
+            in.endArray();
+            return out;
+        });
+        assertArrayEquals(new long[]{-9L, -9L, 12L, 3L, -2L}, longs);
+    }
+}
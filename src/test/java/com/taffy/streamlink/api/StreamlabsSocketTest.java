@@ -0,0 +1,225 @@
+package com.taffy.streamlink.api;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs the client against a local WebSocket server speaking just enough engine.io/socket.io. */
+class StreamlabsSocketTest {
+    private static final String OPEN = "0{\"sid\":\"abc\",\"upgrades\":[],\"pingInterval\":200,\"pingTimeout\":300}";
+
+    private StandIn server;
+    private StreamlabsSocket socket;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (socket != null) socket.stop();
+        if (server != null) server.stop(1000);
+    }
+
+    /** Sends the open and connect packets, answers pings unless told not to. */
+    private static class StandIn extends WebSocketServer {
+        final CountDownLatch started = new CountDownLatch(1);
+        final BlockingQueue<String> paths = new LinkedBlockingQueue<>();
+        final AtomicInteger pings = new AtomicInteger();
+        final AtomicInteger connections = new AtomicInteger();
+        volatile boolean answerPings = true;
+        volatile boolean refuse;
+        volatile WebSocket last;
+
+        StandIn() {
+            super(new InetSocketAddress("127.0.0.1", 0));
+            setReuseAddr(true);
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+            connections.incrementAndGet();
+            paths.add(handshake.getResourceDescriptor());
+            if (refuse) {
+                conn.close(1011, "go away");
+                return;
+            }
+            last = conn;
+            conn.send(OPEN);
+            conn.send("40");
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            if ("2".equals(message)) {
+                pings.incrementAndGet();
+                if (answerPings) conn.send("3");
+            }
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+
+        String url() throws InterruptedException {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            return "ws://127.0.0.1:" + getPort();
+        }
+    }
+
+    private static class Recorder implements StreamlabsSocket.Listener {
+        final BlockingQueue<Boolean> connected = new LinkedBlockingQueue<>();
+        final BlockingQueue<String> disconnected = new LinkedBlockingQueue<>();
+        final List<Long> retries = new CopyOnWriteArrayList<>();
+        final List<StreamlabsEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onEvent(StreamlabsEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onConnected(boolean reconnected) {
+            connected.add(reconnected);
+        }
+
+        @Override
+        public void onDisconnected(String reason, long retryInMs) {
+            retries.add(retryInMs);
+            disconnected.add(reason);
+        }
+    }
+
+    private StandIn startServer() {
+        server = new StandIn();
+        server.start();
+        return server;
+    }
+
+    @Test
+    void handshakeSendsTheTokenAndKeepsTheSessionAlive() throws Exception {
+        startServer();
+        Recorder recorder = new Recorder();
+        socket = new StreamlabsSocket(server.url(), () -> CompletableFuture.completedFuture("t0k en"), recorder, 10_000L);
+        socket.start();
+
+        assertEquals(Boolean.FALSE, recorder.connected.poll(5, TimeUnit.SECONDS));
+        String path = server.paths.poll(1, TimeUnit.SECONDS);
+        assertNotNull(path);
+        assertTrue(path.startsWith("/socket.io/?"), path);
+        assertTrue(path.contains("EIO=3") && path.contains("transport=websocket") && path.contains("token=t0k+en"), path);
+        assertTrue(socket.isConnected());
+
+        // the announced timings are raised to the 1s floor: a ping every second, dead after 2s of silence
+        Thread.sleep(3500);
+        assertTrue(server.pings.get() >= 3, "pings: " + server.pings.get());
+        assertTrue(recorder.disconnected.isEmpty(), "dropped: " + recorder.disconnected);
+        assertEquals(1, server.connections.get());
+    }
+
+    @Test
+    void unansweredPingsTimeOutAndReconnect() throws Exception {
+        startServer();
+        server.answerPings = false;
+        Recorder recorder = new Recorder();
+        socket = new StreamlabsSocket(server.url(), () -> CompletableFuture.completedFuture("t"), recorder, 10_000L);
+        socket.start();
+
+        assertEquals(Boolean.FALSE, recorder.connected.poll(5, TimeUnit.SECONDS));
+        String reason = recorder.disconnected.poll(5, TimeUnit.SECONDS);
+        assertNotNull(reason);
+        assertTrue(reason.contains("heartbeat timeout"), reason);
+        assertFalse(socket.isConnected());
+
+        server.answerPings = true;
+        assertEquals(Boolean.TRUE, recorder.connected.poll(5, TimeUnit.SECONDS), "second connection is a reconnect");
+        assertTrue(socket.isConnected());
+    }
+
+    @Test
+    void refusedConnectionsBackOffExponentially() throws Exception {
+        startServer();
+        server.refuse = true;
+        Recorder recorder = new Recorder();
+        socket = new StreamlabsSocket(server.url(), () -> CompletableFuture.completedFuture("t"), recorder, 2_000L);
+        socket.start();
+
+        for (int i = 0; i < 3; i++) assertNotNull(recorder.disconnected.poll(10, TimeUnit.SECONDS));
+        // half-jittered: 1s ceiling, then 2s, then capped at 2s
+        long first = recorder.retries.get(0), second = recorder.retries.get(1), third = recorder.retries.get(2);
+        assertTrue(first >= 500 && first <= 1000, "first " + first);
+        assertTrue(second >= 1000 && second <= 2000, "second " + second);
+        assertTrue(third >= 1000 && third <= 2000, "third " + third);
+
+        server.refuse = false;
+        assertEquals(Boolean.FALSE, recorder.connected.poll(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failedTokenFetchIsRetried() throws Exception {
+        startServer();
+        AtomicInteger asked = new AtomicInteger();
+        Recorder recorder = new Recorder();
+        String url = server.url();
+        socket = new StreamlabsSocket(url, () -> asked.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture(new IllegalStateException("no scope"))
+                : CompletableFuture.completedFuture("t"), recorder, 2_000L);
+        socket.start();
+
+        String reason = recorder.disconnected.poll(5, TimeUnit.SECONDS);
+        assertNotNull(reason);
+        assertTrue(reason.contains("no socket token"), reason);
+        assertEquals(Boolean.FALSE, recorder.connected.poll(5, TimeUnit.SECONDS));
+        assertEquals(2, asked.get());
+    }
+
+    @Test
+    void redeliveredEventsAreDroppedByEventId() throws Exception {
+        startServer();
+        Recorder recorder = new Recorder();
+        socket = new StreamlabsSocket(server.url(), () -> CompletableFuture.completedFuture("t"), recorder, 10_000L);
+        socket.start();
+        assertEquals(Boolean.FALSE, recorder.connected.poll(5, TimeUnit.SECONDS));
+
+        String donation = "42[\"event\",{\"type\":\"donation\",\"event_id\":\"evt-1\",\"for\":\"streamlabs\","
+                + "\"message\":[{\"name\":\"Alice\",\"amount\":\"5.00\",\"_id\":\"m1\"}]}]";
+        String giftBomb = "42[\"event\",{\"type\":\"subMysteryGift\",\"event_id\":\"evt-2\",\"for\":\"twitch_account\","
+                + "\"message\":[{\"name\":\"bob\",\"months\":1},{\"name\":\"carol\",\"months\":1}]}]";
+        server.last.send(donation);
+        server.last.send(donation);
+        server.last.send(giftBomb);
+        server.last.send("42[\"event\",{\"type\":\"streamlabels\",\"message\":{\"data\":{}}}]");
+        server.last.send(giftBomb);
+
+        long deadline = System.currentTimeMillis() + 3000;
+        while (recorder.events.size() < 3 && System.currentTimeMillis() < deadline) Thread.sleep(20);
+        Thread.sleep(200);
+
+        assertEquals(3, recorder.events.size(), "events: " + recorder.events);
+        assertEquals(3, socket.getEventCount());
+        StreamlabsEvent first = recorder.events.get(0);
+        assertEquals(StreamlabsEvent.Type.DONATION, first.type());
+        assertEquals("alice", first.login());
+        assertEquals(5.0, first.amount());
+        assertEquals(List.of("evt-2#0", "evt-2#1"), recorder.events.subList(1, 3).stream().map(StreamlabsEvent::id).toList());
+    }
+}
@@ -0,0 +1,128 @@
+package com.taffy.streamlink.loyalty;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTokenizerTest {
+
+    private static List<List<String>> records(String csv) {
+        char[] buf = csv.toCharArray();
+        CsvTokenizer tok = new CsvTokenizer().reset(buf, 0, buf.length);
+        List<List<String>> out = new ArrayList<>();
+        while (tok.nextRecord()) {
+            List<String> row = new ArrayList<>();
+            for (int i = 0; i < tok.fieldCount(); i++) row.add(tok.field(i));
+            out.add(row);
+        }
+        return out;
+    }
+
+    @Test
+    void splitsPlainRecords() {
+        assertEquals(List.of(List.of("alice", "10"), List.of("bob", "20")), records("alice,10\nbob,20\n"));
+    }
+
+    @Test
+    void handlesCrLfAndMissingFinalLineBreak() {
+        assertEquals(List.of(List.of("a", "1"), List.of("b", "2")), records("a,1\r\nb,2"));
+    }
+
+    @Test
+    void unescapesDoubledQuotes() {
+        assertEquals(List.of(List.of("say \"hi\"", "3")), records("\"say \"\"hi\"\"\",3\n"));
+    }
+
+    @Test
+    void keepsCommasInsideQuotes() {
+        assertEquals(List.of(List.of("last, first", "5")), records("\"last, first\",5\n"));
+    }
+
+    @Test
+    void keepsLineBreaksInsideQuotes() {
+        assertEquals(List.of(List.of("two\nlines", "7"), List.of("next", "8")), records("\"two\nlines\",7\nnext,8\n"));
+    }
+
+    @Test
+    void emptyFieldsAreKept() {
+        assertEquals(List.of(List.of("", "", "x")), records(",,x\n"));
+    }
+
+    @Test
+    void blankLineIsABlankRecord() {
+        char[] buf = "a,1\n\nb,2\n".toCharArray();
+        CsvTokenizer tok = new CsvTokenizer().reset(buf, 0, buf.length);
+        assertTrue(tok.nextRecord());
+        assertFalse(tok.isBlankRecord());
+        assertTrue(tok.nextRecord());
+        assertTrue(tok.isBlankRecord());
+        assertTrue(tok.nextRecord());
+        assertEquals("b", tok.field(0));
+        assertFalse(tok.nextRecord());
+    }
+
+    @Test
+    void trimsFieldRanges() {
+        char[] buf = "  Alice \t, 42 \n".toCharArray();
+        CsvTokenizer tok = new CsvTokenizer().reset(buf, 0, buf.length);
+        assertTrue(tok.nextRecord());
+        assertEquals("Alice", tok.field(0));
+        assertEquals(2, tok.trimmedStart(0));
+        assertEquals(7, tok.trimmedEnd(0));
+        assertEquals(42L, tok.parseLong(1));
+    }
+
+    @Test
+    void blankFieldsAreBlank() {
+        char[] buf = "   ,x\n".toCharArray();
+        CsvTokenizer tok = new CsvTokenizer().reset(buf, 0, buf.length);
+        assertTrue(tok.nextRecord());
+        assertTrue(tok.isBlank(0));
+        assertFalse(tok.isBlank(1));
+    }
+
+    @Test
+    void parsesSignedNumbersAndRejectsJunk() {
+        char[] buf = "-12,+7,1x,,9223372036854775807,9223372036854775808\n".toCharArray();
+        CsvTokenizer tok = new CsvTokenizer().reset(buf, 0, buf.length);
+        assertTrue(tok.nextRecord());
+        assertEquals(-12L, tok.parseLong(0));
+        assertEquals(7L, tok.parseLong(1));
+        assertEquals(CsvTokenizer.INVALID, tok.parseLong(2));
+        assertEquals(CsvTokenizer.INVALID, tok.parseLong(3));
+        assertEquals(Long.MAX_VALUE, tok.parseLong(4));
+        assertEquals(CsvTokenizer.INVALID, tok.parseLong(5));
+    }
+
+    @Test
+    void growsPastSixteenFields() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 40; i++) sb.append(i == 0 ? "" : ",").append(i);
+        List<List<String>> rows = records(sb.append('\n').toString());
+        assertEquals(40, rows.get(0).size());
+        assertEquals("39", rows.get(0).get(39));
+    }
+
+    @Test
+    void tokenizesOnlyTheGivenRange() {
+        char[] buf = "skip\na,1\nb,2\ntail".toCharArray();
+        CsvTokenizer tok = new CsvTokenizer().reset(buf, 5, 8);
+        assertTrue(tok.nextRecord());
+        assertEquals("a", tok.field(0));
+        assertTrue(tok.nextRecord());
+        assertEquals("b", tok.field(0));
+        assertFalse(tok.nextRecord());
+    }
+
+    @Test
+    void recordBoundariesIgnoreQuotedLineBreaks() {
+        char[] buf = "h,p\n\"x\ny\",1\npartial".toCharArray();
+        assertEquals(4, CsvTokenizer.firstRecordEnd(buf, 0, buf.length));
+        assertEquals(12, CsvTokenizer.lastRecordBoundary(buf, 0, buf.length));
+        assertEquals(0, CsvTokenizer.lastRecordBoundary(buf, 0, 3));
+        assertEquals(3, CsvTokenizer.firstRecordEnd(buf, 0, 3));
+    }
+}
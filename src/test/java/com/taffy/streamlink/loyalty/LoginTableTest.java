@@ -0,0 +1,79 @@
+package com.taffy.streamlink.loyalty;
+
+import com.taffy.streamlink.storage.IndexEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginTableTest {
+
+    private static UUID find(LoginTable table, String login) {
+        char[] buf = ("," + login + ",").toCharArray();
+        return table.find(buf, 1, buf.length - 1);
+    }
+
+    @Test
+    void findsLoginsCaseInsensitively() {
+        UUID alice = UUID.randomUUID();
+        LoginTable table = LoginTable.of(List.of(new IndexEntry(alice, "1", " Alice ")));
+        assertEquals(alice, find(table, "alice"));
+        assertEquals(alice, find(table, "ALICE"));
+        assertNull(find(table, "alic"));
+        assertNull(find(table, "alicee"));
+    }
+
+    @Test
+    void skipsEntriesWithoutALogin() {
+        UUID bob = UUID.randomUUID();
+        List<IndexEntry> entries = new ArrayList<>();
+        entries.add(new IndexEntry(UUID.randomUUID(), "1", null));
+        entries.add(new IndexEntry(UUID.randomUUID(), "2", "  "));
+        entries.add(new IndexEntry(bob, "3", "bob"));
+        LoginTable table = LoginTable.of(entries);
+        assertEquals(bob, find(table, "bob"));
+        assertNull(find(table, ""));
+    }
+
+    @Test
+    void emptyTableFindsNothing() {
+        assertNull(find(LoginTable.of(List.of()), "anyone"));
+    }
+
+    @Test
+    void laterEntryWinsForADuplicateLogin() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        LoginTable table = LoginTable.of(List.of(new IndexEntry(first, "1", "dup"), new IndexEntry(second, "2", "DUP")));
+        assertEquals(second, find(table, "dup"));
+    }
+
+    @Test
+    void findsEveryLoginWhenSlotsCollide() {
+        // thousands of logins at half load are bound to share slots and need probing
+        List<IndexEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) entries.add(new IndexEntry(UUID.randomUUID(), String.valueOf(i), "viewer_" + i));
+        LoginTable table = LoginTable.of(entries);
+        for (IndexEntry e : entries) assertEquals(e.playerId(), find(table, e.twitchUsername().toUpperCase()));
+        assertNull(find(table, "viewer_5000"));
+    }
+
+    @Test
+    void matchesRegardlessOfTheDefaultLocale() {
+        Locale before = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            // Turkish lower-cases "I" to a dotless i; lookups fold case per character
+            UUID isabel = UUID.randomUUID();
+            LoginTable table = LoginTable.of(List.of(new IndexEntry(isabel, "1", "ISABEL")));
+            assertEquals(isabel, find(table, "isabel"));
+            assertEquals(isabel, find(table, "Isabel"));
+        } finally {
+            Locale.setDefault(before);
+        }
+    }
+}
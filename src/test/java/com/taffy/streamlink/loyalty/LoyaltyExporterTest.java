@@ -0,0 +1,90 @@
+package com.taffy.streamlink.loyalty;
+
+import com.taffy.streamlink.managers.LogManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoyaltyExporterTest {
+    private static final LogManager LOG = new LogManager(Logger.getLogger("LoyaltyExporterTest"), false);
+
+    @TempDir
+    File dir;
+
+    private final LoyaltyExporter exporter = new LoyaltyExporter(LOG);
+
+    @AfterEach
+    void shutdown() {
+        exporter.shutdown();
+    }
+
+    private static List<ExportRow> rows(int n) {
+        List<ExportRow> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(new ExportRow(new UUID(i, i), "viewer" + i, i * 10, i, 1000L + i, i % 2 == 0));
+        }
+        return out;
+    }
+
+    @Test
+    void gzippedBinaryEndsWithTheRowCount() throws Exception {
+        File out = new File(dir, "export.bin.gz");
+        List<ExportRow> rows = rows(3000);
+        String summary = exporter.submit(out, new ExportOptions().format(ExportOptions.Format.BINARY).gzip(true),
+                sink -> rows.forEach(sink), null).get(10, TimeUnit.SECONDS);
+        assertTrue(summary.startsWith("Exported 3000 rows"), summary);
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(out))))) {
+            assertEquals(0x534C5831, in.readInt());
+            assertEquals(2, in.readInt());
+            in.readLong();
+            int read = 0;
+            while (in.readByte() == 1) {
+                ExportRow row = new ExportRow(new UUID(in.readLong(), in.readLong()), in.readUTF(), in.readInt(),
+                        in.readLong(), in.readLong(), in.readBoolean());
+                assertEquals(rows.get(read++), row);
+            }
+            assertEquals(3000, in.readInt());
+            assertEquals(3000, read);
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    void csvIsWrittenAsRowsArrive() throws Exception {
+        File out = new File(dir, "export.csv");
+        String summary = exporter.submit(out, new ExportOptions(), sink -> rows(2).forEach(sink), null)
+                .get(10, TimeUnit.SECONDS);
+        assertTrue(summary.startsWith("Exported 2 rows"), summary);
+        assertEquals("Username,Points,Minutes,LinkedAt\nviewer0,0,0,1000\nviewer1,10,1,1001\n",
+                Files.readString(out.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void aFailingSourceLeavesNoFileBehind() throws Exception {
+        File out = new File(dir, "export.csv");
+        String summary = exporter.submit(out, new ExportOptions(), sink -> {
+            rows(5).forEach(sink);
+            throw new IllegalStateException("could not read player data");
+        }, null).get(10, TimeUnit.SECONDS);
+        assertTrue(summary.startsWith("Export failed"), summary);
+        assertFalse(out.exists());
+        assertFalse(new File(dir, "export.csv.tmp").exists());
+    }
+}
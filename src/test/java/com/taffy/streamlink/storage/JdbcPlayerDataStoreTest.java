@@ -0,0 +1,142 @@
+package com.taffy.streamlink.storage;
+
+import com.taffy.streamlink.managers.LogManager;
+import com.taffy.streamlink.models.PlayerData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcPlayerDataStoreTest {
+    private static final LogManager LOG = new LogManager(Logger.getLogger("JdbcPlayerDataStoreTest"), false);
+
+    private String url;
+    private Connection keepAlive;
+
+    @BeforeEach
+    void createDatabase() throws Exception {
+        // the in-memory database lives as long as one connection to it stays open
+        url = "jdbc:h2:mem:" + UUID.randomUUID();
+        keepAlive = DriverManager.getConnection(url);
+    }
+
+    @AfterEach
+    void dropDatabase() throws Exception {
+        keepAlive.close();
+    }
+
+    private JdbcPlayerDataStore openStore() throws Exception {
+        JdbcPlayerDataStore store = new JdbcPlayerDataStore("h2", url, null, LOG);
+        store.open();
+        return store;
+    }
+
+    private static PlayerData player(String login, int points) {
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        data.setTwitchId("id-" + login);
+        data.setTwitchUsername(login);
+        data.setLoyaltyPoints(points);
+        data.setWatchMinutes(90);
+        data.setLinkedAt(1234L);
+        return data;
+    }
+
+    @Test
+    void reopensAnExistingDatabase() throws Exception {
+        PlayerData alice = player("alice", 50);
+        JdbcPlayerDataStore first = openStore();
+        first.write(List.of(new PendingWrite(alice, PlayerChange.LINK)), List.of());
+        first.close();
+
+        JdbcPlayerDataStore second = openStore();
+        try {
+            PlayerData loaded = second.load(alice.getPlayerId());
+            assertNotNull(loaded);
+            assertEquals("alice", loaded.getTwitchUsername());
+            assertEquals(50, loaded.getLoyaltyPoints());
+            assertEquals(1234L, loaded.getLinkedAt());
+        } finally {
+            second.close();
+        }
+    }
+
+    @Test
+    void addsLinkedAtToAnOlderTable() throws Exception {
+        try (Statement st = keepAlive.createStatement()) {
+            st.execute("CREATE TABLE streamlink_players (uuid CHAR(36) NOT NULL PRIMARY KEY, "
+                    + "twitch_id VARCHAR(32), twitch_username VARCHAR(64), access_token VARCHAR(512), "
+                    + "refresh_token VARCHAR(512), is_live BOOLEAN NOT NULL DEFAULT FALSE, "
+                    + "loyalty_points INT NOT NULL DEFAULT 0, watch_minutes BIGINT NOT NULL DEFAULT 0)");
+        }
+        JdbcPlayerDataStore store = openStore();
+        try {
+            PlayerData bob = player("bob", 7);
+            store.write(List.of(new PendingWrite(bob, PlayerChange.LINK)), List.of());
+            assertEquals(1234L, store.load(bob.getPlayerId()).getLinkedAt());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void upsertsAndDeletes() throws Exception {
+        JdbcPlayerDataStore store = openStore();
+        try {
+            PlayerData carol = player("carol", 1);
+            store.write(List.of(new PendingWrite(carol, PlayerChange.LINK)), List.of());
+            carol.setLoyaltyPoints(2);
+            store.write(List.of(new PendingWrite(carol, PlayerChange.POINTS)), List.of());
+            assertEquals(2, store.load(carol.getPlayerId()).getLoyaltyPoints());
+            assertEquals(1, store.loadIndex().size());
+
+            store.write(List.of(), List.of(carol.getPlayerId()));
+            assertNull(store.load(carol.getPlayerId()));
+            assertTrue(store.isEmpty());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void scanVisitsEveryRowOnceWithoutHoldingTheStore() throws Exception {
+        JdbcPlayerDataStore store = openStore();
+        try {
+            List<PendingWrite> batch = new ArrayList<>();
+            for (int i = 0; i < 1203; i++) batch.add(new PendingWrite(player("p" + i, i), PlayerChange.LINK));
+            store.write(batch, List.of());
+            UUID probe = batch.get(0).getData().getPlayerId();
+
+            Set<UUID> seen = new HashSet<>();
+            store.forEach(data -> {
+                assertTrue(seen.add(data.getPlayerId()), "visited twice: " + data.getPlayerId());
+                if (seen.size() == 1) {
+                    // another thread's lookup must not wait for the whole scan
+                    PlayerData loaded = CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return store.load(probe);
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }).orTimeout(2, TimeUnit.SECONDS).join();
+                    assertEquals(probe, loaded.getPlayerId());
+                }
+            });
+            assertEquals(1203, seen.size());
+        } finally {
+            store.close();
+        }
+    }
+}
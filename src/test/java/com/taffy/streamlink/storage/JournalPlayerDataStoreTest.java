@@ -0,0 +1,160 @@
+package com.taffy.streamlink.storage;
+
+import com.taffy.streamlink.managers.LogManager;
+import com.taffy.streamlink.models.PlayerData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalPlayerDataStoreTest {
+    private static final LogManager LOG = new LogManager(Logger.getLogger("JournalPlayerDataStoreTest"), false);
+
+    @TempDir
+    File root;
+
+    private JournalPlayerDataStore openStore(File dir) throws Exception {
+        JournalPlayerDataStore store = new JournalPlayerDataStore(dir, LOG, 0L);
+        store.open();
+        return store;
+    }
+
+    private static PlayerData player(String login, int points) {
+        PlayerData data = new PlayerData(UUID.randomUUID());
+        data.setTwitchId("id-" + login);
+        data.setTwitchUsername(login);
+        data.setAccessToken("token-" + login);
+        data.setLoyaltyPoints(points);
+        data.setLinkedAt(1234L);
+        return data;
+    }
+
+    private static void link(JournalPlayerDataStore store, PlayerData data) throws Exception {
+        store.write(List.of(new PendingWrite(data, PlayerChange.LINK)), List.of());
+    }
+
+    /** What the folder looks like if the server died now: a copy taken while the store is still open. */
+    private File crashCopy(File dir) throws IOException {
+        File copy = new File(root, dir.getName() + "-crash");
+        assertTrue(copy.mkdirs());
+        for (File f : dir.listFiles()) Files.copy(f.toPath(), new File(copy, f.getName()).toPath());
+        return copy;
+    }
+
+    private static File newestSegment(File dir) {
+        File[] segments = dir.listFiles((d, name) -> name.startsWith("journal-"));
+        Arrays.sort(segments);
+        return segments[segments.length - 1];
+    }
+
+    @Test
+    void tornLastRecordKeepsEverythingBeforeIt() throws Exception {
+        File dir = new File(root, "storage");
+        JournalPlayerDataStore store = openStore(dir);
+        PlayerData alice = player("alice", 10);
+        PlayerData bob = player("bob", 20);
+        link(store, alice);
+        link(store, bob);
+        File crashed = crashCopy(dir);
+        store.close();
+
+        // cut into bob's record, as a crash mid-append would
+        try (RandomAccessFile segment = new RandomAccessFile(newestSegment(crashed), "rw")) {
+            segment.setLength(segment.length() - 3);
+        }
+
+        JournalPlayerDataStore reopened = openStore(crashed);
+        try {
+            assertEquals(10, reopened.load(alice.getPlayerId()).getLoyaltyPoints());
+            assertNull(reopened.load(bob.getPlayerId()));
+            // appends after the torn tail go to a fresh segment and survive the next start
+            link(reopened, bob);
+        } finally {
+            reopened.close();
+        }
+        JournalPlayerDataStore again = openStore(crashed);
+        try {
+            assertEquals(2, again.loadAll().size());
+        } finally {
+            again.close();
+        }
+    }
+
+    @Test
+    void damagedSnapshotFallsBackToTheBackup() throws Exception {
+        File dir = new File(root, "storage");
+        JournalPlayerDataStore store = openStore(dir);
+        PlayerData alice = player("alice", 10);
+        PlayerData bob = player("bob", 20);
+        link(store, alice);
+        store.compact();
+        link(store, bob);
+        store.compact();
+        File crashed = crashCopy(dir);
+        store.close();
+
+        File snapshot = new File(crashed, "playerdata.snapshot");
+        assertTrue(new File(crashed, "playerdata.snapshot.bak").exists());
+        try (RandomAccessFile file = new RandomAccessFile(snapshot, "rw")) {
+            file.seek(file.length() / 2);
+            int b = file.read();
+            file.seek(file.length() / 2);
+            file.write(b ^ 0xFF);
+        }
+
+        JournalPlayerDataStore reopened = openStore(crashed);
+        try {
+            // alice comes from the backup, bob from the segment written after it
+            assertEquals("alice", reopened.load(alice.getPlayerId()).getTwitchUsername());
+            assertEquals(20, reopened.load(bob.getPlayerId()).getLoyaltyPoints());
+            assertEquals(2, reopened.loadAll().size());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void reopensAfterCompaction() throws Exception {
+        File dir = new File(root, "storage");
+        JournalPlayerDataStore store = openStore(dir);
+        PlayerData alice = player("alice", 10);
+        PlayerData bob = player("bob", 20);
+        link(store, alice);
+        link(store, bob);
+        store.compact();
+
+        alice.setLoyaltyPoints(15);
+        alice.setAccessToken("rotated");
+        store.write(List.of(new PendingWrite(alice, PlayerChange.POINTS)
+                .merge(alice, PlayerChange.TOKEN)), List.of(bob.getPlayerId()));
+        File crashed = crashCopy(dir);
+        store.close();
+
+        for (File folder : List.of(crashed, dir)) {
+            JournalPlayerDataStore reopened = openStore(folder);
+            try {
+                PlayerData loaded = reopened.load(alice.getPlayerId());
+                assertEquals(15, loaded.getLoyaltyPoints(), folder.getName());
+                assertEquals("rotated", loaded.getAccessToken(), folder.getName());
+                assertEquals(1234L, loaded.getLinkedAt(), folder.getName());
+                assertNull(reopened.load(bob.getPlayerId()), folder.getName());
+            } finally {
+                reopened.close();
+            }
+        }
+        // three compactions in dir (#1, #2 on close, #4 on the second close): segments up to the
+        // backup's #2 are gone, later ones stay so the backup can still be replayed forward
+        assertFalse(new File(dir, "journal-000001.log").exists());
+        assertFalse(new File(dir, "journal-000002.log").exists());
+        assertTrue(new File(dir, "journal-000003.log").exists());
+    }
+}